@@ -0,0 +1,45 @@
+package com.cbt.benchmarks;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.empty;
+
+/**
+ * Runs the JMH benchmarks of this package. Use the {@code bench} profile:
+ * <pre>
+ * mvn test -Pbench -Dbench.include=ReposBenchmark -Dbench.scale=1,1000
+ * </pre>
+ * <ul>
+ *     <li>{@code bench.include} (all): regular expression of benchmarks to run</li>
+ *     <li>{@code bench.scale}: comma separated payload scales instead of every one</li>
+ *     <li>{@code bench.gc} (true): adds allocation rate and bytes per operation through the GC profiler</li>
+ * </ul>
+ * Results are also written to {@code target/jmh-result.json} for comparing runs before and after a change.
+ */
+public class BenchmarkRun {
+
+    @Test
+    public void runBenchmarks() throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(BenchmarkRun.class.getPackage().getName() + ".*"
+                        + System.getProperty("bench.include", ""))
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json");
+        String scales = System.getProperty("bench.scale");
+        if (scales != null && !scales.isBlank()) {
+            options.param("scale", scales.split(","));
+        }
+        if (Boolean.parseBoolean(System.getProperty("bench.gc", "true"))) {
+            options.addProfiler(GCProfiler.class);
+        }
+        assertThat(new Runner(options.build()).run(), not(empty()));
+    }
+}
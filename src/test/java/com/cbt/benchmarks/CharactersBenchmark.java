@@ -0,0 +1,71 @@
+package com.cbt.benchmarks;
+
+import com.cbt.utilities.json.JsonColumns;
+import com.cbt.utilities.json.JsonQuery;
+import com.cbt.utilities.json.JsonSchema;
+import io.restassured.path.json.JsonPath;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What {@code HarryPotterApiTests} does with a {@code /characters} body: list extraction through {@code JsonPath},
+ * GPath {@code findAll} filters next to the same filter as a compiled {@link JsonQuery}, a substring search on the
+ * body text, the single-pass column extraction that replaced some of them, and the streaming contract check. At scale
+ * 1000 the body holds 194k characters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CharactersBenchmark {
+
+    private static final JsonQuery GRYFFINDOR_NAMES = JsonQuery.compile("findAll{it.house=='Gryffindor'}.name");
+    private static final JsonSchema CHARACTERS = JsonSchema.load("character").arrayOf();
+
+    @Param({"1", "10", "100", "1000"})
+    public int scale;
+
+    private byte[] body;
+    private String text;
+
+    @Setup
+    public void load() {
+        body = Payloads.characters(scale);
+        text = new String(body, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<Object> jsonPathGetList() {
+        return JsonPath.from(text).getList("_id");
+    }
+
+    @Benchmark
+    public List<Object> gpathFindAll() {
+        return JsonPath.from(text).getList("findAll{it.house=='Gryffindor'}.name");
+    }
+
+    @Benchmark
+    public List<Object> compiledQueryFindAll() {
+        return GRYFFINDOR_NAMES.list(JsonQuery.parse(body));
+    }
+
+    @Benchmark
+    public boolean asStringContains() {
+        return new String(body, StandardCharsets.UTF_8).contains("Hermione Granger");
+    }
+
+    @Benchmark
+    public JsonColumns columnsExtract() {
+        return JsonColumns.extract(body, "_id", "name", "house");
+    }
+
+    @Benchmark
+    public List<JsonSchema.Violation> schemaValidate() {
+        return CHARACTERS.validate(body);
+    }
+}
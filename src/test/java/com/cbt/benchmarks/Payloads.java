@@ -0,0 +1,104 @@
+package com.cbt.benchmarks;
+
+import com.cbt.gitHubTesting.GitHubApi;
+import com.cbt.harryPotterAPI.PotterApi;
+import com.cbt.utilities.json.Json;
+import com.cbt.utilities.json.SyntheticArray;
+import com.cbt.utilities.stub.Cassette;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Recorded response bodies for the benchmarks, taken from the stub cassettes and blown up to any size.
+ *
+ * A payload at scale {@code n} holds every recorded element {@code n} times. Copies get their identifying fields
+ * suffixed so uniqueness checks still pass, and the list can be re-sorted on a field so sort checks still pass too:
+ * the benchmarks measure the passing path, the one every green run takes.
+ */
+final class Payloads {
+
+    private static final String CASSETTES = System.getProperty("stub.cassettes", "src/test/resources/cassettes");
+
+    private Payloads() {
+    }
+
+    /**
+     * {@code GET /v1/characters}, {@code _id} kept unique.
+     */
+    static byte[] characters(int scale) {
+        SyntheticArray characters = charactersOfAnyLength();
+        return characters.toBytes(characters.recorded() * scale);
+    }
+
+    /**
+     * {@code GET /v1/characters} stretched to any number of characters, {@code _id} kept unique.
+     */
+    static SyntheticArray charactersOfAnyLength() {
+        String query = "key=" + URLEncoder.encode(PotterApi.API_KEY, StandardCharsets.UTF_8);
+        byte[] body = recorded("potter", Cassette.key("GET", "/v1/characters", query, "application/json"));
+        return SyntheticArray.of(body, "_id", "name");
+    }
+
+    /**
+     * {@code GET /orgs/cucumber/repos?per_page=100}, {@code id} and {@code node_id} kept unique, sorted by
+     * {@code full_name}.
+     */
+    static byte[] repos(int scale) {
+        byte[] body = recorded("github", Cassette.key("GET", "/orgs/cucumber/repos", "per_page=100",
+                GitHubApi.MEDIA_TYPE));
+        return scale(body, scale, "full_name", "id", "node_id", "name", "full_name");
+    }
+
+    private static byte[] recorded(String cassette, String key) {
+        Cassette.Exchange exchange = Cassette.load(Paths.get(CASSETTES, cassette + ".http")).find(key);
+        if (exchange == null) {
+            throw new IllegalStateException("No recorded response for " + key + " in " + cassette + ".http");
+        }
+        return exchange.body();
+    }
+
+    static byte[] scale(byte[] array, int scale, String sortField, String... uniqueFields) {
+        List<Map<String, Object>> elements;
+        try {
+            elements = Json.MAPPER.readValue(array, new TypeReference<List<Map<String, Object>>>() { });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Recorded body is not a JSON array", e);
+        }
+        List<Map<String, Object>> scaled = new ArrayList<>(elements.size() * scale);
+        for (int copy = 0; copy < scale; copy++) {
+            for (Map<String, Object> element : elements) {
+                Map<String, Object> clone = new LinkedHashMap<>(element);
+                if (copy > 0) {
+                    for (String field : uniqueFields) {
+                        if (clone.containsKey(field)) {
+                            clone.put(field, distinct(clone.get(field), copy));
+                        }
+                    }
+                }
+                scaled.add(clone);
+            }
+        }
+        if (sortField != null) {
+            scaled.sort(Comparator.comparing(element -> String.valueOf(element.get(sortField))));
+        }
+        try {
+            return Json.MAPPER.writeValueAsBytes(scaled);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Object distinct(Object value, int copy) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue() + copy * 10_000_000_000L;
+        }
+        return value + "-" + copy;
+    }
+}
@@ -0,0 +1,84 @@
+package com.cbt.benchmarks;
+
+import com.cbt.utilities.json.JsonColumns;
+import com.cbt.utilities.json.OrderCheck;
+import com.cbt.utilities.json.Ordering;
+import com.cbt.utilities.json.UniqueValues;
+import io.restassured.path.json.JsonPath;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What {@code GitHubApiTesting} does with an {@code /orgs/cucumber/repos} body: the uniqueness check of {@code test4},
+ * as the old {@code HashSet} copy and as the streamed {@link UniqueValues} scan, and the order check of
+ * {@code test6} to {@code test8}, as the old copy-sort-compare on values from {@code JsonPath} and on the extracted
+ * values, and as the one-pass {@link OrderCheck}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReposBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int scale;
+
+    private byte[] body;
+    private String text;
+    private List<Object> ids;
+    private List<String> fullNames;
+
+    @Setup
+    public void load() {
+        body = Payloads.repos(scale);
+        text = new String(body, StandardCharsets.UTF_8);
+        JsonColumns columns = JsonColumns.extract(body, "id", "full_name");
+        ids = columns.column("id").toList();
+        fullNames = columns.column("full_name").strings();
+    }
+
+    @Benchmark
+    public boolean uniqueIdsFromJsonPath() {
+        List<Object> list = JsonPath.from(text).getList("id");
+        return new HashSet<>(list).size() == list.size();
+    }
+
+    @Benchmark
+    public boolean uniqueIdsHashSet() {
+        return new HashSet<>(ids).size() == ids.size();
+    }
+
+    @Benchmark
+    public boolean uniqueIdsStreamed() {
+        UniqueValues values = UniqueValues.exact("id");
+        UniqueValues.scan(body, values);
+        return !values.duplicate().isPresent();
+    }
+
+    @Benchmark
+    public boolean sortedFromJsonPath() {
+        List<String> list = JsonPath.from(text).getList("full_name");
+        List<String> copy = new ArrayList<>(list);
+        Collections.sort(copy);
+        return list.equals(copy);
+    }
+
+    @Benchmark
+    public boolean sortedCollectionsSort() {
+        List<String> copy = new ArrayList<>(fullNames);
+        Collections.sort(copy);
+        return fullNames.equals(copy);
+    }
+
+    @Benchmark
+    public boolean sortedStreamed() {
+        OrderCheck<String> check = OrderCheck.of("full_name", Ordering.natural(), OrderCheck.Direction.ASCENDING);
+        OrderCheck.scan(body, check);
+        return !check.violation().isPresent();
+    }
+}
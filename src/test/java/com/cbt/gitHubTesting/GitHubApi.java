@@ -0,0 +1,54 @@
+package com.cbt.gitHubTesting;
+
+import com.cbt.utilities.cache.ConditionalCacheFilter;
+import com.cbt.utilities.cache.ResponseCacheFilter;
+import com.cbt.utilities.http.HttpTransport;
+import com.cbt.utilities.http.RateLimitFilter;
+import com.cbt.utilities.latency.LatencyFilter;
+import com.cbt.utilities.logging.AsyncLogFilter;
+import com.cbt.utilities.stub.StubServer;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * Request specification for the GitHub REST API, built once and shared by every test.
+ *
+ * Use it only through {@code given(GitHubApi.spec())}, which copies it, so tests running in parallel never see each
+ * other's changes and nothing touches the global {@code RestAssured.baseURI}.
+ */
+public final class GitHubApi {
+
+    public static final String UPSTREAM = "https://api.github.com";
+    public static final String MEDIA_TYPE = "application/vnd.github.v3+json";
+
+    private static RequestSpecification spec;
+
+    private GitHubApi() {
+    }
+
+    public static synchronized RequestSpecification spec() {
+        if (spec == null) {
+            RequestSpecBuilder builder = new RequestSpecBuilder().
+                    setBaseUri(StubServer.baseUriFor("github", UPSTREAM)).
+                    setAccept(MEDIA_TYPE);
+            HttpTransport.configure(builder);
+            if (ResponseCacheFilter.enabled()) {
+                builder.addFilter(ResponseCacheFilter.shared());
+            }
+            if (ConditionalCacheFilter.enabled()) {
+                builder.addFilter(ConditionalCacheFilter.forApi("github"));
+            }
+            if (RateLimitFilter.enabled()) {
+                builder.addFilter(RateLimitFilter.forApi("github"));
+            }
+            if (LatencyFilter.enabled()) {
+                builder.addFilter(LatencyFilter.shared());
+            }
+            if (AsyncLogFilter.enabled()) {
+                builder.addFilter(AsyncLogFilter.shared());
+            }
+            spec = builder.build();
+        }
+        return spec;
+    }
+}
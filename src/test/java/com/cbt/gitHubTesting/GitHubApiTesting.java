@@ -1,81 +1,63 @@
 package com.cbt.gitHubTesting;
 
-import io.restassured.RestAssured;
-import io.restassured.http.ContentType;
-import io.restassured.internal.common.assertion.AssertionSupport;
-import io.restassured.path.json.JsonPath;
+import com.cbt.utilities.flow.Flow;
+import com.cbt.utilities.flow.Step;
+import com.cbt.utilities.http.LinkPaginator;
+import com.cbt.utilities.latency.LatencyBudget;
+import com.cbt.utilities.json.JsonColumns;
+import com.cbt.utilities.json.JsonQuery;
+import com.cbt.utilities.json.JsonSchema;
+import com.cbt.utilities.json.OrderCheck;
+import com.cbt.utilities.json.Ordering;
+import com.cbt.utilities.json.UniqueValues;
+import com.cbt.utilities.targets.FanOut;
+import com.cbt.utilities.targets.ForEachTarget;
+import com.cbt.utilities.targets.Target;
 import io.restassured.response.Response;
-import org.apache.http.util.Asserts;
-import org.junit.jupiter.api.Assertions;
+import io.restassured.specification.RequestSpecification;
 import org.junit.jupiter.api.BeforeAll;
-import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.extension.RegisterExtension;
 
-import java.time.LocalDate;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static io.restassured.RestAssured.given;
 
+import static com.cbt.utilities.json.OrderCheck.Direction.*;
+import static com.cbt.utilities.matchers.JsonMatchers.*;
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
 
 public class GitHubApiTesting {
 
-    @BeforeAll
-    public static void setup() {
-        RestAssured.baseURI = "https://api.github.com";
-    }
-
-    /**
-     * Verify organization information
-     * 1. Send a get request to /orgs/:org. Request includes :
-     * • Path param org with value cucumber
-     * 2. Verify status code 200, content type application/json; charset=utf-8
-     * 3. Verify value of the login ﬁeld is cucumber
-     * 4. Verify value of the name ﬁeld is cucumber
-     * 5. Verify value of the id ﬁeld is 320565
-     */
-
-    @Test
-    public void test1() {
+    private static final JsonQuery PUBLIC_REPOS = JsonQuery.compile("public_repos");
+    private static final JsonQuery ID = JsonQuery.compile("id");
+    private static final JsonQuery OWNER_IDS = JsonQuery.compile("owner.id");
+    private static final JsonSchema REPOS = JsonSchema.load("repo").arrayOf();
 
-        Map<String,Object> paramsMap = new HashMap<>();
-        paramsMap.put("login","cucumber");
-        paramsMap.put("name","cucumber");
-        paramsMap.put("id","320565");
+    private static RequestSpecification spec;
 
-        Response response = given().accept(ContentType.JSON).
-                and().queryParams(paramsMap).
-                when().get("/orgs/cucumber");
+    @RegisterExtension
+    static final LatencyBudget BUDGET = LatencyBudget.p95().
+            endpoint("GET /orgs/{org}", Duration.ofSeconds(1)).
+            endpoint("GET /orgs/{org}/repos", Duration.ofSeconds(2));
 
-        Assertions.assertEquals(200, response.statusCode());
-        Assertions.assertEquals("application/json; charset=utf-8", response.contentType());
-        Assertions.assertTrue(response.body().asString().contains("cucumber"));
-        Assertions.assertTrue(response.body().asString().contains("cucumber"));
-        Assertions.assertTrue(response.body().asString().contains("320565"));
-
-        response.prettyPrint();
+    @BeforeAll
+    public static void setup() {
+        spec = GitHubApi.spec();
     }
 
     /**
-     * Verify error message
-     * 1. Send a get request to /orgs/:org. Request includes :
-     * • Header Accept with value application/xml
-     * • Path param org with value cucumber
-     * 2. Verify status code 415, content type application/json; charset=utf-8
-     * 3. Verify response status line include message Unsupported Media Type
+     * Runs every check below against each org of targets/github-orgs.txt, a few orgs at a time.
      */
-
-    @Test
-    public void test2(){
-
-        Response response = given().accept(ContentType.XML).
-                when().get("/orgs/cucumber");
-
-        Assertions.assertEquals(415,response.statusCode());
-        Assertions.assertEquals("application/json; charset=utf-8", response.contentType());
-        Assertions.assertTrue(response.statusLine().contains("Unsupported Media Type"));
-
-        response.prettyPrint();
+    @TestFactory
+    public Stream<DynamicNode> perOrg() {
+        return FanOut.of(this);
     }
 
     /**
@@ -83,167 +65,151 @@ public class GitHubApiTesting {
      *
      * Number of repositories
      * 1. Send a get request to /orgs/:org. Request includes :
-     * • Path param org with value cucumber
+     * • Path param org with the name of the org
      * 2. Grab the value of the ﬁeld public_repos
      * 3. Send a get request to /orgs/:org/repos. Request includes :
-     * • Path param org with value cucumber
+     * • Path param org with the name of the org
      * 4. Verify that number of objects in the response  is equal to value from step 2
      */
 
-    @Test
-    public void test3(){
+    @ForEachTarget("github-orgs")
+    public void test3(Target org) {
 
-        JsonPath jsonPath = given().log().all().
-                pathParam("org","cucumber").
-                when().get("/orgs/{org}").prettyPeek().jsonPath();
+        Flow flow = new Flow();
+        Step<Integer> publicRepos = flow.step("org", () -> PUBLIC_REPOS.integer(given(spec).
+                pathParam("org",org.name()).
+                when().get("/orgs/{org}")));
 
-        int publicRepos = jsonPath.getInt(" public_repos");
-        System.out.println("publicRepos = " + publicRepos);
+        Step<Integer> repoCount = flow.step("repos", () -> LinkPaginator.pages(() -> given(spec).
+                pathParam("org", org.name()).
+                queryParam("per_page",100), "/orgs/{org}/repos").
+                mapToInt(page -> JsonColumns.extract(page).rows()).sum());
 
-        jsonPath = given().log().all().
-                pathParam("org", "cucumber").
-                queryParam("per_page",100).
-                when().get("/orgs/{org}/repos").jsonPath();
-
-                List<Object> repos = jsonPath.getList("id");
-
-                assertThat(publicRepos, is(repos.size()));
+        flow.verify(publicRepos, repoCount, (expected, actual) -> {
+            System.out.println("publicRepos = " + expected);
+            assertThat(expected, is(actual));
+        });
+        flow.run();
 
     }
 
     /**
      * Repository id information
      * 1. Send a get request to /orgs/:org/repos. Request includes :
-     * • Path param org with value cucumber
+     * • Path param org with the name of the org
      * 2. Verify that id ﬁeld is unique in every in every object in the response
      * 3. Verify that node_id ﬁeld is unique in every in every object in the response
      */
 
-    @Test
-    public void test4(){
-        JsonPath jsonPath = given().log().all().
-                pathParam("org", "cucumber").
-                queryParam("per_page", 100).
-                when().get("/orgs/{org}/repos").jsonPath();
-
-        List<Object> listReposID = jsonPath.getList("id");
-        System.out.println(listReposID.size());
-
-        Set<Object> setReposID = new HashSet<>(listReposID);
-        System.out.println(setReposID.size());
+    @ForEachTarget("github-orgs")
+    public void test4(Target org) {
+        UniqueValues reposID = UniqueValues.exact("id");
+        UniqueValues nodeID = UniqueValues.exact("node_id");
+        LinkPaginator.pages(() -> given(spec).
+                pathParam("org", org.name()).
+                queryParam("per_page", 100), "/orgs/{org}/repos").
+                forEach(page -> {
+                    assertThat(page, matchesSchema(REPOS));
+                    UniqueValues.scan(page, reposID, nodeID);
+                });
+        System.out.println(reposID.count());
 
-        assertThat(listReposID.size(), is(setReposID.size()));
+        assertThat(reposID, hasNoDuplicates());
 
-        List<Object> listnodeID = jsonPath.getList("node_id");
-        System.out.println(listnodeID.size());
-
-        Set<Object> setNodeID = new HashSet<>(listnodeID);
-        System.out.println(setNodeID.size());
-
-        assertThat(listnodeID.size(), is(setNodeID.size()));
+        assertThat(nodeID, hasNoDuplicates());
 
     }
 
     /**
      * Repository owner information
      * 1. Send a get request to /orgs/:org. Request includes :
-     * • Path param org with value cucumber
+     * • Path param org with the name of the org
      * 2. Grab the value of the ﬁeld id
      * 3. Send a get request to /orgs/:org/repos. Request includes :
-     * • Path param org with value cucumber
+     * • Path param org with the name of the org
      * 4. Verify that value of the id inside the owner object in every response is equal to value from step 2
      */
 
-    @Test
-    public void test5(){
+    @ForEachTarget("github-orgs")
+    public void test5(Target org) {
 
-        int id = given().pathParam("org","cucumber").
-                when().get("/orgs/{org}").jsonPath().getInt("id");
+        Flow flow = new Flow();
+        Step<Integer> id = flow.step("org", () -> ID.integer(given(spec).pathParam("org",org.name()).
+                when().get("/orgs/{org}")));
 
-        given().pathParam("org", "cucumber").
-                when().get("/orgs/{org}/repos").
-                then().body("owner.id", everyItem(equalTo(id)));
+        Step<List<Response>> pages = flow.step("repos", () -> LinkPaginator.pages(() -> given(spec).
+                pathParam("org", org.name()), "/orgs/{org}/repos").collect(Collectors.toList()));
+
+        flow.verify(id, pages, (orgId, repos) -> repos.forEach(page -> {
+            List<Long> ownerIds = OWNER_IDS.<Number>list(page).stream().
+                    map(Number::longValue).collect(Collectors.toList());
+            assertThat(ownerIds, everyItem(is(orgId.longValue())));
+        }));
+        flow.run();
 
     }
 
     /**
      * Ascending order by full_name sort
      * 1. Send a get request to /orgs/:org/repos. Request includes :
-     * • Path param org with value cucumber
+     * • Path param org with the name of the org
      * • Query param sort with value full_name
      * 2. Verify that all repositories are listed in alphabetical order based on the value of the ﬁeld name
      */
 
-    @Test
-    public void test6(){
+    @ForEachTarget("github-orgs")
+    public void test6(Target org) {
 
-        List<String> listFullName = given().pathParam("org","cucumber").
-                queryParam("sort","full_name").
-                when().get("/orgs/{org}/repos").jsonPath().getList("full_name");
+        OrderCheck<String> fullName = OrderCheck.of("full_name", Ordering.caseInsensitive(Locale.ROOT), ASCENDING);
+        LinkPaginator.pages(() -> given(spec).pathParam("org",org.name()).
+                queryParam("sort","full_name"), "/orgs/{org}/repos").
+                forEach(page -> OrderCheck.scan(page, fullName));
 
-        System.out.println("listFullName = " + listFullName);
+        System.out.println("full_name checked = " + fullName.count());
 
-        List<String> copyOfListFullName = new ArrayList<>(listFullName);
-        Collections.sort(copyOfListFullName);
-        System.out.println("copyOfListFullName = " + copyOfListFullName);
-
-
-        assertThat(listFullName, is(copyOfListFullName));
+        assertThat(fullName, isInOrder());
     }
 
     /**
      * Descending order by full_name sort
      * 1. Send a get request to /orgs/:org/repos. Request includes :
-     * • Path param org with value cucumber
+     * • Path param org with the name of the org
      * • Query param sort with value full_name
      * • Query param direction with value desc
      * 2. Verify that all repositories are listed in reverser alphabetical order based on the value of the ﬁeld name
      */
 
-    @Test
-    public void test7(){
+    @ForEachTarget("github-orgs")
+    public void test7(Target org) {
 
-        List<String> listFullName = given().pathParam("org","cucumber").
+        OrderCheck<String> fullName = OrderCheck.of("full_name", Ordering.caseInsensitive(Locale.ROOT), DESCENDING);
+        LinkPaginator.pages(() -> given(spec).pathParam("org",org.name()).
                 queryParam("sort","full_name").
-                queryParam("direction","desc").
-                when().get("/orgs/{org}/repos").jsonPath().getList("full_name");
+                queryParam("direction","desc"), "/orgs/{org}/repos").
+                forEach(page -> OrderCheck.scan(page, fullName));
 
-        System.out.println("listFullName = " + listFullName);
+        System.out.println("full_name checked = " + fullName.count());
 
-        List<String> copyOfListFullName = new ArrayList<>(listFullName);
-        Collections.sort(copyOfListFullName, Collections.reverseOrder());
-        System.out.println("copyOfListFullName = " + copyOfListFullName);
-
-        assertThat(listFullName, is(copyOfListFullName));
+        assertThat(fullName, isInOrder());
     }
 
     /**
      * Default sort
      * 1. Send a get request to /orgs/:org/repos. Request includes :
-     * • Path param org with value cucumber
+     * • Path param org with the name of the org
      * 2. Verify that by default all repositories are listed in descending order based on the value of the ﬁeld created_at
      */
 
-    @Test
-    public void test8(){
-
-        List<String> listCreatedDates = given().pathParam("org", "cucumber").
-                when().get("/orgs/{org}/repos").jsonPath().getList("created_at");
-
-        List<String> listDatesOnly = new ArrayList<>();
-
-        for (String listCreatedDate : listCreatedDates) {
-            listDatesOnly.add(listCreatedDate.split("T")[0]);
-        }
-
-        System.out.println("listDatesOnly = " + listDatesOnly);
+    @ForEachTarget("github-orgs")
+    public void test8(Target org) {
 
-        List<String>CopyOfListDatesOnly = new ArrayList<>(listCreatedDates);
+        OrderCheck<Instant> createdAt = OrderCheck.of("created_at", Ordering.isoInstant(), DESCENDING);
+        LinkPaginator.pages(() -> given(spec).pathParam("org", org.name()), "/orgs/{org}/repos").
+                forEach(page -> OrderCheck.scan(page, createdAt));
 
-        Collections.sort(CopyOfListDatesOnly, Collections.reverseOrder());
-        System.out.println("CopyOfListDatesOnly = " + CopyOfListDatesOnly);
+        System.out.println("created_at checked = " + createdAt.count());
 
-        assertThat(listDatesOnly, is(CopyOfListDatesOnly));
+        assertThat(createdAt, isInOrder());
     }
 }
 
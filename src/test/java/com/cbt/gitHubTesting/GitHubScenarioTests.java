@@ -0,0 +1,20 @@
+package com.cbt.gitHubTesting;
+
+import com.cbt.utilities.scenarios.ScenarioEngine;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * The single-request checks of the GitHub API, written down in {@code scenarios/github.json} and run for every org
+ * of {@code targets/github-orgs.txt}.
+ */
+public class GitHubScenarioTests {
+
+    @TestFactory
+    public Stream<DynamicNode> scenarios() {
+        return ScenarioEngine.run("github", Map.of("default", GitHubApi.spec()));
+    }
+}
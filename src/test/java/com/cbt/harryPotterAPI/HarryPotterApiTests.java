@@ -2,23 +2,55 @@ package com.cbt.harryPotterAPI;
 
 import static io.restassured.RestAssured.*;
 import static org.apache.commons.lang3.BooleanUtils.or;
+import static com.cbt.utilities.matchers.JsonMatchers.matchesSchema;
+import static com.cbt.utilities.matchers.JsonMatchers.sameJsonAs;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.fail;
 import static org.hamcrest.MatcherAssert.*;
 
+import com.cbt.harryPotterAPI.pojos.Character;
 import com.cbt.harryPotterAPI.pojos.House;
+import com.cbt.utilities.flow.Flow;
+import com.cbt.utilities.flow.Step;
+import com.cbt.utilities.http.SpilledBody;
+import com.cbt.utilities.json.HashedNode;
+import com.cbt.utilities.json.Json;
+import com.cbt.utilities.json.JsonSchema;
+import com.cbt.utilities.latency.LatencyBudget;
+import com.cbt.utilities.targets.FanOut;
+import com.cbt.utilities.targets.ForEachTarget;
+import com.cbt.utilities.targets.Target;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicNode;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.function.Executable;
 
 import static org.hamcrest.Matchers.*;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class HarryPotterApiTests {
 
+    private static final JsonSchema HOUSES = JsonSchema.load("house").arrayOf();
+
+    private static RequestSpecification spec;
+
+    @RegisterExtension
+    static final LatencyBudget BUDGET = LatencyBudget.p95().
+            endpoint("GET /characters", Duration.ofSeconds(2)).
+            endpoint("GET /houses/{id}", Duration.ofSeconds(1));
+
     @BeforeAll
     public static void setUp() {
-        baseURI = "https://www.potterapi.com/v1";
+        spec = PotterApi.spec();
         /**
          * Verify sorting hat
          * 1. Send a get request to /sortingHat. Request includes :
@@ -30,8 +62,8 @@ public class HarryPotterApiTests {
 
         @Test
         public void VerifySortingHat(){
-            Response response = given().log().all().
-                    when().get("sortingHat").prettyPeek();
+            Response response = given(spec).
+                    when().get("sortingHat");
 
                     response.then().statusCode(200).
                     contentType(ContentType.JSON);
@@ -45,199 +77,73 @@ public class HarryPotterApiTests {
         }
 
     /**
-     * Verify bad key
-     * 1. Send a get request to /characters. Request includes :
-     * • Header Accept with value application/json
-     * • Query param key with value invalid
-     * 2. Verify status code 401, content type application/json; charset=utf-8
-     * 3. Verify response status line include message Unauthorized
-     * 4. Verify that response body says "error": "API Key Not Found"
-     */
-
-    @Test
-    public void verifyBadKey(){
-        Response response = given().log().all().
-                header("accept","application/json").
-                queryParam("key","invalid").
-                when().get("/characters").prettyPeek();
-
-                response.then().statusCode(401).
-                contentType(ContentType.JSON).
-                body("error", is("API Key Not Found"));
-
-
-                assertThat(response.statusLine().contains("Unauthorized"), is(true));
-
-                assertThat(response.asString().contains("\"error\": \"API Key Not Found\""), is(true));
-    }
-
-    /**
-     * Verify no key
-     * 1. Send a get request to /characters. Request includes :
-     * • Header Accept with value application/json
-     * 2. Verify status code 409, content type application/json; charset=utf-8
-     * 3. Verify response status line include message Conflict
-     * 4. Verify that response body says "error": "Must pass API key for request"
-     */
-
-    @Test
-    public void verifyNoKey(){
-        Response response = given().log().all().
-                header("Accept","application/json").
-                when().get("/characters");
-
-        response.then().statusCode(409).contentType(ContentType.JSON).
-                body("error", is("Must pass API key for request"));
-
-        assertThat(response.statusLine().contains("Conflict"), is(true));
-
-        assertThat(response.asString().contains("\"error\":\"Must pass API key for request\""), is(true));
-    }
-
-    /**
-     * Verify number of characters
+     * Verify all character information
      * 1. Send a get request to /characters. Request includes :
      * • Header Accept with value application/json
      * • Query param key with value {{apiKey}}
      * 2. Verify status code 200, content type application/json; charset=utf-8
-     * 3. Verify response contains 194 characters
-     */
-
-    @Test
-    public void VerifyNumberOfCharacters(){
-        Response response = given().log().all().
-                header("Accept","application/json").
-                queryParam("key", "$2a$10$h.c.jQB1/qoc1yLMbYCLDey27dAUa.3010CajvbuKIgKOshwdY2Um").
-                when().get("/characters").prettyPeek();
-
-        response.then().statusCode(200).contentType(ContentType.JSON);
-
-        List<Object> characterCount = response.jsonPath().getList("id");
-
-        assertThat(characterCount.size(), is(194));
-
-    }
-
-    /**
-     * Verify number of character id and house
-     * 1. Send a get request to /characters. Request includes :
+     * 3. Take the name of every character
+     * 4. Send a get request to /characters. Request includes :
      * • Header Accept with value application/json
      * • Query param key with value {{apiKey}}
-     * 2. Verify status code 200, content type application/json; charset=utf-8
-     * 3. Verify all characters in the response have id field which is not empty
-     * 4. Verify that value type of the field dumbledoresArmy is a boolean in all characters in the response
-     * 5. Verify value of the house in all characters in the response is one of the following:
-     * 	" Gryﬃndor", "Ravenclaw", "Slytherin", "Huffepuff"
+     * • Query param name with value from step 3
+     * 5. Verify that each response contains the same character information from step 3. Compare all ﬁelds
      */
 
     @Test
-    public void VerifyNumberOfCharacterIdAndHouse(){
-        Response response = given().log().all().
-                header("Accept", "application/json").
-                queryParam("key","$2a$10$s8DSvL7pIZx4pTGdYYw8GeG/W/U9AbBCUvK1VJ/d2SX1hr0eM6Rnq").
-                when().
-                get("/characters");
-        boolean check = false;
-        List<Boolean> dumbledoresArmy = response.jsonPath().getList("dumbledoresArmy");
-        for (Boolean each: dumbledoresArmy){
-            if (each == true || each == false){
-                check = true;
-            }
-        }
-        response.then().statusCode(200).contentType(ContentType.JSON).
-                body("_id",everyItem(not(empty())));
-        assertThat(true, is(check));
-        List<String> houses = response.jsonPath().getList("findAll{it.house}.house");
-        System.out.println(houses);
-        List<String> listOfHouses = new ArrayList<>(Arrays.asList("Gryffindor", "Ravenclaw", "Slytherin", "Hufflepuff"));
-        check = true;
-        for (String listOfHouse : houses) {
-            if (!listOfHouses.contains(listOfHouse)){
-                check = false;
-                break;
+    public void VerifyAllCharacterInformation(){
+        // The list can be far larger than the heap: it streams to disk past a threshold and is bound one
+        // character at a time, keeping only the mismatches.
+        List<Executable> checks = new ArrayList<>();
+        int count = 0;
+        try (SpilledBody characters = SpilledBody.get(given(spec), "/characters");
+             Stream<Character> elements = characters.elements(Character.class)) {
+            assertThat(characters.statusCode(), is(200));
+            assertThat(characters.contentType(), startsWith("application/json"));
+
+            for (Iterator<Character> it = elements.iterator(); it.hasNext(); count++) {
+                Character expected = it.next();
+                String name = expected.getName();
+                String label = name != null ? name : expected.getId();
+                if (name == null) {
+                    checks.add(() -> fail(label + ": character has no name to search by"));
+                    continue;
+                }
+                Response response = given(spec).
+                        queryParam("name", name).
+                        when().get("/characters");
+                if (response.statusCode() != 200) {
+                    int status = response.statusCode();
+                    checks.add(() -> fail(label + ": search answered " + status));
+                    continue;
+                }
+                Character actual = Json.readList(response, Character.class).stream().
+                        filter(character -> expected.getId().equals(character.getId())).
+                        findFirst().orElse(null);
+                if (actual == null) {
+                    checks.add(() -> fail(label + ": missing from the search by name"));
+                } else if (!expected.equals(actual)) {
+                    checks.add(() -> assertThat(label, tree(actual), sameJsonAs(tree(expected))));
+                }
             }
         }
-        assertThat(true, is(check));
-        //        assertThat(houses,everyItem(isIn(listOfHouses))); this one is
+        assertThat(count, greaterThan(0));
+        assertAll(checks);
     }
 
     /**
-     * Verify all character information
-     * 1. Send a get request to /characters. Request includes :
-     * • Header Accept with value application/json
-     * • Query param key with value {{apiKey}}
-     * 2. Verify status code 200, content type application/json; charset=utf-8
-     * 3. Select name of any random character
-     * 4. Send a get request to /characters. Request includes :
-     * • Header Accept with value application/json
-     * • Query param key with value {{apiKey}}
-     * • Query param name with value from step 3
-     * 5. Verify that response contains the same character information from step 3. Compare all ﬁelds
+     * The character as the API would send it, so a mismatch is reported by the paths that differ.
      */
-
-    @Test
-    public void VerifyAllCharacterInformation(){
-        Response response  = given().log().all().
-                header("Accept","application/json").
-                queryParam("key","$2a$10$h.c.jQB1/qoc1yLMbYCLDey27dAUa.3010CajvbuKIgKOshwdY2Um").
-                when().get("/characters");
-
-        response.then().statusCode(200).contentType(ContentType.JSON);
-
-        List<Map<String, Object>> characters = response.jsonPath().getList("");
-        System.out.println("characters = " + characters);
-
-        Random random = new Random();
-        int randomNumber = random.nextInt(characters.size());
-
-        String randomName = characters.get(randomNumber).get("name").toString();
-        System.out.println("randomName = " + randomName);
-
-        List<Map<String, Object>> actualCharacters  = given().log().all().
-                header("Accept", "application/json").
-                queryParam("key","$2a$10$h.c.jQB1/qoc1yLMbYCLDey27dAUa.3010CajvbuKIgKOshwdY2Um").
-                queryParam("name", randomName).
-                when().get("/characters").prettyPeek().jsonPath().getList("");
-        System.out.println("actualCharacters = " + actualCharacters);
-
-        assertThat(actualCharacters.get(0), is(characters.get(randomNumber)));
+    private static HashedNode tree(Character character) {
+        return HashedNode.of(Json.MAPPER.convertValue(character, Object.class));
     }
 
     /**
-     * Verify name search
-     * 1. Send a get request to /characters. Request includes :
-     * • Header Accept with value application/json
-     * • Query param key with value {{apiKey}}
-     * • Query param name with value Harry Potter
-     * 2. Verify status code 200, content type application/json; charset=utf-8
-     * 3. Verify name Harry Potter
-     * 4. Send a get request to /characters. Request includes :
-     * • Header Accept with value application/json
-     * • Query param key with value {{apiKey}}
-     * • Query param name with value Marry Potter
-     * 5. Verify status code 200, content type application/json; charset=utf-8
-     * * 6. Verify response body is empty
-      */
-
-    @Test
-    public void verifyNameSearch(){
-        given().log().all().
-                header("Accept", "application/json").
-                queryParam("key","$2a$10$h.c.jQB1/qoc1yLMbYCLDey27dAUa.3010CajvbuKIgKOshwdY2Um").
-                queryParam("name", "Harry Potter").
-                when().get("/characters").prettyPeek().
-                then().statusCode(200).
-                contentType(ContentType.JSON).
-                body("[0].name", is("Harry Potter"));
-
-        given().log().all().
-                header("Accept", "application/json").
-                queryParam("key","$2a$10$h.c.jQB1/qoc1yLMbYCLDey27dAUa.3010CajvbuKIgKOshwdY2Um").
-                queryParam("name", "Marry Potter").
-                when().get("/characters").prettyPeek().
-                then().statusCode(200).
-                contentType(ContentType.JSON).
-                body("", is(empty()));
+     * Runs the house checks below against each house of targets/potter-houses.txt.
+     */
+    @TestFactory
+    public Stream<DynamicNode> perHouse() {
+        return FanOut.of(this);
     }
 
     /**
@@ -246,8 +152,8 @@ public class HarryPotterApiTests {
      * • Header Accept with value application/json
      * • Query param key with value {{apiKey}}
      * 2. Verify status code 200, content type application/json; charset=utf-8
-     * 3. Capture the id of the Gryffndor house
-     * 4. Capture the ids of the all members of the Gryﬃndor house
+     * 3. Capture the id of the house
+     * 4. Capture the ids of the all members of the house
      * 5. Send a get request to /houses/:id. Request includes :
      * • Header Accept with value application/json
      * • Query param key with value {{apiKey}}
@@ -255,28 +161,32 @@ public class HarryPotterApiTests {
      * 6. Verify that response contains the  same member ids as the step 4
      */
 
-    @Test
-    public void verifyHouseMembers(){
-        Response response = given().log().all().
-                header("Accept", "application/json").
-                queryParam("key", "$2a$10$lu5LnnJQEhLRQ3R382i" +
-                        "j1ewUls4luprJKNPGw7yvv77H9.SGmFiWK").
-                when().get("/houses").prettyPeek();
-        response.then().statusCode(200).
-                contentType(ContentType.JSON);
-        String gryffindorId = response.jsonPath().getString("find{it.name=='Gryffindor'}._id");
-        System.out.println("gryffindorId = " + gryffindorId);
-        List<String> memberIDs = response.jsonPath().getList("findAll{it.name=='Gryffindor'}.members[0]");
-        System.out.println("memberIDs.size() = " + memberIDs.size());
-        response = given().log().all().
-                header("Accept", "application/json").
-                queryParam("key", "$2a$10$lu5LnnJQEhLRQ3R382i" +
-                        "j1ewUls4luprJKNPGw7yvv77H9.SGmFiWK").
-                pathParam("id", gryffindorId).
-                when().get("/houses/{id}").prettyPeek();
-        List<String> actualMembersIds = response.jsonPath().getList("members[0]._id");
-        System.out.println("actualMembersIds.size() = " + actualMembersIds.size());
-        assertThat(actualMembersIds, is(memberIDs));
+    @ForEachTarget("potter-houses")
+    public void verifyHouseMembers(Target house){
+        Flow flow = new Flow();
+        Step<Response> houses = flow.step("houses", () -> given(spec).
+                when().get("/houses"));
+        flow.verify(houses, response -> response.then().statusCode(200).
+                contentType(ContentType.JSON));
+        Step<House> bound = flow.step("house", houses, response -> {
+            Optional<House> match = Json.readList(response, House.class).stream().
+                    filter(candidate -> candidate.getName().equals(house.name())).
+                    findFirst();
+            assertThat(house + " in /houses", match.isPresent(), is(true));
+            return match.get();
+        });
+        Step<String> id = flow.step("houseId", bound, House::getId);
+        Step<List<String>> memberIDs = flow.step("memberIDs", bound, House::getMemberIds);
+        Step<List<String>> actualMembersIds = flow.step("byId", id, houseID -> {
+            System.out.println(house + " id = " + houseID);
+            return byId(houseID).getMemberIds();
+        });
+        flow.verify(memberIDs, actualMembersIds, (expected, actual) -> {
+            System.out.println("memberIDs.size() = " + expected.size());
+            System.out.println("actualMembersIds.size() = " + actual.size());
+            assertThat(actual, is(expected));
+        });
+        flow.run();
 
     }
 
@@ -285,39 +195,44 @@ public class HarryPotterApiTests {
      * 1. Send a get request to /houses/:id. Request includes :
      * • Header Accept with value application/json
      * • Query param key with value {{apiKey}}
-     * • Path param id with value 5a05e2b252f721a3cf2ea33f
+     * • Path param id with the id of the house (5a05e2b252f721a3cf2ea33f for Gryffindor)
      * 2. Capture the ids of all members
      * 3. Send a get request to /characters. Request includes :
      * • Header Accept with value application/json
      * • Query param key with value {{apiKey}}
-     * • Query param house with value Gryffndor
+     * • Query param house with the name of the house
      * 4. Verify that response contains the same member ids from step 2
      */
 
-    @Test
-    public void verifyHouseMembersAgain(){
-        Response response = given().log().all().
-                header("Accept", "application/json").
-                queryParam("key", "$2a$10$lu5LnnJQEhLRQ3R382i" +
-                        "j1ewUls4luprJKNPGw7yvv77H9.SGmFiWK").
-                pathParam("id", "5a05e2b252f721a3cf2ea33f").
-                when().get("/houses/{id}").prettyPeek();
-
-        List<String> expectedMemberIDs = response.jsonPath().getList("members[0]._id");
-        System.out.println("expectedMemberIDs.size() = " + expectedMemberIDs.size());
+    @ForEachTarget("potter-houses")
+    public void verifyHouseMembersAgain(Target house){
+        Flow flow = new Flow();
+        Step<List<String>> expectedMemberIDs = flow.step("house", () -> byId(house.get("id")).getMemberIds());
 
-        response = given().log().all().
-                header("Accept", "application/json").
-                queryParam("key", "$2a$10$lu5LnnJQEhLRQ3R382i" +
-                        "j1ewUls4luprJKNPGw7yvv77H9.SGmFiWK").
-                queryParam("house", "Gryffindor").
-                when().get("/characters").prettyPeek();
+        Step<List<String>> actualMemberIDs = flow.step("characters", () -> Json.readList(given(spec).
+                queryParam("house", house.name()).
+                when().get("/characters"), Character.class).stream().
+                map(Character::getId).
+                collect(Collectors.toList()));
 
-        List<String> actualMemberIDs = response.jsonPath().getList("_id");
-        System.out.println("actualMemberIDs.size() = " + actualMemberIDs.size());
+        flow.verify(expectedMemberIDs, actualMemberIDs, (expected, actual) -> {
+            System.out.println("expectedMemberIDs.size() = " + expected.size());
+            System.out.println("actualMemberIDs.size() = " + actual.size());
+            assertThat(actual, is(expected));
+        });
+        flow.run();
 
-        assertThat(actualMemberIDs, is(expectedMemberIDs));
+    }
 
+    /**
+     * /houses/{id} answers with a list holding the one house.
+     */
+    private static House byId(String id) {
+        List<House> houses = Json.readList(given(spec).
+                pathParam("id", id).
+                when().get("/houses/{id}"), House.class);
+        assertThat("/houses/" + id, houses, hasSize(1));
+        return houses.get(0);
     }
 
     /**
@@ -331,20 +246,22 @@ public class HarryPotterApiTests {
 
     @Test
     public void verifyHouseWithMostMembers(){
-        Response response = given().log().all().
-                header("Accept", "application/json").
-                queryParam("key", "$2a$10$lu5LnnJQEhLRQ3R382i" +
-                        "j1ewUls4luprJKNPGw7yvv77H9.SGmFiWK").
-                when().get("/houses").prettyPeek();
+        Response response = given(spec).
+                when().get("/houses");
 
         response.then().statusCode(200).contentType(ContentType.JSON);
-
-        int gryffindorSize = response.jsonPath().getList("findAll{it.house='Gryffindor'}.members[0]").size();
-        int ravenclawSize = response.jsonPath().getList("findAll{it.house='Ravenclaw'}.members[0]").size();
-        int slytherinSize = response.jsonPath().getList("findAll{it.house='Slytherin'}.members[0]").size();
-        int hufflepuffSize = response.jsonPath().getList("findAll{it.house='Hufflepuff'}.members[0]").size();
-
-        List<Integer> houseSizes = Arrays.asList(ravenclawSize, slytherinSize, hufflepuffSize);
+        assertThat(response, matchesSchema(HOUSES));
+
+        int gryffindorSize = 0;
+        List<Integer> houseSizes = new ArrayList<>();
+        for (House house : Json.readList(response, House.class)) {
+            int size = house.getMembers().size();
+            if (house.getName().equals("Gryffindor")) {
+                gryffindorSize = size;
+            } else {
+                houseSizes.add(size);
+            }
+        }
 
         assertThat(houseSizes, everyItem(lessThanOrEqualTo(gryffindorSize)));
 
@@ -0,0 +1,64 @@
+package com.cbt.harryPotterAPI;
+
+import com.cbt.utilities.cache.ResponseCacheFilter;
+import com.cbt.utilities.http.HttpTransport;
+import com.cbt.utilities.latency.LatencyFilter;
+import com.cbt.utilities.logging.AsyncLogFilter;
+import com.cbt.utilities.stub.StubServer;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * Request specifications for the Potter API, built once and shared by every test.
+ *
+ * {@link #spec()} carries the API key from {@code -Dpotter.apiKey} (or the suite's default key),
+ * {@link #anonymous()} sends no key at all and {@link #withKey(String)} sends the given one. Use them only through
+ * {@code given(...)}, which copies the specification, so tests running in parallel never see each other's changes.
+ */
+public final class PotterApi {
+
+    public static final String UPSTREAM = "https://www.potterapi.com/v1";
+    public static final String API_KEY = System.getProperty("potter.apiKey",
+            "$2a$10$h.c.jQB1/qoc1yLMbYCLDey27dAUa.3010CajvbuKIgKOshwdY2Um");
+
+    private static RequestSpecification anonymous;
+    private static RequestSpecification keyed;
+
+    private PotterApi() {
+    }
+
+    public static synchronized RequestSpecification anonymous() {
+        if (anonymous == null) {
+            anonymous = base().build();
+        }
+        return anonymous;
+    }
+
+    public static synchronized RequestSpecification spec() {
+        if (keyed == null) {
+            keyed = base().addQueryParam("key", API_KEY).build();
+        }
+        return keyed;
+    }
+
+    public static RequestSpecification withKey(String key) {
+        return base().addQueryParam("key", key).build();
+    }
+
+    private static RequestSpecBuilder base() {
+        RequestSpecBuilder builder = new RequestSpecBuilder().
+                setBaseUri(StubServer.baseUriFor("potter", UPSTREAM)).
+                setAccept("application/json");
+        HttpTransport.configure(builder);
+        if (ResponseCacheFilter.enabled()) {
+            builder.addFilter(ResponseCacheFilter.shared());
+        }
+        if (LatencyFilter.enabled()) {
+            builder.addFilter(LatencyFilter.shared());
+        }
+        if (AsyncLogFilter.enabled()) {
+            builder.addFilter(AsyncLogFilter.shared());
+        }
+        return builder;
+    }
+}
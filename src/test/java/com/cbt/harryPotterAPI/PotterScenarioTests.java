@@ -0,0 +1,20 @@
+package com.cbt.harryPotterAPI;
+
+import com.cbt.utilities.scenarios.ScenarioEngine;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * The single-request checks of the Potter API, written down in {@code scenarios/potter.json}. A new check there is a
+ * new entry in the file, not a new method here.
+ */
+public class PotterScenarioTests {
+
+    @TestFactory
+    public Stream<DynamicNode> scenarios() {
+        return ScenarioEngine.run("potter", Map.of("default", PotterApi.spec(), "anonymous", PotterApi.anonymous()));
+    }
+}
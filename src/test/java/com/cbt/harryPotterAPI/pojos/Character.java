@@ -1,4 +1,241 @@
 package com.cbt.harryPotterAPI.pojos;
 
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * One entry of the /characters response. Fields the model does not name are kept in {@link #getOther()} and take part
+ * in {@link #equals(Object)}, so comparing two characters still compares every field the API sent.
+ */
 public class Character {
+
+    @JsonProperty("_id")
+    private String id;
+    private String name;
+    private String role;
+    private String house;
+    private String school;
+    @JsonProperty("__v")
+    private int version;
+    private boolean ministryOfMagic;
+    private boolean orderOfThePhoenix;
+    private boolean dumbledoresArmy;
+    private boolean deathEater;
+    private String bloodStatus;
+    private String species;
+    private String alias;
+    private String wand;
+    private String boggart;
+    private String patronus;
+    private String animagus;
+    private final Map<String, Object> other = new LinkedHashMap<>();
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+
+    public String getHouse() {
+        return house;
+    }
+
+    public void setHouse(String house) {
+        this.house = house;
+    }
+
+    public String getSchool() {
+        return school;
+    }
+
+    public void setSchool(String school) {
+        this.school = school;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public boolean isMinistryOfMagic() {
+        return ministryOfMagic;
+    }
+
+    public void setMinistryOfMagic(boolean ministryOfMagic) {
+        this.ministryOfMagic = ministryOfMagic;
+    }
+
+    public boolean isOrderOfThePhoenix() {
+        return orderOfThePhoenix;
+    }
+
+    public void setOrderOfThePhoenix(boolean orderOfThePhoenix) {
+        this.orderOfThePhoenix = orderOfThePhoenix;
+    }
+
+    public boolean isDumbledoresArmy() {
+        return dumbledoresArmy;
+    }
+
+    public void setDumbledoresArmy(boolean dumbledoresArmy) {
+        this.dumbledoresArmy = dumbledoresArmy;
+    }
+
+    public boolean isDeathEater() {
+        return deathEater;
+    }
+
+    public void setDeathEater(boolean deathEater) {
+        this.deathEater = deathEater;
+    }
+
+    public String getBloodStatus() {
+        return bloodStatus;
+    }
+
+    public void setBloodStatus(String bloodStatus) {
+        this.bloodStatus = bloodStatus;
+    }
+
+    public String getSpecies() {
+        return species;
+    }
+
+    public void setSpecies(String species) {
+        this.species = species;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public void setAlias(String alias) {
+        this.alias = alias;
+    }
+
+    public String getWand() {
+        return wand;
+    }
+
+    public void setWand(String wand) {
+        this.wand = wand;
+    }
+
+    public String getBoggart() {
+        return boggart;
+    }
+
+    public void setBoggart(String boggart) {
+        this.boggart = boggart;
+    }
+
+    public String getPatronus() {
+        return patronus;
+    }
+
+    public void setPatronus(String patronus) {
+        this.patronus = patronus;
+    }
+
+    public String getAnimagus() {
+        return animagus;
+    }
+
+    public void setAnimagus(String animagus) {
+        this.animagus = animagus;
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getOther() {
+        return other;
+    }
+
+    @JsonAnySetter
+    public void setOther(String field, Object value) {
+        other.put(field, value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Character that = (Character) o;
+        return version == that.version &&
+                ministryOfMagic == that.ministryOfMagic &&
+                orderOfThePhoenix == that.orderOfThePhoenix &&
+                dumbledoresArmy == that.dumbledoresArmy &&
+                deathEater == that.deathEater &&
+                Objects.equals(id, that.id) &&
+                Objects.equals(name, that.name) &&
+                Objects.equals(role, that.role) &&
+                Objects.equals(house, that.house) &&
+                Objects.equals(school, that.school) &&
+                Objects.equals(bloodStatus, that.bloodStatus) &&
+                Objects.equals(species, that.species) &&
+                Objects.equals(alias, that.alias) &&
+                Objects.equals(wand, that.wand) &&
+                Objects.equals(boggart, that.boggart) &&
+                Objects.equals(patronus, that.patronus) &&
+                Objects.equals(animagus, that.animagus) &&
+                Objects.equals(other, that.other);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, house);
+    }
+
+    @Override
+    public String toString() {
+        return "Character{" +
+                "id='" + id + '\'' +
+                ", name='" + name + '\'' +
+                ", role='" + role + '\'' +
+                ", house='" + house + '\'' +
+                ", school='" + school + '\'' +
+                ", version=" + version +
+                ", ministryOfMagic=" + ministryOfMagic +
+                ", orderOfThePhoenix=" + orderOfThePhoenix +
+                ", dumbledoresArmy=" + dumbledoresArmy +
+                ", deathEater=" + deathEater +
+                ", bloodStatus='" + bloodStatus + '\'' +
+                ", species='" + species + '\'' +
+                ", alias='" + alias + '\'' +
+                ", wand='" + wand + '\'' +
+                ", boggart='" + boggart + '\'' +
+                ", patronus='" + patronus + '\'' +
+                ", animagus='" + animagus + '\'' +
+                (other.isEmpty() ? "" : ", other=" + other) +
+                '}';
+    }
 }
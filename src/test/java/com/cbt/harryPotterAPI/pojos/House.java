@@ -1,13 +1,45 @@
 package com.cbt.harryPotterAPI.pojos;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One entry of the /houses and /houses/{id} responses.
+ */
 public class House {
 
+    @JsonProperty("_id")
+    private String id;
     private String name;
+    private String mascot;
+    private String headOfHouse;
+    private String houseGhost;
+    private String founder;
+    private String school;
+    @JsonProperty("__v")
+    private int version;
+    private List<Member> members = new ArrayList<>();
+    private List<String> values = new ArrayList<>();
+    private List<String> colors = new ArrayList<>();
+
+    public House() {
+    }
 
     public House(String name){
         this.name = name;
     }
 
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
     public String getName() {
         return name;
     }
@@ -15,4 +47,120 @@ public class House {
     public void setName(String name) {
         this.name = name;
     }
+
+    public String getMascot() {
+        return mascot;
+    }
+
+    public void setMascot(String mascot) {
+        this.mascot = mascot;
+    }
+
+    public String getHeadOfHouse() {
+        return headOfHouse;
+    }
+
+    public void setHeadOfHouse(String headOfHouse) {
+        this.headOfHouse = headOfHouse;
+    }
+
+    public String getHouseGhost() {
+        return houseGhost;
+    }
+
+    public void setHouseGhost(String houseGhost) {
+        this.houseGhost = houseGhost;
+    }
+
+    public String getFounder() {
+        return founder;
+    }
+
+    public void setFounder(String founder) {
+        this.founder = founder;
+    }
+
+    public String getSchool() {
+        return school;
+    }
+
+    public void setSchool(String school) {
+        this.school = school;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public List<Member> getMembers() {
+        return members;
+    }
+
+    public void setMembers(List<Member> members) {
+        this.members = members;
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+
+    public void setValues(List<String> values) {
+        this.values = values;
+    }
+
+    public List<String> getColors() {
+        return colors;
+    }
+
+    public void setColors(List<String> colors) {
+        this.colors = colors;
+    }
+
+    public List<String> getMemberIds() {
+        List<String> ids = new ArrayList<>(members.size());
+        for (Member member : members) {
+            ids.add(member.getId());
+        }
+        return ids;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        House house = (House) o;
+        return version == house.version &&
+                Objects.equals(id, house.id) &&
+                Objects.equals(name, house.name) &&
+                Objects.equals(mascot, house.mascot) &&
+                Objects.equals(headOfHouse, house.headOfHouse) &&
+                Objects.equals(houseGhost, house.houseGhost) &&
+                Objects.equals(founder, house.founder) &&
+                Objects.equals(school, house.school) &&
+                Objects.equals(members, house.members) &&
+                Objects.equals(values, house.values) &&
+                Objects.equals(colors, house.colors);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name);
+    }
+
+    @Override
+    public String toString() {
+        return "House{" +
+                "id='" + id + '\'' +
+                ", name='" + name + '\'' +
+                ", members=" + members.size() +
+                '}';
+    }
 }
@@ -0,0 +1,59 @@
+package com.cbt.harryPotterAPI.pojos;
+
+import com.cbt.utilities.json.Json;
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PojoBindingTest {
+
+    @Test
+    public void characterBindsUnderscoreFields() {
+        byte[] json = ("[{\"_id\":\"5a0fa4daae5bc100213c232e\",\"name\":\"Hannah Abbott\",\"house\":\"Hufflepuff\"," +
+                "\"__v\":0,\"dumbledoresArmy\":true,\"unknown\":1}]").getBytes(StandardCharsets.UTF_8);
+
+        Character character = Json.readList(json, Character.class).get(0);
+
+        assertThat(character.getId(), is("5a0fa4daae5bc100213c232e"));
+        assertThat(character.isDumbledoresArmy(), is(true));
+        assertThat(character, is(Json.readList(json, Character.class).get(0)));
+    }
+
+    @Test
+    public void houseMembersBindFromIdsAndFromObjects() {
+        byte[] ids = "[{\"name\":\"Gryffindor\",\"members\":[\"a\",\"b\"]}]".getBytes(StandardCharsets.UTF_8);
+        byte[] objects = ("[{\"name\":\"Gryffindor\",\"members\":[{\"_id\":\"a\",\"name\":\"Harry Potter\"}," +
+                "{\"_id\":\"b\",\"name\":\"Ron Weasley\"}]}]").getBytes(StandardCharsets.UTF_8);
+
+        List<House> fromIds = Json.readList(ids, House.class);
+        List<House> fromObjects = Json.readList(objects, House.class);
+
+        assertThat(fromIds.get(0).getMemberIds(), contains("a", "b"));
+        assertThat(fromObjects.get(0).getMemberIds(), is(fromIds.get(0).getMemberIds()));
+        assertThat(fromObjects.get(0).getMembers().get(0).getName(), is("Harry Potter"));
+    }
+
+    @Test
+    public void characterKeepsFieldsItDoesNotNameAndComparesThem() {
+        byte[] one = "[{\"_id\":\"c\",\"name\":\"Dobby\",\"hat\":\"tea cosy\"}]".getBytes(StandardCharsets.UTF_8);
+        byte[] other = "[{\"_id\":\"c\",\"name\":\"Dobby\",\"hat\":\"sock\"}]".getBytes(StandardCharsets.UTF_8);
+
+        Character first = Json.readList(one, Character.class).get(0);
+
+        assertThat(first.getOther(), hasEntry("hat", (Object) "tea cosy"));
+        assertThat(first, is(not(Json.readList(other, Character.class).get(0))));
+    }
+
+    @Test
+    public void houseRejectsFieldsItDoesNotName() {
+        byte[] json = "[{\"name\":\"Gryffindor\",\"motto\":\"none\"}]".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(UncheckedIOException.class, () -> Json.readList(json, House.class));
+    }
+}
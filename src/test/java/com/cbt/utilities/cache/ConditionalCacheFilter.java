@@ -0,0 +1,135 @@
+package com.cbt.utilities.cache;
+
+import com.cbt.utilities.stub.StubMode;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * HTTP revalidation cache backed by a {@link DiskStore}, so it carries over from one run to the next.
+ *
+ * GET responses with an {@code ETag} or {@code Last-Modified} header are stored. The next identical request is sent
+ * with {@code If-None-Match} / {@code If-Modified-Since}; when the server answers {@code 304 Not Modified} the stored
+ * response is returned with the fresh headers of the 304 laid over it. GitHub does not count 304s against the rate
+ * limit, so repeat runs cost a handful of empty responses.
+ *
+ * It sits behind {@link ResponseCacheFilter}: within one run identical requests are still answered from memory.
+ * {@code -Dhttpcache.dir} ({@code .http-cache}), {@code -Dhttpcache.maxBytes} (256 MB),
+ * {@code -Dhttpcache.enabled=false} turns it off.
+ *
+ * It is only on in {@link StubMode#LIVE}. A replaying stub costs nothing to ask, and the store outlives the run, so a
+ * cassette whose body was edited without its ETag would be answered from the stale stored body; a recording stub
+ * would write the 304s into the cassette.
+ */
+public class ConditionalCacheFilter implements OrderedFilter {
+
+    private static DiskStore shared;
+
+    private final String api;
+    private final DiskStore store;
+
+    /**
+     * Entries are keyed by {@code api} and the request path rather than the full URI, so they stay valid when the
+     * API is reached through a stub on a different port next run.
+     */
+    public ConditionalCacheFilter(String api, DiskStore store) {
+        this.api = api;
+        this.store = store;
+    }
+
+    public static synchronized ConditionalCacheFilter forApi(String api) {
+        if (shared == null) {
+            shared = new DiskStore(Paths.get(System.getProperty("httpcache.dir", ".http-cache")),
+                    Long.getLong("httpcache.maxBytes", 256L * 1024 * 1024));
+        }
+        return new ConditionalCacheFilter(api, shared);
+    }
+
+    public static boolean enabled() {
+        return Boolean.parseBoolean(System.getProperty("httpcache.enabled", "true"))
+                && StubMode.current() == StubMode.LIVE;
+    }
+
+    @Override
+    public int getOrder() {
+        return DEFAULT_PRECEDENCE + 1;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (!"GET".equalsIgnoreCase(requestSpec.getMethod())) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        URI uri = URI.create(requestSpec.getURI());
+        String key = api + " " + ResponseCacheFilter.key(requestSpec,
+                uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery()));
+        DiskStore.Stored stored = store.get(key);
+        if (stored != null) {
+            String etag = stored.header("ETag");
+            String lastModified = stored.header("Last-Modified");
+            if (etag != null) {
+                requestSpec.header("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                requestSpec.header("If-Modified-Since", lastModified);
+            }
+        }
+
+        Response response = ctx.next(requestSpec, responseSpec);
+        if (response.statusCode() == 304 && stored != null) {
+            return revalidated(stored, response);
+        }
+        if (response.statusCode() == 200
+                && (response.header("ETag") != null || response.header("Last-Modified") != null)) {
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (Header header : response.getHeaders()) {
+                if (!wireOnly(header.getName())) {
+                    headers.merge(header.getName(), header.getValue(), (first, second) -> first + ", " + second);
+                }
+            }
+            store.put(key, new DiskStore.Stored(response.getStatusLine(), 200, headers, response.asByteArray()));
+        }
+        return response;
+    }
+
+    /**
+     * Headers about how the body travelled; the stored body is already decoded.
+     */
+    private static boolean wireOnly(String name) {
+        return name.equalsIgnoreCase("Content-Length") || name.equalsIgnoreCase("Transfer-Encoding")
+                || name.equalsIgnoreCase("Content-Encoding");
+    }
+
+    private static Response revalidated(DiskStore.Stored stored, Response notModified) {
+        Map<String, String> headers = new LinkedHashMap<>(stored.headers);
+        for (Header header : notModified.getHeaders()) {
+            String name = header.getName();
+            if (!wireOnly(name)) {
+                headers.keySet().removeIf(existing -> existing.equalsIgnoreCase(name));
+                headers.put(name, header.getValue());
+            }
+        }
+        List<Header> list = new ArrayList<>();
+        headers.forEach((name, value) -> list.add(new Header(name, value)));
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(stored.status)
+                .setStatusLine(stored.statusLine)
+                .setHeaders(new Headers(list))
+                .setBody(stored.body);
+        String contentType = stored.header("Content-Type");
+        if (contentType != null) {
+            builder.setContentType(contentType);
+        }
+        return builder.build();
+    }
+}
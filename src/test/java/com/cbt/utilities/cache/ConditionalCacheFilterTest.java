@@ -0,0 +1,117 @@
+package com.cbt.utilities.cache;
+
+import com.cbt.utilities.stub.Cassette;
+import com.cbt.utilities.stub.Faults;
+import com.cbt.utilities.stub.StubMode;
+import com.cbt.utilities.stub.StubServer;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ConditionalCacheFilterTest {
+
+    private static final String BODY = "{\"login\":\"cucumber\"}";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void storedResponseIsRevalidatedOnTheNextRun() {
+        StubServer stub = stub("\"v1\"");
+        try {
+            Wire first = new Wire();
+            Response fetched = get(stub, new ConditionalCacheFilter("test", store()), first);
+            // A new filter over a reopened store stands for the next run.
+            Wire second = new Wire();
+            Response revalidated = get(stub, new ConditionalCacheFilter("test", store()), second);
+
+            assertThat(first.statuses, contains(200));
+            assertThat(first.ifNoneMatch, contains(nullValue()));
+            assertThat(fetched.asString(), is(BODY));
+
+            assertThat(second.statuses, contains(304));
+            assertThat(second.ifNoneMatch, contains("\"v1\""));
+            assertThat(revalidated.statusCode(), is(200));
+            assertThat(revalidated.contentType(), startsWith("application/json"));
+            assertThat(revalidated.header("ETag"), is("\"v1\""));
+            assertThat(revalidated.asString(), is(BODY));
+        } finally {
+            stub.stop();
+        }
+    }
+
+    @Test
+    public void responsesWithoutValidatorsAreNotStored() {
+        StubServer stub = stub(null);
+        try {
+            get(stub, new ConditionalCacheFilter("test", store()), new Wire());
+            Wire second = new Wire();
+            get(stub, new ConditionalCacheFilter("test", store()), second);
+
+            assertThat(second.ifNoneMatch, contains(nullValue()));
+            assertThat(second.statuses, contains(200));
+        } finally {
+            stub.stop();
+        }
+    }
+
+    private StubServer stub(String etag) {
+        Path file = dir.resolve("conditional.http");
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", "application/json");
+        if (etag != null) {
+            headers.put("ETag", etag);
+        }
+        Cassette.load(file).record(new Cassette.Exchange(Cassette.key("GET", "/orgs/cucumber", null,
+                "application/json"), 200, headers, BODY.getBytes(StandardCharsets.UTF_8)));
+        return new StubServer("conditional", "http://localhost", StubMode.REPLAY, file).faults(Faults.none()).start();
+    }
+
+    private DiskStore store() {
+        return new DiskStore(dir.resolve("store"), 1 << 20);
+    }
+
+    private static Response get(StubServer stub, ConditionalCacheFilter filter, Wire wire) {
+        return given().baseUri(stub.baseUri()).accept("application/json").
+                filter(filter).filter(wire).
+                get("/orgs/cucumber");
+    }
+
+    /**
+     * Sits below the filter under test and records what actually went over the wire.
+     */
+    private static class Wire implements OrderedFilter {
+
+        final List<Integer> statuses = new ArrayList<>();
+        final List<String> ifNoneMatch = new ArrayList<>();
+
+        @Override
+        public int getOrder() {
+            return DEFAULT_PRECEDENCE + 2;
+        }
+
+        @Override
+        public Response filter(FilterableRequestSpecification requestSpec,
+                               FilterableResponseSpecification responseSpec, FilterContext ctx) {
+            ifNoneMatch.add(requestSpec.getHeaders().getValue("If-None-Match"));
+            Response response = ctx.next(requestSpec, responseSpec);
+            statuses.add(response.statusCode());
+            return response;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.cbt.utilities.cache;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded store of HTTP responses on disk, one file per cache key, kept between runs.
+ *
+ * Files are written to a temporary name and moved into place, so a reader (or another JVM sharing the directory)
+ * never sees half an entry. Reads map the file instead of streaming it through buffers. A file's modification time
+ * doubles as its last use; once the directory holds more than {@code maxBytes}, the least recently used entries are
+ * deleted.
+ */
+public class DiskStore {
+
+    private static final int MAGIC = 0x48545450;
+
+    /**
+     * A stored response: status line, headers and body.
+     */
+    public static class Stored {
+
+        final String statusLine;
+        final int status;
+        final Map<String, String> headers;
+        final byte[] body;
+
+        public Stored(String statusLine, int status, Map<String, String> headers, byte[] body) {
+            this.statusLine = statusLine;
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public String header(String name) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                if (header.getKey().equalsIgnoreCase(name)) {
+                    return header.getValue();
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Path dir;
+    private final long maxBytes;
+    private final Map<String, Long> sizes = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+
+    public DiskStore(Path dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(dir);
+            try (Stream<Path> files = Files.list(dir)) {
+                files.filter(file -> file.toString().endsWith(".entry")).forEach(file -> {
+                    long size = file.toFile().length();
+                    sizes.put(file.getFileName().toString(), size);
+                    bytes.addAndGet(size);
+                });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open disk cache " + dir, e);
+        }
+    }
+
+    public Stored get(String key) {
+        Path file = dir.resolve(fileName(key));
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Stored stored = read(buffer, key);
+            if (stored != null) {
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            }
+            return stored;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    public void put(String key, Stored stored) {
+        String name = fileName(key);
+        Path file = dir.resolve(name);
+        try {
+            Path temp = Files.createTempFile(dir, name, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                write(out, key, stored);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long size = Files.size(file);
+            Long old = sizes.put(name, size);
+            bytes.addAndGet(size - (old == null ? 0 : old));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write disk cache entry " + file, e);
+        }
+        if (bytes.get() > maxBytes) {
+            evict();
+        }
+    }
+
+    public long bytes() {
+        return bytes.get();
+    }
+
+    private synchronized void evict() {
+        List<Path> files = new ArrayList<>();
+        for (String name : sizes.keySet()) {
+            files.add(dir.resolve(name));
+        }
+        files.sort(Comparator.comparingLong(file -> file.toFile().lastModified()));
+        for (Path file : files) {
+            if (bytes.get() <= maxBytes) {
+                return;
+            }
+            Long size = sizes.remove(file.getFileName().toString());
+            if (size != null) {
+                bytes.addAndGet(-size);
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    // someone else holds it; it is dropped from the index and retried next time the store opens
+                }
+            }
+        }
+    }
+
+    private static void write(DataOutputStream out, String key, Stored stored) throws IOException {
+        out.writeInt(MAGIC);
+        writeString(out, key);
+        writeString(out, stored.statusLine);
+        out.writeInt(stored.status);
+        out.writeInt(stored.headers.size());
+        for (Map.Entry<String, String> header : stored.headers.entrySet()) {
+            writeString(out, header.getKey());
+            writeString(out, header.getValue());
+        }
+        out.writeInt(stored.body.length);
+        out.write(stored.body);
+    }
+
+    /**
+     * Null when the file is not an entry for this key (a hash collision or a file from an older format).
+     */
+    private static Stored read(ByteBuffer in, String key) {
+        if (in.getInt() != MAGIC || !key.equals(readString(in))) {
+            return null;
+        }
+        String statusLine = readString(in);
+        int status = in.getInt();
+        int count = in.getInt();
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            headers.put(readString(in), readString(in));
+        }
+        byte[] body = new byte[in.getInt()];
+        in.get(body);
+        return new Stored(statusLine, status, headers, body);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String fileName(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(hash.length * 2 + 6);
+            for (byte b : hash) {
+                name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return name.append(".entry").toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.cbt.utilities.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class DiskStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void entriesSurviveReopening() {
+        new DiskStore(dir, 1 << 20).put("GET /orgs/cucumber", stored("{\"login\":\"cucumber\"}"));
+
+        DiskStore.Stored stored = new DiskStore(dir, 1 << 20).get("GET /orgs/cucumber");
+
+        assertThat(stored.status, is(200));
+        assertThat(stored.header("etag"), is("W/\"abc\""));
+        assertThat(new String(stored.body, StandardCharsets.UTF_8), is("{\"login\":\"cucumber\"}"));
+        assertThat(new DiskStore(dir, 1 << 20).get("GET /orgs/other"), is(nullValue()));
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvicted() throws InterruptedException {
+        DiskStore store = new DiskStore(dir, 400);
+        store.put("a", stored(new String(new char[100])));
+        Thread.sleep(20);
+        store.put("b", stored(new String(new char[100])));
+        Thread.sleep(20);
+        store.get("a");
+        store.put("c", stored(new String(new char[100])));
+
+        assertThat(store.get("a"), is(notNullValue()));
+        assertThat(store.get("b"), is(nullValue()));
+        assertThat(store.bytes(), lessThanOrEqualTo(400L));
+    }
+
+    private static DiskStore.Stored stored(String body) {
+        return new DiskStore.Stored("HTTP/1.1 200 OK", 200, Collections.singletonMap("ETag", "W/\"abc\""),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,201 @@
+package com.cbt.utilities.cache;
+
+import com.cbt.utilities.latency.CurrentTest;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-run cache for idempotent GET requests, shared by every suite in the JVM.
+ *
+ * Entries are keyed by method, full URI (path and query parameters included) and the request headers in
+ * {@code RELEVANT_HEADERS}. They expire after {@code -Dcache.ttlSeconds} (default 300) and the least recently used
+ * ones are dropped once the cache holds more than {@code -Dcache.maxEntries} responses (default 256) or
+ * {@code -Dcache.maxBytes} of body (default 64 MB). Only 2xx answers are cached. {@code -Dcache.enabled=false}
+ * turns it off.
+ *
+ * Concurrent identical requests are collapsed into one round-trip; the callers that waited see the same response,
+ * or the same failure, as the one that went.
+ */
+public class ResponseCacheFilter implements Filter {
+
+    private static final List<String> RELEVANT_HEADERS = Arrays.asList("Accept", "Authorization", "Accept-Language");
+
+    private static final ResponseCacheFilter SHARED = new ResponseCacheFilter(
+            Integer.getInteger("cache.maxEntries", 256),
+            Long.getLong("cache.maxBytes", 64L * 1024 * 1024),
+            Long.getLong("cache.ttlSeconds", 300L) * 1000);
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<Response>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> sharedByTest = new ConcurrentHashMap<>();
+    private long bytes;
+
+    public ResponseCacheFilter(int maxEntries, long maxBytes, long ttlMillis) {
+        this(maxEntries, maxBytes, ttlMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * With {@code clock} telling the time in milliseconds, so expiry can be tested without waiting for it.
+     */
+    ResponseCacheFilter(int maxEntries, long maxBytes, long ttlMillis, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    public static ResponseCacheFilter shared() {
+        return SHARED;
+    }
+
+    public static boolean enabled() {
+        return Boolean.parseBoolean(System.getProperty("cache.enabled", "true"));
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (!"GET".equalsIgnoreCase(requestSpec.getMethod())) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        String key = key(requestSpec);
+        Entry cached = lookup(key);
+        if (cached != null) {
+            countShared();
+            return cached.response;
+        }
+        CompletableFuture<Response> mine = new CompletableFuture<>();
+        CompletableFuture<Response> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            countShared();
+            return await(leader);
+        }
+        try {
+            Response response = fetch(key, requestSpec, responseSpec, ctx);
+            mine.complete(response);
+            return response;
+        } catch (Throwable e) {
+            // Groovy code further down the chain can throw checked exceptions undeclared; waiters must see them too.
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Requests answered without a round-trip of their own, from the cache or by joining an identical request in
+     * flight, per {@link CurrentTest} name.
+     */
+    public Map<String, Long> sharedByTest() {
+        Map<String, Long> shared = new TreeMap<>();
+        sharedByTest.forEach((test, count) -> shared.put(test, count.sum()));
+        return shared;
+    }
+
+    private Response fetch(String key, FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+        if (response.statusCode() < 200 || response.statusCode() > 299) {
+            return response;
+        }
+        Response copy = new ResponseBuilder().clone(response).build();
+        Entry entry = new Entry(copy, copy.asByteArray().length, clock.getAsLong() + ttlMillis);
+        store(key, entry);
+        return copy;
+    }
+
+    /**
+     * The leader's response, or the leader's own failure rather than the {@link CompletionException} around it.
+     */
+    private static Response await(CompletableFuture<Response> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            Throwable failure = e.getCause();
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            throw new IllegalStateException("Shared request failed", failure);
+        }
+    }
+
+    private void countShared() {
+        sharedByTest.computeIfAbsent(CurrentTest.name(), test -> new LongAdder()).increment();
+    }
+
+    private synchronized Entry lookup(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= clock.getAsLong()) {
+            entries.remove(key);
+            bytes -= entry.size;
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized void store(String key, Entry entry) {
+        Entry old = entries.put(key, entry);
+        if (old != null) {
+            bytes -= old.size;
+        }
+        bytes += entry.size;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (eldest.hasNext() && (entries.size() > maxEntries || bytes > maxBytes)) {
+            bytes -= eldest.next().size;
+            eldest.remove();
+        }
+    }
+
+    private static String key(FilterableRequestSpecification requestSpec) {
+        return key(requestSpec, requestSpec.getURI());
+    }
+
+    /**
+     * Method, the given form of the request target and the relevant request headers.
+     */
+    static String key(FilterableRequestSpecification requestSpec, String target) {
+        StringBuilder key = new StringBuilder(requestSpec.getMethod()).append(' ').append(target);
+        for (String header : RELEVANT_HEADERS) {
+            List<String> values = requestSpec.getHeaders().getValues(header);
+            if (!values.isEmpty()) {
+                key.append('\n').append(header).append(": ").append(String.join(", ", values));
+            }
+        }
+        return key.toString();
+    }
+
+    private static class Entry {
+
+        private final Response response;
+        private final long size;
+        private final long expiresAt;
+
+        Entry(Response response, long size, long expiresAt) {
+            this.response = response;
+            this.size = size;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.cbt.utilities.cache;
+
+import com.cbt.utilities.stub.Cassette;
+import com.cbt.utilities.stub.Faults;
+import com.cbt.utilities.stub.StubMode;
+import com.cbt.utilities.stub.StubServer;
+import io.restassured.filter.Filter;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ResponseCacheFilterTest {
+
+    private static final String BODY = "{\"ok\":true}";
+
+    @TempDir
+    Path dir;
+
+    private StubServer stub;
+    private final AtomicInteger roundTrips = new AtomicInteger();
+    private final Filter counting = (request, response, ctx) -> {
+        roundTrips.incrementAndGet();
+        return ctx.next(request, response);
+    };
+
+    @BeforeEach
+    public void startStub() {
+        Path file = dir.resolve("cache.http");
+        Cassette cassette = Cassette.load(file);
+        for (String path : new String[]{"/a", "/b", "/c"}) {
+            cassette.record(new Cassette.Exchange(Cassette.key("GET", path, null, "application/json"), 200,
+                    Collections.singletonMap("Content-Type", "application/json"),
+                    BODY.getBytes(StandardCharsets.UTF_8)));
+        }
+        stub = new StubServer("cache", "http://localhost", StubMode.REPLAY, file).faults(Faults.none()).start();
+    }
+
+    @AfterEach
+    public void stopStub() {
+        stub.stop();
+    }
+
+    @Test
+    public void entriesAreServedUntilTheyExpire() {
+        AtomicLong now = new AtomicLong();
+        ResponseCacheFilter cache = new ResponseCacheFilter(16, 1 << 20, 50, now::get);
+
+        assertThat(get(cache, "/a").asString(), is(BODY));
+        now.set(49);
+        assertThat(get(cache, "/a").asString(), is(BODY));
+        assertThat(roundTrips.get(), is(1));
+
+        now.set(50);
+        get(cache, "/a");
+        assertThat(roundTrips.get(), is(2));
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvictedPastTheByteBudget() {
+        ResponseCacheFilter cache = new ResponseCacheFilter(16, 2L * BODY.length(), 60_000);
+
+        get(cache, "/a");
+        get(cache, "/b");
+        get(cache, "/a");
+        get(cache, "/c");
+        assertThat(roundTrips.get(), is(3));
+
+        get(cache, "/a");
+        assertThat(roundTrips.get(), is(3));
+        get(cache, "/b");
+        assertThat(roundTrips.get(), is(4));
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvictedPastTheEntryLimit() {
+        ResponseCacheFilter cache = new ResponseCacheFilter(2, 1 << 20, 60_000);
+
+        get(cache, "/a");
+        get(cache, "/b");
+        get(cache, "/a");
+        get(cache, "/c");
+        get(cache, "/a");
+        assertThat(roundTrips.get(), is(3));
+
+        get(cache, "/b");
+        assertThat(roundTrips.get(), is(4));
+    }
+
+    @Test
+    public void concurrentIdenticalRequestsShareOneRoundTrip() throws Exception {
+        stub.faults(Faults.none().delays(1.0, Duration.ofMillis(300)));
+        ResponseCacheFilter cache = new ResponseCacheFilter(16, 1 << 20, 60_000);
+
+        List<Response> responses = concurrently(4, () -> get(cache, "/a"));
+
+        assertThat(roundTrips.get(), is(1));
+        for (Response response : responses) {
+            assertThat(response.asString(), is(BODY));
+        }
+    }
+
+    @Test
+    public void waitersSeeTheLeadersOwnFailure() throws Exception {
+        ResponseCacheFilter cache = new ResponseCacheFilter(16, 1 << 20, 60_000);
+        Filter failing = (request, response, ctx) -> {
+            roundTrips.incrementAndGet();
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new AssertionError("upstream broke");
+        };
+
+        List<Throwable> failures = concurrently(4, () -> {
+            try {
+                given().baseUri(stub.baseUri()).accept("application/json").filter(cache).filter(failing).get("/a");
+                return null;
+            } catch (Throwable e) {
+                return e;
+            }
+        });
+
+        assertThat(roundTrips.get(), is(1));
+        for (Throwable failure : failures) {
+            assertThat(failure, instanceOf(AssertionError.class));
+            assertThat(failure.getMessage(), is("upstream broke"));
+        }
+    }
+
+    @Test
+    public void otherMethodsPassThrough() {
+        ResponseCacheFilter cache = new ResponseCacheFilter(16, 1 << 20, 60_000);
+
+        given().baseUri(stub.baseUri()).accept("application/json").filter(cache).filter(counting).head("/a");
+        given().baseUri(stub.baseUri()).accept("application/json").filter(cache).filter(counting).head("/a");
+
+        assertThat(roundTrips.get(), is(2));
+    }
+
+    private Response get(ResponseCacheFilter cache, String path) {
+        return given().baseUri(stub.baseUri()).accept("application/json").filter(cache).filter(counting).get(path);
+    }
+
+    private static <T> List<T> concurrently(int callers, Callable<T> call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
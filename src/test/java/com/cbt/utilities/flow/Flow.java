@@ -0,0 +1,108 @@
+package com.cbt.utilities.flow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The requests and checks of a multi-step test as a graph: each step names the steps it needs, steps whose inputs
+ * are ready run at once, and {@link #run()} waits for all of them. Independent requests overlap, so the test takes
+ * as long as its longest chain of dependent calls instead of the sum of all of them.
+ *
+ * Steps run on daemon threads the flow starts from the test's thread, so they inherit what that thread carries,
+ * such as the current test name. When a step fails, the steps that need it are skipped and {@link #run()} throws
+ * the first failure as it was thrown, so an {@code AssertionError} reaches JUnit unchanged.
+ * <pre>
+ * Flow flow = new Flow();
+ * Step&lt;Response&gt; house = flow.step("house", () -&gt; given(spec).get("/houses/{id}", id));
+ * Step&lt;Response&gt; members = flow.step("members", () -&gt; given(spec).queryParam("house", name).get("/characters"));
+ * flow.verify(house, members, (h, m) -&gt; assertThat(...));
+ * flow.run();
+ * </pre>
+ */
+public class Flow {
+
+    private final ExecutorService executor;
+    private final List<Step<?>> steps = new ArrayList<>();
+
+    public Flow() {
+        AtomicInteger number = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "flow-" + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * A step that needs nothing and starts right away.
+     */
+    public <T> Step<T> step(String name, Supplier<? extends T> action) {
+        return add(name, CompletableFuture.<T>supplyAsync(action::get, executor));
+    }
+
+    public <A, T> Step<T> step(String name, Step<A> input, Function<? super A, ? extends T> action) {
+        return add(name, input.future.thenApplyAsync(action, executor));
+    }
+
+    public <A, B, T> Step<T> step(String name, Step<A> first, Step<B> second,
+                                  BiFunction<? super A, ? super B, ? extends T> action) {
+        return add(name, first.future.thenCombineAsync(second.future, action, executor));
+    }
+
+    public <A> Step<Void> verify(Step<A> input, Consumer<? super A> check) {
+        return add("verify " + input, input.future.thenAcceptAsync(check, executor));
+    }
+
+    public <A, B> Step<Void> verify(Step<A> first, Step<B> second, BiConsumer<? super A, ? super B> check) {
+        return add("verify " + first + ", " + second,
+                first.future.thenAcceptBothAsync(second.future, check, executor));
+    }
+
+    /**
+     * Waits for every step and rethrows the first failure in the order the steps were declared.
+     */
+    public void run() {
+        try {
+            CompletableFuture.allOf(steps.stream().map(step -> step.future).toArray(CompletableFuture[]::new))
+                    .exceptionally(failure -> null)
+                    .join();
+        } finally {
+            executor.shutdown();
+        }
+        for (Step<?> step : steps) {
+            if (step.future.isCompletedExceptionally()) {
+                try {
+                    step.future.join();
+                } catch (CompletionException e) {
+                    throw rethrow(step, e.getCause());
+                }
+            }
+        }
+    }
+
+    private <T> Step<T> add(String name, CompletableFuture<T> future) {
+        Step<T> step = new Step<>(name, future);
+        steps.add(step);
+        return step;
+    }
+
+    private static RuntimeException rethrow(Step<?> step, Throwable failure) {
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        throw new IllegalStateException("Step '" + step + "' failed", failure);
+    }
+}
@@ -0,0 +1,58 @@
+package com.cbt.utilities.flow;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FlowTest {
+
+    /**
+     * Waits until every party has arrived; only steps that run at the same time get past it.
+     */
+    private static <T> T meet(CyclicBarrier barrier, T value) {
+        try {
+            barrier.await(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Steps did not run at the same time", e);
+        }
+        return value;
+    }
+
+    @Test
+    public void independentStepsOverlap() {
+        CyclicBarrier bothRunning = new CyclicBarrier(2);
+        Flow flow = new Flow();
+        Step<Integer> first = flow.step("first", () -> meet(bothRunning, 1));
+        Step<Integer> second = flow.step("second", () -> meet(bothRunning, 2));
+        Step<Integer> sum = flow.step("sum", first, second, Integer::sum);
+        Step<String> text = flow.step("text", sum, String::valueOf);
+
+        flow.run();
+
+        assertThat(text.get(), is("3"));
+    }
+
+    @Test
+    public void failuresReachTheCallerUnwrappedAndSkipDependents() {
+        Flow flow = new Flow();
+        AtomicBoolean dependentRan = new AtomicBoolean();
+        Step<Integer> value = flow.step("value", () -> 1);
+        Step<Void> check = flow.verify(value, v -> assertThat(v, is(2)));
+        Step<Integer> failing = flow.step("failing", () -> {
+            throw new IllegalArgumentException("boom");
+        });
+        flow.verify(failing, v -> dependentRan.set(true));
+
+        AssertionError error = assertThrows(AssertionError.class, flow::run);
+
+        assertThat(error.getMessage(), containsString("Expected: is <2>"));
+        assertThat(dependentRan.get(), is(false));
+        assertThrows(IllegalStateException.class, check::get);
+    }
+}
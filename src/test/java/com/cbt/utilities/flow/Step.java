@@ -0,0 +1,36 @@
+package com.cbt.utilities.flow;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One step of a {@link Flow}: its name and the value it will produce.
+ */
+public final class Step<T> {
+
+    private final String name;
+    final CompletableFuture<T> future;
+
+    Step(String name, CompletableFuture<T> future) {
+        this.name = name;
+        this.future = future;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * The value of a finished step; only valid after {@link Flow#run()} has returned.
+     */
+    public T get() {
+        if (!future.isDone() || future.isCompletedExceptionally()) {
+            throw new IllegalStateException("Step '" + name + "' has not completed");
+        }
+        return future.join();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
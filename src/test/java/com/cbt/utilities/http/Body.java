@@ -0,0 +1,108 @@
+package com.cbt.utilities.http;
+
+import com.cbt.utilities.json.JsonColumns;
+import io.restassured.response.Response;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A response body read once, for tests that look at it more than one way.
+ *
+ * {@code Response.asString()} decodes the bytes again on every call. Here the text is decoded at most once, and
+ * only if asked for: {@link #contains} searches the encoded bytes and {@link #json} streams them.
+ * <pre>
+ * Body body = Body.of(response);
+ * assertTrue(body.contains("cucumber"));
+ * </pre>
+ */
+public final class Body {
+
+    private static final Pattern CHARSET = Pattern.compile("charset=\"?([^\";\\s]+)", Pattern.CASE_INSENSITIVE);
+
+    private final byte[] bytes;
+    private final Charset charset;
+    private String text;
+
+    private Body(byte[] bytes, Charset charset) {
+        this.bytes = bytes;
+        this.charset = charset;
+    }
+
+    public static Body of(Response response) {
+        return new Body(response.asByteArray(), charsetOf(response.contentType()));
+    }
+
+    public static Body of(byte[] bytes, Charset charset) {
+        return new Body(bytes, charset);
+    }
+
+    /**
+     * Charset named by a {@code Content-Type}, UTF-8 when there is none or it is unknown.
+     */
+    static Charset charsetOf(String contentType) {
+        Matcher matcher = contentType == null ? null : CHARSET.matcher(contentType);
+        if (matcher != null && matcher.find()) {
+            try {
+                return Charset.forName(matcher.group(1));
+            } catch (IllegalArgumentException e) {
+                return StandardCharsets.UTF_8;
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    public int length() {
+        return bytes.length;
+    }
+
+    /**
+     * Read-only view of the bytes, without copying them.
+     */
+    public ByteBuffer buffer() {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    public synchronized String asString() {
+        if (text == null) {
+            text = new String(bytes, charset);
+        }
+        return text;
+    }
+
+    public boolean contains(String text) {
+        return indexOf(text.getBytes(charset)) >= 0;
+    }
+
+    /**
+     * Byte offset of the first occurrence of {@code needle}, or -1. Horspool search, so long needles skip ahead.
+     */
+    public int indexOf(byte[] needle) {
+        int n = needle.length;
+        if (n == 0) {
+            return 0;
+        }
+        int[] shift = new int[256];
+        Arrays.fill(shift, n);
+        for (int i = 0; i < n - 1; i++) {
+            shift[needle[i] & 0xff] = n - 1 - i;
+        }
+        for (int at = 0; at + n <= bytes.length; at += shift[bytes[at + n - 1] & 0xff]) {
+            int i = n - 1;
+            while (bytes[at + i] == needle[i]) {
+                if (i-- == 0) {
+                    return at;
+                }
+            }
+        }
+        return -1;
+    }
+
+    public JsonColumns json(String... paths) {
+        return JsonColumns.extract(bytes, paths);
+    }
+}
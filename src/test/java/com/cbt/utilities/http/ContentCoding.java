@@ -0,0 +1,209 @@
+package com.cbt.utilities.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * {@code Content-Encoding} support for the transports and the stub: what to put in {@code Accept-Encoding}, and how
+ * to decode and encode bodies.
+ *
+ * gzip and deflate are always available. Brotli is offered only when a decoder, {@code org.brotli.dec} or
+ * {@code com.aayushatharva.brotli4j}, is on the test classpath. Decoding goes through one growing buffer per thread,
+ * so only the final, exactly sized body is allocated.
+ */
+public final class ContentCoding {
+
+    private static final Constructor<?> BROTLI = brotliDecoder();
+
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[64 * 1024]);
+
+    private ContentCoding() {
+    }
+
+    /**
+     * Value for {@code Accept-Encoding}, best coding first.
+     */
+    public static String acceptEncoding() {
+        return BROTLI != null ? "br, gzip, deflate" : "gzip, deflate";
+    }
+
+    public static boolean decodable(String contentEncoding) {
+        for (String coding : codings(contentEncoding)) {
+            if (!coding.equals("gzip") && !coding.equals("x-gzip") && !coding.equals("deflate")
+                    && !coding.equals("identity") && !(coding.equals("br") && BROTLI != null)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Undoes every coding listed in a {@code Content-Encoding} header, last applied first.
+     */
+    public static byte[] decode(String contentEncoding, byte[] body) {
+        String[] codings = codings(contentEncoding);
+        for (int i = codings.length - 1; i >= 0; i--) {
+            body = decodeOne(codings[i], body);
+        }
+        return body;
+    }
+
+    /**
+     * The coding the stub should answer with for a request's {@code Accept-Encoding}, or null for none.
+     */
+    public static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        String best = null;
+        for (String entry : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = entry.trim().split(";");
+            String coding = parts[0].trim();
+            boolean refused = parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?");
+            if (refused) {
+                continue;
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip") || coding.equals("*")) {
+                return "gzip";
+            }
+            if (coding.equals("deflate")) {
+                best = "deflate";
+            }
+        }
+        return best;
+    }
+
+    public static byte[] encode(String coding, byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        if (coding.equals("gzip")) {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+        if (coding.equals("deflate")) {
+            Deflater deflater = new Deflater();
+            deflater.setInput(body);
+            deflater.finish();
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            deflater.end();
+            return out.toByteArray();
+        }
+        throw new IllegalArgumentException("Cannot encode " + coding);
+    }
+
+    private static String[] codings(String contentEncoding) {
+        if (contentEncoding == null || contentEncoding.isBlank()) {
+            return new String[0];
+        }
+        String[] codings = contentEncoding.toLowerCase(Locale.ROOT).split(",");
+        for (int i = 0; i < codings.length; i++) {
+            codings[i] = codings[i].trim();
+        }
+        return codings;
+    }
+
+    private static byte[] decodeOne(String coding, byte[] body) {
+        try {
+            switch (coding) {
+                case "identity":
+                    return body;
+                case "gzip":
+                case "x-gzip":
+                    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                        return drain(in);
+                    }
+                case "deflate":
+                    return inflate(body);
+                case "br":
+                    if (BROTLI == null) {
+                        throw new IllegalArgumentException("Unsupported Content-Encoding br: no brotli decoder on the "
+                                + "class path");
+                    }
+                    try (InputStream in = (InputStream) BROTLI.newInstance(new ByteArrayInputStream(body))) {
+                        return drain(in);
+                    }
+                default:
+                    throw new IllegalArgumentException("Unsupported Content-Encoding " + coding);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot decode " + coding + " body", e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create brotli decoder", e);
+        }
+    }
+
+    /**
+     * deflate is meant to be zlib-wrapped, but some servers send the raw stream; both are accepted.
+     */
+    private static byte[] inflate(byte[] body) {
+        boolean zlib = body.length > 1 && (body[0] & 0x0f) == 8 && ((body[0] & 0xff) << 8 | body[1] & 0xff) % 31 == 0;
+        Inflater inflater = new Inflater(!zlib);
+        try {
+            inflater.setInput(body);
+            byte[] buffer = SCRATCH.get();
+            int size = 0;
+            while (!inflater.finished()) {
+                if (size == buffer.length) {
+                    buffer = grow(buffer);
+                }
+                int read = inflater.inflate(buffer, size, buffer.length - size);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                size += read;
+            }
+            return Arrays.copyOf(buffer, size);
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException(new IOException("Malformed deflate body", e));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] drain(InputStream in) throws IOException {
+        byte[] buffer = SCRATCH.get();
+        int size = 0;
+        for (int read; (read = in.read(buffer, size, buffer.length - size)) != -1; ) {
+            size += read;
+            if (size == buffer.length) {
+                buffer = grow(buffer);
+            }
+        }
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private static byte[] grow(byte[] buffer) {
+        byte[] larger = Arrays.copyOf(buffer, buffer.length * 2);
+        SCRATCH.set(larger);
+        return larger;
+    }
+
+    private static Constructor<?> brotliDecoder() {
+        for (String name : new String[]{"org.brotli.dec.BrotliInputStream",
+                "com.aayushatharva.brotli4j.decoder.BrotliInputStream"}) {
+            try {
+                return Class.forName(name).getConstructor(InputStream.class);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // not on the classpath
+            }
+        }
+        return null;
+    }
+}
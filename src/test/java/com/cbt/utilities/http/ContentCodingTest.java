@@ -0,0 +1,59 @@
+package com.cbt.utilities.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ContentCodingTest {
+
+    private static final byte[] BODY = "{\"login\":\"cucumber\"}".repeat(5000).getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void roundTripsEveryCodingItOffers() {
+        for (String coding : new String[]{"gzip", "deflate"}) {
+            byte[] encoded = ContentCoding.encode(coding, BODY);
+
+            assertThat(encoded.length, lessThan(BODY.length / 10));
+            assertThat(ContentCoding.decode(coding, encoded), is(BODY));
+        }
+        assertThat(ContentCoding.decode("gzip, identity", ContentCoding.encode("gzip", BODY)), is(BODY));
+    }
+
+    @Test
+    public void acceptsRawDeflateStreams() throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(raw, deflater)) {
+            out.write(BODY);
+        }
+
+        assertThat(ContentCoding.decode("deflate", raw.toByteArray()), is(BODY));
+    }
+
+    @Test
+    public void negotiatesFromAcceptEncoding() {
+        assertThat(ContentCoding.negotiate("gzip,deflate"), is("gzip"));
+        assertThat(ContentCoding.negotiate("br, deflate;q=0.5"), is("deflate"));
+        assertThat(ContentCoding.negotiate("gzip;q=0, deflate"), is("deflate"));
+        assertThat(ContentCoding.negotiate("identity"), is(nullValue()));
+        assertThat(ContentCoding.negotiate(null), is(nullValue()));
+    }
+
+    @Test
+    public void bodySearchesBytesWithoutDecoding() {
+        Body body = Body.of("{\"error\": \"API Key Not Found\", \"name\": \"Zoë\"}".getBytes(StandardCharsets.UTF_8),
+                Body.charsetOf("application/json; charset=utf-8"));
+
+        assertThat(body.contains("\"error\": \"API Key Not Found\""), is(true));
+        assertThat(body.contains("Zoë"), is(true));
+        assertThat(body.contains("Not Found!"), is(false));
+        assertThat(body.indexOf("name".getBytes(StandardCharsets.UTF_8)), is(32));
+    }
+}
@@ -0,0 +1,89 @@
+package com.cbt.utilities.http;
+
+import org.apache.http.conn.scheme.SchemeLayeredSocketFactory;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
+import org.apache.http.params.HttpParams;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+
+/**
+ * Socket factory wrapper that records every new connection, and how long connecting and the TLS handshake took.
+ *
+ * The sockets it hands out time their own TCP connect, so for secure schemes the rest of
+ * {@link #connectSocket} is the handshake.
+ *
+ * Only secure delegates are wrapped as layered factories: Apache plans a route as secure whenever the scheme's
+ * factory is layered, so a plain factory must stay plain.
+ */
+@SuppressWarnings("deprecation")
+class CountingSocketFactory implements SchemeSocketFactory {
+
+    private final SchemeSocketFactory delegate;
+    private final TransportStats stats;
+
+    private CountingSocketFactory(SchemeSocketFactory delegate, TransportStats stats) {
+        this.delegate = delegate;
+        this.stats = stats;
+    }
+
+    static SchemeSocketFactory wrap(SchemeSocketFactory delegate, TransportStats stats) {
+        return delegate instanceof SchemeLayeredSocketFactory
+                ? new Layered((SchemeLayeredSocketFactory) delegate, stats)
+                : new CountingSocketFactory(delegate, stats);
+    }
+
+    @Override
+    public Socket createSocket(HttpParams params) throws IOException {
+        Socket socket = delegate.createSocket(params);
+        return socket.getClass() == Socket.class ? new TimedSocket() : socket;
+    }
+
+    @Override
+    public Socket connectSocket(Socket socket, InetSocketAddress remote, InetSocketAddress local, HttpParams params)
+            throws IOException {
+        long start = System.nanoTime();
+        Socket connected = delegate.connectSocket(socket, remote, local, params);
+        long total = System.nanoTime() - start;
+        boolean secure = delegate.isSecure(connected);
+        long tcp = socket instanceof TimedSocket ? ((TimedSocket) socket).connectNanos : total;
+        stats.connected(secure, total);
+        RequestTimings.connected(tcp, secure ? total - tcp : 0);
+        return connected;
+    }
+
+    @Override
+    public boolean isSecure(Socket socket) {
+        return delegate.isSecure(socket);
+    }
+
+    private static class TimedSocket extends Socket {
+
+        private long connectNanos;
+
+        @Override
+        public void connect(SocketAddress endpoint, int timeout) throws IOException {
+            long start = System.nanoTime();
+            super.connect(endpoint, timeout);
+            connectNanos = System.nanoTime() - start;
+        }
+    }
+
+    private static class Layered extends CountingSocketFactory implements SchemeLayeredSocketFactory {
+
+        private final SchemeLayeredSocketFactory layered;
+
+        Layered(SchemeLayeredSocketFactory delegate, TransportStats stats) {
+            super(delegate, stats);
+            this.layered = delegate;
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpParams params)
+                throws IOException {
+            return layered.createLayeredSocket(socket, target, port, params);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.cbt.utilities.http;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * When to send a second copy of an idempotent request: once the first has taken longer than the endpoint usually
+ * takes at the given percentile, or at once if it failed or answered 5xx. The caller keeps whichever copy answers
+ * well first.
+ *
+ * The percentile comes from the last {@link #WINDOW} latencies of the endpoint and nothing is hedged before
+ * {@code minSamples} of them are in. Copies are budgeted: over a run at most {@code maxRatio} of the requests, plus
+ * one, get a second copy, so a server that is slow for everyone is not also sent twice the load.
+ * <ul>
+ *     <li>{@code -Dhttp.hedge=true} turns hedging on (off by default)</li>
+ *     <li>{@code -Dhttp.hedge.percentile} (95), {@code -Dhttp.hedge.maxRatio} (0.1),
+ *     {@code -Dhttp.hedge.minSamples} (20)</li>
+ * </ul>
+ */
+public class Hedging {
+
+    static final int WINDOW = 128;
+
+    private final double percentile;
+    private final double maxRatio;
+    private final int minSamples;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private long requests;
+    private long hedges;
+
+    public Hedging(double percentile, double maxRatio, int minSamples) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be in (0, 100], was " + percentile);
+        }
+        this.percentile = percentile;
+        this.maxRatio = maxRatio;
+        this.minSamples = Math.max(1, Math.min(minSamples, WINDOW));
+    }
+
+    public static boolean enabled() {
+        return Boolean.getBoolean("http.hedge");
+    }
+
+    public static Hedging fromProperties() {
+        return new Hedging(Double.parseDouble(System.getProperty("http.hedge.percentile", "95")),
+                Double.parseDouble(System.getProperty("http.hedge.maxRatio", "0.1")),
+                Integer.getInteger("http.hedge.minSamples", 20));
+    }
+
+    /**
+     * How long to wait for the first copy before sending the second, or -1 while the endpoint has too few samples.
+     */
+    long delayNanos(String endpoint) {
+        Window window = windows.get(endpoint);
+        return window == null ? -1 : window.percentile(percentile, minSamples);
+    }
+
+    void record(String endpoint, long nanos) {
+        windows.computeIfAbsent(endpoint, e -> new Window()).add(nanos);
+    }
+
+    synchronized void request() {
+        requests++;
+    }
+
+    /**
+     * Takes one hedge from the budget, or returns false when the run has used it up.
+     */
+    synchronized boolean tryHedge() {
+        if (hedges >= maxRatio * requests + 1) {
+            return false;
+        }
+        hedges++;
+        return true;
+    }
+
+    public synchronized long requests() {
+        return requests;
+    }
+
+    public synchronized long hedges() {
+        return hedges;
+    }
+
+    private static final class Window {
+
+        private final long[] samples = new long[WINDOW];
+        private int count;
+        private int next;
+
+        synchronized void add(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % WINDOW;
+            count = Math.min(count + 1, WINDOW);
+        }
+
+        synchronized long percentile(double percentile, int minSamples) {
+            if (count < minSamples) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100 * count);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+}
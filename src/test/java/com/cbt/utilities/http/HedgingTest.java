@@ -0,0 +1,118 @@
+package com.cbt.utilities.http;
+
+import com.cbt.utilities.stub.Cassette;
+import com.cbt.utilities.stub.Faults;
+import com.cbt.utilities.stub.StubMode;
+import com.cbt.utilities.stub.StubServer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Compares wall-clock tails over real requests, so it only means something on an idle machine: it is left out of the
+ * default run and runs alone with {@code mvn test -Ptiming}.
+ */
+@Tag("timing")
+public class HedgingTest {
+
+    private static final Duration SLOW = Duration.ofMillis(500);
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final int REQUESTS = 300;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void hedgingCutsTheTailWithoutMultiplyingTheLoad() throws Exception {
+        StubServer stub = stub(Faults.none().delays(0.04, SLOW).seed(7));
+        try {
+            long[] plain = latencies(new JdkHttpTransport(TIMEOUT, TIMEOUT, new TransportStats()), stub);
+            TransportStats stats = new TransportStats();
+            long[] hedged = latencies(new JdkHttpTransport(TIMEOUT, TIMEOUT, stats, new Hedging(90, 0.25, 20)), stub);
+
+            assertThat(p99(plain), greaterThanOrEqualTo(SLOW.toNanos()));
+            assertThat(p99(hedged), lessThan(SLOW.toNanos() / 2));
+            assertThat(stats.hedges(), lessThanOrEqualTo(REQUESTS / 4 + 1L));
+        } finally {
+            stub.stop();
+        }
+    }
+
+    @Test
+    public void failedAnswersGetASecondCopy() throws Exception {
+        StubServer stub = stub(Faults.none().errors(0.05, 503).resets(0.02).seed(11));
+        try {
+            int plain = failures(new JdkHttpTransport(TIMEOUT, TIMEOUT, new TransportStats()), stub);
+            Hedging hedging = new Hedging(95, 0.25, 20);
+            int hedged = failures(new JdkHttpTransport(TIMEOUT, TIMEOUT, new TransportStats(), hedging), stub);
+
+            assertThat(plain, greaterThan(REQUESTS / 50));
+            assertThat(hedged, lessThan(Math.max(plain / 3, 1)));
+            assertThat(hedging.hedges(), lessThanOrEqualTo(REQUESTS / 4 + 1L));
+        } finally {
+            stub.stop();
+        }
+    }
+
+    private StubServer stub(Faults faults) {
+        Path file = dir.resolve("hedging.http");
+        Cassette.load(file).record(new Cassette.Exchange(Cassette.key("GET", "/thing", null, "application/json"),
+                200, Collections.singletonMap("Content-Type", "application/json"),
+                "{\"ok\":true}".getBytes(StandardCharsets.UTF_8)));
+        return new StubServer("hedging", "http://localhost", StubMode.REPLAY, file).faults(faults).start();
+    }
+
+    private static long[] latencies(JdkHttpTransport transport, StubServer stub) throws Exception {
+        long[] latencies = new long[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            long started = System.nanoTime();
+            HttpResponse<byte[]> response = transport.send(request(stub), "GET /thing",
+                    HttpResponse.BodyHandlers.ofByteArray());
+            latencies[i] = System.nanoTime() - started;
+            assertThat(response.statusCode(), is(200));
+        }
+        return latencies;
+    }
+
+    private static int failures(JdkHttpTransport transport, StubServer stub) throws InterruptedException {
+        int failures = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            try {
+                if (transport.send(request(stub), "GET /thing", HttpResponse.BodyHandlers.ofByteArray())
+                        .statusCode() != 200) {
+                    failures++;
+                }
+            } catch (IOException e) {
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    private static HttpRequest request(StubServer stub) {
+        return HttpRequest.newBuilder(URI.create(stub.baseUri() + "/thing"))
+                .header("Accept", "application/json")
+                .timeout(TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private static long p99(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(0.99 * sorted.length) - 1];
+    }
+}
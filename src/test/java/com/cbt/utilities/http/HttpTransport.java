@@ -0,0 +1,76 @@
+package com.cbt.utilities.http;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import org.apache.http.params.CoreConnectionPNames;
+
+import java.time.Duration;
+
+/**
+ * Chooses and tunes how the suites talk HTTP. Every API specification passes its builder through
+ * {@link #configure(RequestSpecBuilder)}.
+ *
+ * <ul>
+ *     <li>{@code -Dhttp.transport=apache} (default) uses one pooled Apache client for all requests,
+ *     {@code jdk} uses {@link java.net.http.HttpClient} with HTTP/2</li>
+ *     <li>{@code -Dhttp.pool.maxTotal} (20) and {@code -Dhttp.pool.maxPerRoute} (10) size the pool</li>
+ *     <li>{@code -Dhttp.keepAliveSeconds} (30) caps how long an idle connection is kept for reuse,
+ *     {@code -Dhttp.idleEvictSeconds} (30) closes connections idle for longer</li>
+ *     <li>{@code -Dhttp.connectTimeoutMillis} (5000) and {@code -Dhttp.readTimeoutMillis} (30000)</li>
+ *     <li>{@code -Dhttp.hedge=true} hedges GET requests as {@link Hedging} describes; it needs asynchronous sends,
+ *     so it also selects the {@code jdk} transport</li>
+ * </ul>
+ * A summary of requests against opened connections is printed by {@link TransportReport} after the test run.
+ */
+public final class HttpTransport {
+
+    private static final String TRANSPORT = System.getProperty("http.transport", "apache");
+    private static final int CONNECT_TIMEOUT = Integer.getInteger("http.connectTimeoutMillis", 5000);
+    private static final int READ_TIMEOUT = Integer.getInteger("http.readTimeoutMillis", 30000);
+
+    private static final TransportStats STATS = new TransportStats();
+
+    private static RestAssuredConfig config;
+    private static JdkHttpTransport jdk;
+
+    private HttpTransport() {
+    }
+
+    public static synchronized RequestSpecBuilder configure(RequestSpecBuilder builder) {
+        if (config == null) {
+            // RestAssured 4.3 takes timeouts only as HttpClient 4 connection parameters, which that client deprecates
+            @SuppressWarnings("deprecation")
+            HttpClientConfig apache = HttpClientConfig.httpClientConfig()
+                    .setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, CONNECT_TIMEOUT)
+                    .setParam(CoreConnectionPNames.SO_TIMEOUT, READ_TIMEOUT)
+                    .httpClientFactory(new PooledHttpClientFactory(
+                            Integer.getInteger("http.pool.maxTotal", 20),
+                            Integer.getInteger("http.pool.maxPerRoute", 10),
+                            Long.getLong("http.keepAliveSeconds", 30L) * 1000,
+                            Long.getLong("http.idleEvictSeconds", 30L),
+                            STATS))
+                    .reuseHttpClientInstance();
+            config = RestAssuredConfig.config().httpClient(apache);
+            if (Hedging.enabled()) {
+                jdk = new JdkHttpTransport(Duration.ofMillis(CONNECT_TIMEOUT), Duration.ofMillis(READ_TIMEOUT), STATS,
+                        Hedging.fromProperties());
+            } else if (TRANSPORT.equalsIgnoreCase("jdk")) {
+                jdk = new JdkHttpTransport(Duration.ofMillis(CONNECT_TIMEOUT), Duration.ofMillis(READ_TIMEOUT), STATS);
+            }
+        }
+        builder.setConfig(config);
+        if (jdk != null) {
+            builder.addFilter(jdk);
+        }
+        return builder;
+    }
+
+    public static TransportStats stats() {
+        return STATS;
+    }
+
+    public static synchronized String report() {
+        return STATS.report(jdk == null ? "apache pooled transport" : "jdk http/2 transport");
+    }
+}
@@ -0,0 +1,268 @@
+package com.cbt.utilities.http;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Sends requests through {@link java.net.http.HttpClient} instead of RestAssured's Apache client.
+ *
+ * It runs as the last filter of the chain and answers the request itself, so every filter and assertion before and
+ * after it works unchanged. The client prefers HTTP/2, which multiplexes all concurrent requests to one host over a
+ * single connection; hosts that only speak HTTP/1.1 get a pooled keep-alive connection instead.
+ *
+ * With {@link Hedging}, GET and HEAD requests are sent asynchronously and a second copy goes out when the first is
+ * slower than usual or fails; the first good answer is used and the other copy is cancelled.
+ */
+public class JdkHttpTransport implements OrderedFilter {
+
+    private static final Set<String> RESTRICTED = new HashSet<>(Arrays.asList(
+            "connection", "content-length", "expect", "host", "upgrade"));
+
+    private static final Set<String> IDEMPOTENT = new HashSet<>(Arrays.asList("GET", "HEAD"));
+
+    private static final Map<Integer, String> REASONS = new HashMap<>();
+
+    static {
+        REASONS.put(200, "OK");
+        REASONS.put(201, "Created");
+        REASONS.put(204, "No Content");
+        REASONS.put(301, "Moved Permanently");
+        REASONS.put(302, "Found");
+        REASONS.put(304, "Not Modified");
+        REASONS.put(400, "Bad Request");
+        REASONS.put(401, "Unauthorized");
+        REASONS.put(403, "Forbidden");
+        REASONS.put(404, "Not Found");
+        REASONS.put(409, "Conflict");
+        REASONS.put(415, "Unsupported Media Type");
+        REASONS.put(422, "Unprocessable Entity");
+        REASONS.put(429, "Too Many Requests");
+        REASONS.put(500, "Internal Server Error");
+        REASONS.put(501, "Not Implemented");
+        REASONS.put(502, "Bad Gateway");
+        REASONS.put(503, "Service Unavailable");
+        REASONS.put(504, "Gateway Timeout");
+    }
+
+    private final HttpClient client;
+    private final Duration readTimeout;
+    private final TransportStats stats;
+    private final Hedging hedging;
+
+    public JdkHttpTransport(Duration connectTimeout, Duration readTimeout, TransportStats stats) {
+        this(connectTimeout, readTimeout, stats, null);
+    }
+
+    public JdkHttpTransport(Duration connectTimeout, Duration readTimeout, TransportStats stats, Hedging hedging) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.readTimeout = readTimeout;
+        this.stats = stats;
+        this.hedging = hedging;
+    }
+
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(requestSpec.getURI()))
+                .timeout(readTimeout)
+                .method(requestSpec.getMethod(), body(requestSpec));
+        boolean hasAccept = false;
+        boolean hasAcceptEncoding = false;
+        for (Header header : requestSpec.getHeaders()) {
+            if (!RESTRICTED.contains(header.getName().toLowerCase())) {
+                request.header(header.getName(), header.getValue());
+                hasAccept |= header.getName().equalsIgnoreCase("Accept");
+                hasAcceptEncoding |= header.getName().equalsIgnoreCase("Accept-Encoding");
+            }
+        }
+        if (!hasAccept) {
+            request.header("Accept", "*/*");
+        }
+        if (!hasAcceptEncoding) {
+            request.header("Accept-Encoding", ContentCoding.acceptEncoding());
+        }
+        if (requestSpec.getBody() != null && requestSpec.getContentType() != null
+                && !requestSpec.getHeaders().hasHeaderWithName("Content-Type")) {
+            request.header("Content-Type", requestSpec.getContentType());
+        }
+
+        HttpResponse<byte[]> response;
+        try {
+            RequestTimings timings = RequestTimings.current();
+            RequestTimings.sent();
+            response = send(request.build(), RequestTimings.endpoint(requestSpec), info -> {
+                if (timings != null) {
+                    timings.firstByteNow();
+                }
+                return HttpResponse.BodySubscribers.ofByteArray();
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Request to " + requestSpec.getURI() + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling " + requestSpec.getURI(), e);
+        }
+        stats.request();
+        if (response.version() == HttpClient.Version.HTTP_2) {
+            stats.http2Response();
+        }
+        return toRestAssured(response, stats);
+    }
+
+    /**
+     * Sends the request, hedged when hedging is on and the method is idempotent.
+     */
+    HttpResponse<byte[]> send(HttpRequest request, String endpoint, HttpResponse.BodyHandler<byte[]> handler)
+            throws IOException, InterruptedException {
+        if (hedging == null || !IDEMPOTENT.contains(request.method())) {
+            return client.send(request, handler);
+        }
+        long started = System.nanoTime();
+        hedging.request();
+        CompletableFuture<HttpResponse<byte[]>> primary = client.sendAsync(request, handler);
+        long delay = hedging.delayNanos(endpoint);
+        try {
+            HttpResponse<byte[]> response = delay < 0 ? primary.get() : primary.get(delay, TimeUnit.NANOSECONDS);
+            if (good(response)) {
+                hedging.record(endpoint, System.nanoTime() - started);
+                return response;
+            }
+        } catch (TimeoutException | ExecutionException e) {
+            // slower than usual or failed: a second copy may still answer well
+        }
+        if (!hedging.tryHedge()) {
+            return await(primary);
+        }
+        CompletableFuture<HttpResponse<byte[]>> hedge = client.sendAsync(request, handler);
+        HttpResponse<byte[]> response = await(firstGood(primary, hedge));
+        stats.hedged(hedge.isDone() && !hedge.isCompletedExceptionally() && hedge.join() == response);
+        if (good(response)) {
+            hedging.record(endpoint, System.nanoTime() - started);
+        }
+        return response;
+    }
+
+    private static boolean good(HttpResponse<byte[]> response) {
+        return response.statusCode() < 500;
+    }
+
+    /**
+     * The first good answer of the two, else an answer of either, else the failure of the second. The slower copy
+     * is cancelled once the result is known.
+     */
+    private static CompletableFuture<HttpResponse<byte[]>> firstGood(CompletableFuture<HttpResponse<byte[]>> first,
+                                                                     CompletableFuture<HttpResponse<byte[]>> second) {
+        CompletableFuture<HttpResponse<byte[]>> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        BiConsumer<HttpResponse<byte[]>, Throwable> settle = (response, failure) -> {
+            if (response != null && good(response)) {
+                result.complete(response);
+            } else if (pending.decrementAndGet() == 0) {
+                HttpResponse<byte[]> answer = !second.isCompletedExceptionally() ? second.join()
+                        : !first.isCompletedExceptionally() ? first.join() : null;
+                if (answer != null) {
+                    result.complete(answer);
+                } else {
+                    result.completeExceptionally(failure);
+                }
+            }
+        };
+        first.whenComplete(settle);
+        second.whenComplete(settle);
+        result.whenComplete((response, failure) -> {
+            first.cancel(true);
+            second.cancel(true);
+        });
+        return result;
+    }
+
+    private static HttpResponse<byte[]> await(CompletableFuture<HttpResponse<byte[]>> future)
+            throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static HttpRequest.BodyPublisher body(FilterableRequestSpecification requestSpec) {
+        Object body = requestSpec.getBody();
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        if (body instanceof byte[]) {
+            return HttpRequest.BodyPublishers.ofByteArray((byte[]) body);
+        }
+        return HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes a compressed body the way the Apache client does, and drops the headers that described the encoded
+     * form so nothing downstream tries to decode it again.
+     */
+    private static Response toRestAssured(HttpResponse<byte[]> response, TransportStats stats) {
+        byte[] body = response.body();
+        String encoding = response.headers().firstValue("Content-Encoding").orElse(null);
+        boolean decode = encoding != null && body.length > 0 && ContentCoding.decodable(encoding);
+        if (decode) {
+            byte[] decoded = ContentCoding.decode(encoding, body);
+            stats.compressed(body.length, decoded.length);
+            body = decoded;
+        }
+        List<Header> headers = new ArrayList<>();
+        response.headers().map().forEach((name, values) -> {
+            if (!name.startsWith(":") && !(decode && (name.equalsIgnoreCase("Content-Encoding")
+                    || name.equalsIgnoreCase("Content-Length")))) {
+                values.forEach(value -> headers.add(new Header(name, value)));
+            }
+        });
+        String version = response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+        int status = response.statusCode();
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(status)
+                .setStatusLine(version + " " + status + " " + REASONS.getOrDefault(status, ""))
+                .setHeaders(new Headers(headers))
+                .setBody(body);
+        response.headers().firstValue("Content-Type").ifPresent(builder::setContentType);
+        return builder.build();
+    }
+}
@@ -0,0 +1,150 @@
+package com.cbt.utilities.http;
+
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Walks list endpoints that paginate with an RFC 5988 {@code Link} header, as GitHub does.
+ *
+ * The first page is fetched as the caller built it. If its {@code rel="last"} link says there are N pages, pages 2..N
+ * are requested concurrently, at most {@code maxConcurrency} at a time, by adding {@code page=k} to the same request.
+ * The returned stream yields pages in page order as soon as each one has arrived, so checks on early pages run while
+ * later pages are still in flight. Without a {@code last} link the pages are followed one {@code next} at a time.
+ * A page that does not answer 2xx fails the stream with an {@link AssertionError} when it is reached, so an error
+ * body is never counted or checked as if it were a page of the list.
+ * <pre>
+ * LinkPaginator.pages(() -&gt; given(spec).pathParam("org", "cucumber"), "/orgs/{org}/repos")
+ *         .forEach(page -&gt; UniqueValues.scan(page, ids));
+ * </pre>
+ */
+public class LinkPaginator {
+
+    private static final Pattern LINK = Pattern.compile("<([^>]*)>\\s*;\\s*rel=\"([^\"]*)\"");
+    private static final Pattern PAGE = Pattern.compile("[?&]page=(\\d+)");
+
+    private static final LinkPaginator DEFAULT = new LinkPaginator(Integer.getInteger("pagination.concurrency", 4));
+
+    private final int maxConcurrency;
+
+    public LinkPaginator(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1, was " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public static Stream<Response> pages(Supplier<RequestSpecification> request, String path) {
+        return DEFAULT.fetch(request, path);
+    }
+
+    /**
+     * Relation name to URL for every entry of a {@code Link} header; empty when the header is absent.
+     */
+    public static Map<String, String> links(String header) {
+        Map<String, String> links = new LinkedHashMap<>();
+        if (header != null) {
+            Matcher matcher = LINK.matcher(header);
+            while (matcher.find()) {
+                links.put(matcher.group(2), matcher.group(1));
+            }
+        }
+        return links;
+    }
+
+    /**
+     * Value of the {@code page} query parameter of a link, or -1 if it has none.
+     */
+    public static int pageOf(String url) {
+        Matcher matcher = url == null ? null : PAGE.matcher(url);
+        return matcher != null && matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    public Stream<Response> fetch(Supplier<RequestSpecification> request, String path) {
+        Response first = checked(request.get().get(path), path, 1);
+        Map<String, String> links = links(first.header("Link"));
+        if (!links.containsKey("next")) {
+            return Stream.of(first);
+        }
+        int last = pageOf(links.get("last"));
+        if (last < 2) {
+            return Stream.concat(Stream.of(first), followNext(request, path, pageOf(links.get("next"))));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxConcurrency, last - 1), task -> {
+            Thread thread = new Thread(task, "paginator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<CompletableFuture<Response>> rest = new ArrayList<>(last - 1);
+        try {
+            for (int page = 2; page <= last; page++) {
+                int number = page;
+                rest.add(CompletableFuture.supplyAsync(() -> request.get().queryParam("page", number).get(path),
+                        executor));
+            }
+        } finally {
+            // The pool takes no more work: it finishes the pages already submitted and its threads then end.
+            executor.shutdown();
+        }
+        return Stream.concat(Stream.of(first), IntStream.range(0, rest.size())
+                .mapToObj(i -> checked(join(rest.get(i), path, i + 2), path, i + 2)));
+    }
+
+    private static Response checked(Response page, String path, int number) {
+        if (page.statusCode() / 100 != 2) {
+            throw new AssertionError("GET " + path + " page " + number + " answered " + page.statusLine());
+        }
+        return page;
+    }
+
+    /**
+     * The page, or the failure of its request as it was thrown rather than wrapped in a {@link CompletionException}.
+     */
+    private static Response join(CompletableFuture<Response> page, String path, int number) {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            Throwable failure = e.getCause();
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            throw new IllegalStateException("GET " + path + " page " + number + " failed", failure);
+        }
+    }
+
+    private static Stream<Response> followNext(Supplier<RequestSpecification> request, String path, int firstNext) {
+        Iterator<Response> pages = new Iterator<Response>() {
+            private int next = firstNext;
+
+            @Override
+            public boolean hasNext() {
+                return next > 0;
+            }
+
+            @Override
+            public Response next() {
+                if (next < 1) {
+                    throw new NoSuchElementException();
+                }
+                Response page = checked(request.get().queryParam("page", next).get(path), path, next);
+                next = pageOf(links(page.header("Link")).get("next"));
+                return page;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED), false);
+    }
+}
@@ -0,0 +1,121 @@
+package com.cbt.utilities.http;
+
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LinkPaginatorTest {
+
+    private HttpServer server;
+    private RequestSpecification spec;
+
+    /**
+     * Four pages of one item each; page 3 fails. {@code /repos} links to the last page, {@code /chain} only to the
+     * next one.
+     */
+    @BeforeEach
+    public void serveRepos() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        for (String list : new String[]{"/repos", "/chain"}) {
+            server.createContext(list, exchange -> {
+                String query = exchange.getRequestURI().getQuery();
+                int page = query == null ? 1 : LinkPaginator.pageOf("?" + query);
+                String base = "http://localhost:" + server.getAddress().getPort() + list + "?page=";
+                String link = "<" + base + (page + 1) + ">; rel=\"next\"";
+                if (list.equals("/repos")) {
+                    link += ", <" + base + "4>; rel=\"last\"";
+                }
+                byte[] body = (page == 3 ? "{\"message\":\"Server Error\"}" : "[{\"page\":" + page + "}]")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                if (page < 4) {
+                    exchange.getResponseHeaders().add("Link", link);
+                }
+                exchange.sendResponseHeaders(page == 3 ? 503 : 200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+        }
+        server.start();
+        spec = new RequestSpecBuilder().setBaseUri("http://localhost:" + server.getAddress().getPort()).build();
+    }
+
+    @AfterEach
+    public void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    public void concurrentPageThatFailsFailsTheStream() {
+        assertFailsOnPageThree("/repos");
+    }
+
+    @Test
+    public void followedPageThatFailsFailsTheStream() {
+        assertFailsOnPageThree("/chain");
+    }
+
+    private void assertFailsOnPageThree(String path) {
+        List<Integer> seen = new ArrayList<>();
+        AssertionError error = assertThrows(AssertionError.class, () -> new LinkPaginator(4)
+                .fetch(() -> given(spec), path)
+                .map(Response::statusCode)
+                .forEach(seen::add));
+
+        assertThat(seen, contains(200, 200));
+        assertThat(error.getMessage(), allOf(containsString("page 3"), containsString("503")));
+    }
+
+    @Test
+    public void errorThrownByAConcurrentPageRequestReachesTheTestUnwrapped() {
+        List<Integer> seen = new ArrayList<>();
+        AssertionError error = assertThrows(AssertionError.class, () -> new LinkPaginator(4)
+                .fetch(() -> given(spec).filter((request, response, ctx) -> {
+                    if ("2".equals(String.valueOf(request.getQueryParams().get("page")))) {
+                        throw new AssertionError("page 2 refused");
+                    }
+                    return ctx.next(request, response);
+                }), "/repos")
+                .map(Response::statusCode)
+                .forEach(seen::add));
+
+        assertThat(seen, contains(200));
+        assertThat(error.getMessage(), is("page 2 refused"));
+    }
+
+    @Test
+    public void parsesEveryRelationOfAGitHubLinkHeader() {
+        Map<String, String> links = LinkPaginator.links(
+                "<https://api.github.com/organizations/320565/repos?page=3>; rel=\"prev\", " +
+                "<https://api.github.com/organizations/320565/repos?page=5>; rel=\"next\", " +
+                "<https://api.github.com/organizations/320565/repos?page=12>; rel=\"last\", " +
+                "<https://api.github.com/organizations/320565/repos?page=1>; rel=\"first\"");
+
+        assertThat(links.keySet(), contains("prev", "next", "last", "first"));
+        assertThat(LinkPaginator.pageOf(links.get("last")), is(12));
+    }
+
+    @Test
+    public void pageIsReadFromAnyQueryPosition() {
+        assertThat(LinkPaginator.pageOf("https://x/repos?per_page=30&page=4&sort=full_name"), is(4));
+        assertThat(LinkPaginator.pageOf("https://x/repos?per_page=30"), is(-1));
+        assertThat(LinkPaginator.links(null).isEmpty(), is(true));
+    }
+}
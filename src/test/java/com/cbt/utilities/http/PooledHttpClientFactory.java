@@ -0,0 +1,101 @@
+package com.cbt.utilities.http;
+
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.client.HttpClient;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+
+import java.net.InetAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the one Apache HttpClient every request goes through, on top of a pooled, keep-alive connection manager.
+ *
+ * RestAssured's own default opens a new client, and with it a new connection and TLS handshake, for every request.
+ * Connections idle for longer than {@code idleSeconds} are closed by a background evictor so a pooled socket the
+ * server already dropped is not handed out. RestAssured may ask the factory for a client more than once (its
+ * "reuse" is per configuration copy), so the factory hands out the same client every time.
+ */
+@SuppressWarnings("deprecation")
+public class PooledHttpClientFactory implements HttpClientConfig.HttpClientFactory {
+
+    private final int maxTotal;
+    private final int maxPerRoute;
+    private final long keepAliveMillis;
+    private final long idleSeconds;
+    private final TransportStats stats;
+    private DefaultHttpClient client;
+
+    public PooledHttpClientFactory(int maxTotal, int maxPerRoute, long keepAliveMillis, long idleSeconds,
+                                   TransportStats stats) {
+        this.maxTotal = maxTotal;
+        this.maxPerRoute = maxPerRoute;
+        this.keepAliveMillis = keepAliveMillis;
+        this.idleSeconds = idleSeconds;
+        this.stats = stats;
+    }
+
+    @Override
+    public synchronized HttpClient createHttpClient() {
+        if (client == null) {
+            client = newClient();
+        }
+        return client;
+    }
+
+    private DefaultHttpClient newClient() {
+        SchemeRegistry schemes = new SchemeRegistry();
+        schemes.register(new Scheme("http", 80,
+                CountingSocketFactory.wrap(PlainSocketFactory.getSocketFactory(), stats)));
+        schemes.register(new Scheme("https", 443,
+                CountingSocketFactory.wrap(SSLSocketFactory.getSocketFactory(), stats)));
+
+        PoolingClientConnectionManager pool = new PoolingClientConnectionManager(schemes, host -> {
+            long start = System.nanoTime();
+            InetAddress[] addresses = InetAddress.getAllByName(host);
+            RequestTimings.dns(System.nanoTime() - start);
+            return addresses;
+        });
+        pool.setMaxTotal(maxTotal);
+        pool.setDefaultMaxPerRoute(maxPerRoute);
+        startEvictor(pool);
+
+        DefaultHttpClient client = new DefaultHttpClient(pool);
+        DefaultConnectionKeepAliveStrategy serverDecides = new DefaultConnectionKeepAliveStrategy();
+        client.setKeepAliveStrategy((response, context) -> {
+            long fromServer = serverDecides.getKeepAliveDuration(response, context);
+            return fromServer > 0 ? Math.min(fromServer, keepAliveMillis) : keepAliveMillis;
+        });
+        client.addRequestInterceptor((request, context) -> {
+            stats.request();
+            RequestTimings.sent();
+        });
+        client.addResponseInterceptor((response, context) -> {
+            RequestTimings.firstByte();
+            if (response.getEntity() != null && response.getFirstHeader("Content-Encoding") != null) {
+                stats.compressed(Math.max(0, response.getEntity().getContentLength()), -1);
+            }
+        });
+        return client;
+    }
+
+    private void startEvictor(PoolingClientConnectionManager pool) {
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "http-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, idleSeconds / 2);
+        evictor.scheduleAtFixedRate(() -> {
+            pool.closeExpiredConnections();
+            pool.closeIdleConnections(idleSeconds, TimeUnit.SECONDS);
+        }, period, period, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,76 @@
+package com.cbt.utilities.http;
+
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Paces requests to one API through a shared {@link RateLimiter}, fed from the rate limit headers of every
+ * response, so parallel and repeated runs stay under the quota instead of failing with 403s.
+ *
+ * It runs just before the transport: requests answered from a cache never wait for or use up a token.
+ * {@code -Dratelimit.reserve} (1) requests of each window are left unused, {@code -Dratelimit.burst} (10) is how
+ * many may go out back to back, and {@code -Dratelimit.enabled=false} turns it off.
+ */
+public class RateLimitFilter implements OrderedFilter {
+
+    private static final Map<String, RateLimitFilter> BY_API = new ConcurrentHashMap<>();
+
+    private final RateLimiter limiter;
+
+    public RateLimitFilter(RateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    public static RateLimitFilter forApi(String api) {
+        return BY_API.computeIfAbsent(api, name -> new RateLimitFilter(new RateLimiter(name,
+                Integer.getInteger("ratelimit.reserve", 1), Integer.getInteger("ratelimit.burst", 10))));
+    }
+
+    public static boolean enabled() {
+        return Boolean.parseBoolean(System.getProperty("ratelimit.enabled", "true"));
+    }
+
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE - 2;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        try {
+            limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the rate limit", e);
+        }
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (Throwable e) {
+            // Errors and undeclared checked exceptions from Groovy code down the chain must give the slot back too.
+            limiter.release();
+            throw e;
+        }
+        limiter.update(number(response.header("X-RateLimit-Remaining")), number(response.header("X-RateLimit-Reset")),
+                number(response.header("Retry-After")));
+        return response;
+    }
+
+    private static Long number(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
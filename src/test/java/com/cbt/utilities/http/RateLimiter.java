@@ -0,0 +1,110 @@
+package com.cbt.utilities.http;
+
+/**
+ * Token bucket shared by every thread that calls one API, refilled at the pace the API's own quota allows.
+ *
+ * Each response reports how many requests are left ({@code X-RateLimit-Remaining}) and when the window resets
+ * ({@code X-RateLimit-Reset}, epoch seconds). From those the bucket refills at
+ * {@code (remaining - reserve - in flight) / time to reset}, holding at most {@code burst} tokens, so the quota is
+ * spread over the window instead of spent in the first seconds. When nothing is left, callers wait for the reset;
+ * after a {@code Retry-After} everyone waits that long. Until the first response says otherwise, requests are not
+ * held back.
+ */
+public class RateLimiter {
+
+    private final String name;
+    private final int reserve;
+    private final int burst;
+
+    private long remaining = -1;
+    private long resetAtMillis;
+    private long blockedUntilMillis;
+    private int inFlight;
+    private double tokens;
+    private double tokensPerMilli;
+    private long refilledAt;
+
+    public RateLimiter(String name, int reserve, int burst) {
+        this.name = name;
+        this.reserve = reserve;
+        this.burst = Math.max(1, burst);
+    }
+
+    /**
+     * Blocks until a request may be sent. Every call must be followed by {@link #update} or {@link #release}.
+     */
+    public synchronized void acquire() throws InterruptedException {
+        boolean announced = false;
+        while (true) {
+            long now = System.currentTimeMillis();
+            long wait = waitMillis(now);
+            if (wait <= 0) {
+                inFlight++;
+                return;
+            }
+            if (!announced && wait > 1000) {
+                System.out.println(name + " rate limit: holding requests for " + (wait + 999) / 1000 + " s");
+                announced = true;
+            }
+            wait(wait);
+        }
+    }
+
+    /**
+     * Feeds the rate limit headers of a response back in; any of them may be null.
+     */
+    public synchronized void update(Long remaining, Long resetEpochSeconds, Long retryAfterSeconds) {
+        long now = System.currentTimeMillis();
+        inFlight = Math.max(0, inFlight - 1);
+        if (retryAfterSeconds != null) {
+            blockedUntilMillis = Math.max(blockedUntilMillis, now + retryAfterSeconds * 1000);
+        }
+        if (remaining != null && resetEpochSeconds != null && resetEpochSeconds * 1000 > now) {
+            refill(now);
+            boolean newWindow = this.remaining < 0 || resetEpochSeconds * 1000 != resetAtMillis;
+            this.remaining = remaining;
+            this.resetAtMillis = resetEpochSeconds * 1000;
+            long budget = Math.max(0, remaining - reserve);
+            tokensPerMilli = (double) budget / Math.max(1, resetAtMillis - now);
+            tokens = newWindow ? Math.min(burst, budget) : Math.min(tokens, Math.min(burst, budget));
+        }
+        notifyAll();
+    }
+
+    /**
+     * For a request that got no response at all.
+     */
+    public synchronized void release() {
+        inFlight = Math.max(0, inFlight - 1);
+        notifyAll();
+    }
+
+    private long waitMillis(long now) {
+        if (now < blockedUntilMillis) {
+            return blockedUntilMillis - now;
+        }
+        if (remaining < 0) {
+            return 0;
+        }
+        if (now >= resetAtMillis) {
+            remaining = -1;
+            return 0;
+        }
+        if (remaining - inFlight - reserve <= 0) {
+            return resetAtMillis - now;
+        }
+        refill(now);
+        if (tokens >= 1) {
+            tokens--;
+            return 0;
+        }
+        return tokensPerMilli <= 0 ? resetAtMillis - now : (long) Math.ceil((1 - tokens) / tokensPerMilli);
+    }
+
+    private void refill(long now) {
+        if (refilledAt > 0) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerMilli);
+        }
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,65 @@
+package com.cbt.utilities.http;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Measures how long {@link RateLimiter#acquire()} holds the caller on the wall clock, so it is left out of the default
+ * run, where other tests compete for the CPU, and runs alone with {@code mvn test -Ptiming}.
+ */
+@Tag("timing")
+public class RateLimiterTest {
+
+    @Test
+    public void unknownQuotaDoesNotHoldRequestsBack() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter("test", 1, 10);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire();
+        }
+
+        assertThat((System.nanoTime() - start) / 1_000_000, lessThan(100L));
+    }
+
+    @Test
+    public void exhaustedQuotaWaitsForTheReset() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter("test", 1, 10);
+        long resetSeconds = System.currentTimeMillis() / 1000 + 2;
+        limiter.acquire();
+        limiter.update(1L, resetSeconds, null);
+
+        limiter.acquire();
+
+        assertThat(System.currentTimeMillis(), greaterThanOrEqualTo(resetSeconds * 1000));
+    }
+
+    @Test
+    public void retryAfterHoldsEveryone() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter("test", 0, 10);
+        limiter.acquire();
+        limiter.update(null, null, 1L);
+
+        long start = System.nanoTime();
+        limiter.acquire();
+
+        assertThat((System.nanoTime() - start) / 1_000_000, greaterThanOrEqualTo(900L));
+    }
+
+    @Test
+    public void burstIsSpreadOverTheWindow() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter("test", 0, 2);
+        limiter.acquire();
+        limiter.update(1000L, System.currentTimeMillis() / 1000 + 10, null);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 12; i++) {
+            limiter.acquire();
+        }
+
+        assertThat((System.nanoTime() - start) / 1_000_000, allOf(greaterThanOrEqualTo(80L), lessThan(2000L)));
+    }
+}
@@ -0,0 +1,116 @@
+package com.cbt.utilities.http;
+
+import io.restassured.specification.FilterableRequestSpecification;
+
+/**
+ * Wire-level timings of the request the current thread is sending, filled in by the transport as the request goes
+ * through name resolution, connecting, the TLS handshake and waiting for the response.
+ *
+ * The transports run on the calling thread, so whoever wants timings calls {@link #start()} before sending and
+ * {@link #finish()} afterwards. Phases that did not happen, such as connecting on a reused connection, stay zero.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startedAt = System.nanoTime();
+    private long dnsNanos;
+    private long connectNanos;
+    private long tlsNanos;
+    private long sentAt;
+    private long firstByteAt;
+
+    private RequestTimings() {
+    }
+
+    public static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static void finish() {
+        CURRENT.remove();
+    }
+
+    static void dns(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.dnsNanos += nanos;
+        }
+    }
+
+    static void connected(long connectNanos, long tlsNanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.connectNanos += connectNanos;
+            timings.tlsNanos += tlsNanos;
+        }
+    }
+
+    static void sent() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.sentAt = System.nanoTime();
+        }
+    }
+
+    static void firstByte() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.firstByteNow();
+        }
+    }
+
+    /**
+     * The name requests are timed and reported under: method and path template, without the query, such as
+     * {@code GET /orgs/{org}/repos}.
+     */
+    public static String endpoint(FilterableRequestSpecification requestSpec) {
+        String path = requestSpec.getUserDefinedPath();
+        int query = path.indexOf('?');
+        return requestSpec.getMethod() + " " + (query < 0 ? path : path.substring(0, query));
+    }
+
+    /**
+     * Timings of the current thread's request, or null; for transports that see the response on another thread.
+     */
+    static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    void firstByteNow() {
+        firstByteAt = System.nanoTime();
+    }
+
+    public long startedAt() {
+        return startedAt;
+    }
+
+    public long dnsNanos() {
+        return dnsNanos;
+    }
+
+    public long connectNanos() {
+        return connectNanos;
+    }
+
+    public long tlsNanos() {
+        return tlsNanos;
+    }
+
+    /**
+     * Time from the request being written until the response headers arrived, or zero if the transport did not
+     * report it.
+     */
+    public long timeToFirstByteNanos() {
+        return sentAt == 0 || firstByteAt == 0 ? 0 : firstByteAt - sentAt;
+    }
+
+    /**
+     * When the response headers arrived, or zero if the transport did not report it.
+     */
+    public long firstByteAt() {
+        return firstByteAt;
+    }
+}
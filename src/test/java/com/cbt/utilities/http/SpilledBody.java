@@ -0,0 +1,257 @@
+package com.cbt.utilities.http;
+
+import com.cbt.utilities.json.Json;
+import com.cbt.utilities.json.JsonElements;
+import io.restassured.http.Header;
+import io.restassured.specification.QueryableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.SpecificationQuerier;
+
+import java.io.*;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * A GET response whose body is too large for the heap. The body streams off the socket; up to
+ * {@code -Dhttp.spillThresholdBytes} (8 MB) it is kept in memory, anything larger goes to a temporary file under
+ * {@code -Dhttp.spillDir} (the system temp directory) that is read back through memory maps. {@link #elements()}
+ * then hands out the elements of a list body one at a time, so a check over millions of them runs in the heap one
+ * element takes. Close it to delete the file.
+ * <pre>
+ * try (SpilledBody characters = SpilledBody.get(given(spec), "/characters")) {
+ *     characters.elements().forEach(character -&gt; ...);
+ * }
+ * </pre>
+ * The request is built from the specification's base URI, query parameters and headers and sent past RestAssured's
+ * filters, since every one of them would buffer the body: it is not cached, logged or timed.
+ */
+public final class SpilledBody implements Closeable {
+
+    private static final long THRESHOLD = Long.getLong("http.spillThresholdBytes", 8L * 1024 * 1024);
+    private static final Path DIR = Paths.get(System.getProperty("http.spillDir", System.getProperty("java.io.tmpdir")));
+    private static final Set<String> RESTRICTED = new HashSet<>(Arrays.asList(
+            "connection", "content-length", "expect", "host", "upgrade"));
+    private static final int MAP_WINDOW = 64 * 1024 * 1024;
+
+    private static HttpClient client;
+
+    private final int status;
+    private final HttpResponse<?> response;
+    private final byte[] bytes;
+    private final Path file;
+    private final long size;
+
+    private SpilledBody(int status, HttpResponse<?> response, byte[] bytes, Path file, long size) {
+        this.status = status;
+        this.response = response;
+        this.bytes = bytes;
+        this.file = file;
+        this.size = size;
+    }
+
+    public static SpilledBody get(RequestSpecification spec, String path) {
+        return get(spec, path, THRESHOLD);
+    }
+
+    static SpilledBody get(RequestSpecification spec, String path, long threshold) {
+        QueryableRequestSpecification query = SpecificationQuerier.query(spec);
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(query, path)).GET();
+        for (Header header : query.getHeaders()) {
+            if (!RESTRICTED.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                request.header(header.getName(), header.getValue());
+            }
+        }
+        try {
+            HttpResponse<InputStream> response = client().send(request.build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                return read(response, body, threshold);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("GET " + path + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling GET " + path, e);
+        }
+    }
+
+    public int statusCode() {
+        return status;
+    }
+
+    public String contentType() {
+        return response.headers().firstValue("Content-Type").orElse("");
+    }
+
+    /**
+     * Body length in bytes.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Whether the body went to a file rather than the heap.
+     */
+    public boolean spilled() {
+        return file != null;
+    }
+
+    /**
+     * A fresh stream over the whole body; the file is mapped a window at a time as the stream moves on.
+     */
+    public InputStream open() {
+        return file == null ? new ByteArrayInputStream(bytes) : new MappedInputStream(file, size);
+    }
+
+    /**
+     * The elements of a list body, parsed one at a time into maps, lists and scalars as they are consumed. Close
+     * the stream, or run it to the end, to release the file.
+     */
+    public Stream<Object> elements() {
+        return JsonElements.of(open());
+    }
+
+    /**
+     * The elements of a list body bound to {@code type} one at a time, through {@link Json}'s cached reader.
+     */
+    public <T> Stream<T> elements(Class<T> type) {
+        return Json.elements(open(), type);
+    }
+
+    @Override
+    public void close() {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    private static SpilledBody read(HttpResponse<?> response, InputStream body, long threshold) throws IOException {
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        byte[] buffer = new byte[64 * 1024];
+        long size = 0;
+        int read;
+        while ((read = body.read(buffer)) > 0) {
+            head.write(buffer, 0, read);
+            size += read;
+            if (size > threshold) {
+                break;
+            }
+        }
+        if (read <= 0) {
+            return new SpilledBody(response.statusCode(), response, head.toByteArray(), null, size);
+        }
+        Files.createDirectories(DIR);
+        Path file = Files.createTempFile(DIR, "body-", ".json");
+        file.toFile().deleteOnExit();
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), buffer.length)) {
+            head.writeTo(out);
+            head = null;
+            while ((read = body.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+                size += read;
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new SpilledBody(response.statusCode(), response, null, file, size);
+    }
+
+    private static URI uri(QueryableRequestSpecification spec, String path) {
+        StringBuilder uri = new StringBuilder(spec.getBaseUri()).append(spec.getBasePath()).append(path);
+        Map<String, String> params = new LinkedHashMap<>(spec.getRequestParams());
+        params.putAll(spec.getQueryParams());
+        char separator = path.indexOf('?') < 0 ? '?' : '&';
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            uri.append(separator).append(URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(String.valueOf(param.getValue()), StandardCharsets.UTF_8));
+            separator = '&';
+        }
+        return URI.create(uri.toString());
+    }
+
+    private static synchronized HttpClient client() {
+        if (client == null) {
+            client = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofMillis(Integer.getInteger("http.connectTimeoutMillis", 5000)))
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build();
+        }
+        return client;
+    }
+
+    /**
+     * Reads a file through read-only maps of at most {@link #MAP_WINDOW} bytes, each dropped once read past.
+     */
+    private static final class MappedInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer window;
+        private long windowStart;
+
+        MappedInputStream(Path file, long size) {
+            try {
+                this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open spilled body " + file, e);
+            }
+            this.size = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return nextWindow() ? window.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] into, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!nextWindow()) {
+                return -1;
+            }
+            int count = Math.min(length, window.remaining());
+            window.get(into, offset, count);
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            window = null;
+            channel.close();
+        }
+
+        private boolean nextWindow() throws IOException {
+            if (window != null && window.hasRemaining()) {
+                return true;
+            }
+            long start = window == null ? 0 : windowStart + window.capacity();
+            if (start >= size) {
+                return false;
+            }
+            windowStart = start;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(MAP_WINDOW, size - start));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.cbt.utilities.http;
+
+import com.cbt.utilities.json.JsonSchema;
+import com.cbt.utilities.json.SyntheticArray;
+import com.cbt.utilities.json.UniqueValues;
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SpilledBodyTest {
+
+    /**
+     * {@code -Dspill.records=5000000} tries a body of about a gigabyte.
+     */
+    private static final long RECORDS = Long.getLong("spill.records", 100_000L);
+
+    private static final SyntheticArray CHARACTERS = SyntheticArray.of(("["
+            + "{\"_id\":\"5a0fa4daae5bc100213c232e\",\"name\":\"Hannah Abbott\",\"role\":\"student\","
+            + "\"house\":\"Hufflepuff\",\"school\":\"Hogwarts School of Witchcraft and Wizardry\",\"__v\":0,"
+            + "\"ministryOfMagic\":false,\"orderOfThePhoenix\":false,\"dumbledoresArmy\":true,\"deathEater\":false,"
+            + "\"bloodStatus\":\"half-blood\",\"species\":\"human\"},"
+            + "{\"_id\":\"5a0fa54aae5bc100213c232f\",\"name\":\"Bathsheda Babbling\",\"role\":\"Professor, Ancient Runes\","
+            + "\"school\":\"Hogwarts School of Witchcraft and Wizardry\",\"__v\":0,\"ministryOfMagic\":false,"
+            + "\"orderOfThePhoenix\":false,\"dumbledoresArmy\":false,\"deathEater\":false,\"bloodStatus\":\"unknown\","
+            + "\"species\":\"human\"}"
+            + "]").getBytes(StandardCharsets.UTF_8), "_id", "name");
+
+    private HttpServer server;
+    private RequestSpecification spec;
+
+    @BeforeEach
+    public void serveCharacters() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/v1/characters", exchange -> {
+            long count = exchange.getRequestURI().getQuery().contains("small") ? 10 : RECORDS;
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                CHARACTERS.write(out, count);
+            }
+        });
+        server.start();
+        spec = new RequestSpecBuilder()
+                .setBaseUri("http://localhost:" + server.getAddress().getPort() + "/v1")
+                .setAccept("application/json")
+                .build();
+    }
+
+    @AfterEach
+    public void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    public void largeBodiesGoToDiskAndAreWalkedElementByElement() throws Exception {
+        try (SpilledBody characters = SpilledBody.get(given(spec).queryParam("key", "large"), "/characters",
+                1024 * 1024)) {
+            assertThat(characters.statusCode(), is(200));
+            assertThat(characters.contentType(), startsWith("application/json"));
+            assertThat(characters.spilled(), is(true));
+            assertThat(characters.size(), greaterThan(1024L * 1024));
+
+            try (Stream<Object> elements = characters.elements()) {
+                assertThat(elements.count(), is(RECORDS));
+            }
+            UniqueValues ids = UniqueValues.exact("_id");
+            try (InputStream in = characters.open()) {
+                UniqueValues.scan(in, ids);
+            }
+            assertThat(ids.count(), is((int) RECORDS));
+            assertThat(ids.duplicate().isPresent(), is(false));
+            assertThat(JsonSchema.load("character").arrayOf().validate(characters.open()), is(empty()));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void smallBodiesStayInMemory() {
+        try (SpilledBody characters = SpilledBody.get(given(spec).queryParam("key", "small"), "/characters")) {
+            assertThat(characters.spilled(), is(false));
+            Object[] elements = characters.elements().toArray();
+            assertThat(elements.length, is(10));
+            assertThat(((Map<String, Object>) elements[2]).get("name"), is("Hannah Abbott-1"));
+        }
+    }
+}
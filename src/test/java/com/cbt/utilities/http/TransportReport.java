@@ -0,0 +1,18 @@
+package com.cbt.utilities.http;
+
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * Prints the connection reuse summary of {@link HttpTransport} once all tests have run. Registered through
+ * {@code META-INF/services}, so no test has to ask for it.
+ */
+public class TransportReport implements TestExecutionListener {
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (HttpTransport.stats().requests() > 0) {
+            System.out.println(HttpTransport.report());
+        }
+    }
+}
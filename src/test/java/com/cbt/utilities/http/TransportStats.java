@@ -0,0 +1,106 @@
+package com.cbt.utilities.http;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts requests against the connections that had to be opened for them, so a run can report how many TCP and TLS
+ * handshakes the connection pool saved.
+ */
+public class TransportStats {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder connections = new LongAdder();
+    private final LongAdder tlsHandshakes = new LongAdder();
+    private final LongAdder http2Responses = new LongAdder();
+    private final AtomicLong connectNanos = new AtomicLong();
+    private final LongAdder compressedResponses = new LongAdder();
+    private final LongAdder wireBytes = new LongAdder();
+    private final LongAdder decodedBytes = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+
+    void request() {
+        requests.increment();
+    }
+
+    void connected(boolean secure, long nanos) {
+        connections.increment();
+        if (secure) {
+            tlsHandshakes.increment();
+        }
+        connectNanos.addAndGet(nanos);
+    }
+
+    void http2Response() {
+        http2Responses.increment();
+    }
+
+    /**
+     * A body that came with a {@code Content-Encoding}; {@code decoded} is -1 when only the wire size is known.
+     */
+    void compressed(long wire, long decoded) {
+        compressedResponses.increment();
+        wireBytes.add(wire);
+        decodedBytes.add(decoded < 0 ? wire : decoded);
+    }
+
+    /**
+     * A second copy of a request was sent; {@code won} when its answer was the one used.
+     */
+    void hedged(boolean won) {
+        hedges.increment();
+        if (won) {
+            hedgesWon.increment();
+        }
+    }
+
+    public long hedges() {
+        return hedges.sum();
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long connections() {
+        return connections.sum();
+    }
+
+    public long tlsHandshakes() {
+        return tlsHandshakes.sum();
+    }
+
+    public long compressedResponses() {
+        return compressedResponses.sum();
+    }
+
+    /**
+     * One line summary: requests, connections opened and the estimated connect and handshake time saved by reuse,
+     * then how many bodies arrived compressed and how many requests were hedged.
+     */
+    public String report(String transport) {
+        long requests = requests();
+        long connections = connections();
+        String line;
+        if (connections == 0) {
+            line = transport + ": " + requests + " requests, " + http2Responses.sum() + " over HTTP/2";
+        } else {
+            double averageMillis = connectNanos.get() / 1e6 / connections;
+            long reused = Math.max(0, requests - connections);
+            line = String.format("%s: %d requests over %d connections (%d TLS handshakes), %d connection setups"
+                            + " avoided, avg connect %.1f ms, ~%.0f ms saved",
+                    transport, requests, connections, tlsHandshakes(), reused, averageMillis, reused * averageMillis);
+        }
+        long compressed = compressedResponses();
+        if (compressed > 0) {
+            long wire = wireBytes.sum();
+            long decoded = decodedBytes.sum();
+            line += String.format(", %d compressed bodies (%d KB on the wire%s)", compressed, wire / 1024,
+                    decoded > wire ? String.format(", %d KB decoded", decoded / 1024) : "");
+        }
+        long hedged = hedges();
+        return hedged == 0 ? line : line + String.format(", %d hedged (%d answered first)", hedged,
+                hedgesWon.sum());
+    }
+}
@@ -0,0 +1,46 @@
+package com.cbt.utilities.json;
+
+/**
+ * Fixed-size Bloom filter over 64-bit hashes, sized from the expected number of values and the false positive rate.
+ */
+final class BloomFilter {
+
+    private final long[] bits;
+    private final long size;
+    private final int hashes;
+
+    BloomFilter(long expected, double falsePositiveRate) {
+        if (expected < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Need expected >= 1 and 0 < rate < 1, got " + expected + " and "
+                    + falsePositiveRate);
+        }
+        long bitCount = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        bits = new long[(int) Math.max(1, (bitCount + 63) / 64)];
+        size = bits.length * 64L;
+        hashes = Math.max(1, (int) Math.round((double) size / expected * Math.log(2)));
+    }
+
+    /**
+     * Sets the bits of the hash and tells whether all of them were already set, that is whether the value was
+     * probably added before.
+     */
+    boolean put(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        boolean present = true;
+        for (int i = 0; i < hashes; i++) {
+            long bit = ((h1 + (long) i * h2) & Long.MAX_VALUE) % size;
+            long word = bits[(int) (bit >>> 6)];
+            long mask = 1L << bit;
+            if ((word & mask) == 0) {
+                present = false;
+                bits[(int) (bit >>> 6)] = word | mask;
+            }
+        }
+        return present;
+    }
+
+    long bytes() {
+        return bits.length * 8L;
+    }
+}
@@ -0,0 +1,84 @@
+package com.cbt.utilities.json;
+
+import java.util.Arrays;
+
+/**
+ * Set of byte sequences copied back to back into one growing arena, with an open-addressing table of entry numbers.
+ *
+ * Each entry keeps its offset, length, hash and the row it was first seen at in parallel {@code int} arrays, so
+ * adding a value allocates nothing once the arrays have grown to fit.
+ */
+final class ByteSliceSet {
+
+    private byte[] arena;
+    private int used;
+    private int[] table;
+    private int mask;
+    private int[] offsets;
+    private int[] lengths;
+    private int[] hashes;
+    private int[] rows;
+    private int size;
+
+    ByteSliceSet(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        table = new int[capacity];
+        mask = capacity - 1;
+        offsets = new int[capacity / 2];
+        lengths = new int[capacity / 2];
+        hashes = new int[capacity / 2];
+        rows = new int[capacity / 2];
+        arena = new byte[Math.max(256, expected * 24)];
+    }
+
+    /**
+     * Adds {@code bytes[0..length)}, or returns the row it was first added at if it is already present; -1 when it
+     * was new.
+     */
+    int addOrGetRow(byte[] bytes, int length, int hash, int row) {
+        int slot = Hashing.spread(hash) & mask;
+        for (int entry; (entry = table[slot]) != 0; slot = (slot + 1) & mask) {
+            entry--;
+            if (hashes[entry] == hash && lengths[entry] == length
+                    && Arrays.equals(arena, offsets[entry], offsets[entry] + length, bytes, 0, length)) {
+                return rows[entry];
+            }
+        }
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, size * 2);
+            lengths = Arrays.copyOf(lengths, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+            rows = Arrays.copyOf(rows, size * 2);
+        }
+        if (used + length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, used + length));
+        }
+        System.arraycopy(bytes, 0, arena, used, length);
+        offsets[size] = used;
+        lengths[size] = length;
+        hashes[size] = hash;
+        rows[size] = row;
+        used += length;
+        table[slot] = ++size;
+        if (size * 2 > table.length) {
+            rehash();
+        }
+        return -1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void rehash() {
+        table = new int[table.length * 2];
+        mask = table.length - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = Hashing.spread(hashes[entry]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = entry + 1;
+        }
+    }
+}
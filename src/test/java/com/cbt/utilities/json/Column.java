@@ -0,0 +1,221 @@
+package com.cbt.utilities.json;
+
+import java.util.*;
+
+/**
+ * Values of one path, one row per element of the extracted document.
+ *
+ * Numbers and booleans are kept in a primitive array and only boxed when asked for through {@link #get(int)}.
+ */
+public class Column {
+
+    /**
+     * What a row of the column holds. {@code MISSING} means the path did not exist in that element.
+     */
+    public enum Kind {
+        MISSING, NULL, BOOLEAN, LONG, DOUBLE, STRING, LIST, OBJECT
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+
+    private final String path;
+    private byte[] kinds = new byte[16];
+    private long[] bits = new long[16];
+    private Object[] refs;
+    private int size;
+
+    Column(String path) {
+        this.path = path;
+    }
+
+    public String path() {
+        return path;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Kind kind(int row) {
+        return KINDS[kinds[checkRow(row)]];
+    }
+
+    public boolean isMissing(int row) {
+        return kind(row) == Kind.MISSING;
+    }
+
+    /**
+     * True when every row holds a value of the given kind.
+     */
+    public boolean allOfKind(Kind kind) {
+        for (int row = 0; row < size; row++) {
+            if (kinds[row] != kind.ordinal()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getLong(int row) {
+        Kind kind = kind(row);
+        if (kind == Kind.LONG) {
+            return bits[row];
+        }
+        if (kind == Kind.DOUBLE) {
+            return (long) Double.longBitsToDouble(bits[row]);
+        }
+        throw wrongKind(row, "a number");
+    }
+
+    public double getDouble(int row) {
+        Kind kind = kind(row);
+        if (kind == Kind.DOUBLE) {
+            return Double.longBitsToDouble(bits[row]);
+        }
+        if (kind == Kind.LONG) {
+            return bits[row];
+        }
+        throw wrongKind(row, "a number");
+    }
+
+    public boolean getBoolean(int row) {
+        if (kind(row) != Kind.BOOLEAN) {
+            throw wrongKind(row, "a boolean");
+        }
+        return bits[row] != 0;
+    }
+
+    public String getString(int row) {
+        Kind kind = kind(row);
+        if (kind == Kind.STRING) {
+            return (String) refs[row];
+        }
+        if (kind == Kind.MISSING || kind == Kind.NULL) {
+            return null;
+        }
+        return String.valueOf(get(row));
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Object> getList(int row) {
+        if (kind(row) != Kind.LIST) {
+            throw wrongKind(row, "an array");
+        }
+        return (List<Object>) refs[row];
+    }
+
+    /**
+     * Boxed value of the row: {@code null} for missing and null values, {@code Integer} for numbers that fit.
+     */
+    public Object get(int row) {
+        switch (kind(row)) {
+            case BOOLEAN:
+                return bits[row] != 0;
+            case LONG:
+                long value = bits[row];
+                return value == (int) value ? (Object) (int) value : (Object) value;
+            case DOUBLE:
+                return Double.longBitsToDouble(bits[row]);
+            case STRING:
+            case LIST:
+            case OBJECT:
+                return refs[row];
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Boxed copy of every row, in the same shape {@code JsonPath.getList} would return.
+     */
+    public List<Object> toList() {
+        List<Object> values = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            values.add(get(row));
+        }
+        return values;
+    }
+
+    /**
+     * Every row as text, {@code null} for missing and null values.
+     */
+    public List<String> strings() {
+        List<String> values = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            values.add(getString(row));
+        }
+        return values;
+    }
+
+    /**
+     * Copy of the rows that hold a number, without boxing.
+     */
+    public long[] longs() {
+        long[] values = new long[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (kinds[row] == Kind.LONG.ordinal()) {
+                values[count++] = bits[row];
+            }
+        }
+        return count == size ? values : Arrays.copyOf(values, count);
+    }
+
+    void setLong(int row, long value) {
+        set(row, Kind.LONG, value);
+    }
+
+    void setDouble(int row, double value) {
+        set(row, Kind.DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
+    void setBoolean(int row, boolean value) {
+        set(row, Kind.BOOLEAN, value ? 1 : 0);
+    }
+
+    void setNull(int row) {
+        set(row, Kind.NULL, 0);
+    }
+
+    void setRef(int row, Kind kind, Object value) {
+        set(row, kind, 0);
+        if (refs == null) {
+            refs = new Object[kinds.length];
+        }
+        refs[row] = value;
+    }
+
+    void endRow(int rows) {
+        ensureCapacity(rows);
+        size = rows;
+    }
+
+    private void set(int row, Kind kind, long value) {
+        ensureCapacity(row + 1);
+        kinds[row] = (byte) kind.ordinal();
+        bits[row] = value;
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows > kinds.length) {
+            int capacity = Math.max(rows, kinds.length * 2);
+            kinds = Arrays.copyOf(kinds, capacity);
+            bits = Arrays.copyOf(bits, capacity);
+            if (refs != null) {
+                refs = Arrays.copyOf(refs, capacity);
+            }
+        }
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of column '" + path + "' with " + size + " rows");
+        }
+        return row;
+    }
+
+    private IllegalStateException wrongKind(int row, String expected) {
+        return new IllegalStateException("Row " + row + " of column '" + path + "' is " + kind(row) + ", not "
+                + expected);
+    }
+}
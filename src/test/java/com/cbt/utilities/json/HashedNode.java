@@ -0,0 +1,160 @@
+package com.cbt.utilities.json;
+
+import io.restassured.response.Response;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * A JSON value with a 64-bit structural hash on every node, Merkle style: a node's hash is built from its
+ * children's, so two subtrees with equal hashes are taken as equal without looking inside them.
+ *
+ * Object hashes do not depend on field order, array hashes do depend on element order. Numbers hash by value, so
+ * {@code 1} and {@code 1.0} are equal. Build the tree once per body; {@link JsonDiff} then compares trees in O(1)
+ * when they are equal and only walks the branches whose hashes differ when they are not.
+ */
+public final class HashedNode {
+
+    private static final long NULL = 0x6e756c6cL;
+    private static final long TRUE = 0x74727565L;
+    private static final long FALSE = 0x66616c73L;
+    private static final long NUMBER = 0x6e756dL;
+    private static final long STRING = 0x737472L;
+    private static final long ARRAY = 0x617272L;
+    private static final long OBJECT = 0x6f626aL;
+
+    private final long hash;
+    private final Object value;
+    private final Map<String, HashedNode> fields;
+    private final List<HashedNode> items;
+
+    private HashedNode(long hash, Object value, Map<String, HashedNode> fields, List<HashedNode> items) {
+        this.hash = hash;
+        this.value = value;
+        this.fields = fields;
+        this.items = items;
+    }
+
+    public static HashedNode of(Response response) {
+        return of(JsonQuery.parse(response.asByteArray()));
+    }
+
+    /**
+     * Hashes a tree of maps, lists and boxed scalars, such as one from {@link JsonQuery#parse}.
+     */
+    public static HashedNode of(Object tree) {
+        if (tree instanceof Map) {
+            Map<String, HashedNode> fields = new LinkedHashMap<>();
+            long sum = 0;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) tree).entrySet()) {
+                String name = String.valueOf(entry.getKey());
+                HashedNode child = of(entry.getValue());
+                fields.put(name, child);
+                sum += Hashing.mix(text(name) ^ Long.rotateLeft(child.hash, 29));
+            }
+            return new HashedNode(Hashing.mix(OBJECT ^ sum ^ fields.size()), null, fields, null);
+        }
+        if (tree instanceof List) {
+            List<HashedNode> items = new ArrayList<>(((List<?>) tree).size());
+            long combined = ARRAY;
+            for (Object element : (List<?>) tree) {
+                HashedNode child = of(element);
+                items.add(child);
+                combined = Hashing.mix(combined * 0x100000001b3L + child.hash);
+            }
+            return new HashedNode(Hashing.mix(combined ^ items.size()), null, null, items);
+        }
+        return new HashedNode(scalar(tree), tree, null, null);
+    }
+
+    public long hash() {
+        return hash;
+    }
+
+    public boolean isObject() {
+        return fields != null;
+    }
+
+    public boolean isArray() {
+        return items != null;
+    }
+
+    /**
+     * The scalar value: a string, number, boolean or null. Null for objects and arrays too.
+     */
+    public Object value() {
+        return value;
+    }
+
+    public Set<String> fieldNames() {
+        return fields == null ? Collections.emptySet() : Collections.unmodifiableSet(fields.keySet());
+    }
+
+    public HashedNode field(String name) {
+        return fields == null ? null : fields.get(name);
+    }
+
+    public int size() {
+        return items != null ? items.size() : fields != null ? fields.size() : 0;
+    }
+
+    public HashedNode item(int index) {
+        return items == null || index < 0 || index >= items.size() ? null : items.get(index);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof HashedNode && ((HashedNode) other).hash == hash;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash);
+    }
+
+    @Override
+    public String toString() {
+        if (fields != null) {
+            return "{" + fields.size() + " fields}";
+        }
+        if (items != null) {
+            return "[" + items.size() + " items]";
+        }
+        return value instanceof String ? '"' + (String) value + '"' : String.valueOf(value);
+    }
+
+    private static long scalar(Object value) {
+        if (value == null) {
+            return Hashing.mix(NULL);
+        }
+        if (value instanceof Boolean) {
+            return Hashing.mix((Boolean) value ? TRUE : FALSE);
+        }
+        if (value instanceof Number) {
+            return Hashing.mix(NUMBER ^ number((Number) value));
+        }
+        return Hashing.mix(STRING ^ text(value.toString()));
+    }
+
+    /**
+     * Integral values hash as their long value whatever type holds them; everything else by its canonical decimal.
+     */
+    private static long number(Number number) {
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+            return number.longValue();
+        }
+        BigDecimal decimal = number instanceof BigInteger ? new BigDecimal((BigInteger) number)
+                : new BigDecimal(number.toString()).stripTrailingZeros();
+        if (decimal.scale() <= 0 && decimal.toBigInteger().bitLength() < 64) {
+            return decimal.longValueExact();
+        }
+        return text(decimal.toString());
+    }
+
+    private static long text(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return Hashing.bytes(bytes, bytes.length);
+    }
+}
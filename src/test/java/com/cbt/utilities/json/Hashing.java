@@ -0,0 +1,31 @@
+package com.cbt.utilities.json;
+
+/**
+ * Hash functions shared by the primitive sets and {@link HashedNode}: the MurmurHash3 finalizer for longs and FNV-1a
+ * for byte runs.
+ */
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    static long bytes(byte[] bytes, int length) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < length; i++) {
+            hash = (hash ^ (bytes[i] & 0xff)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,84 @@
+package com.cbt.utilities.json;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The one preconfigured mapper the utilities share for writing reports and reading trees, so each of them does not
+ * build and warm up a mapper of its own, and databinding of response bodies through it.
+ *
+ * The Blackbird module replaces reflective getter and setter calls with generated lambdas, and the
+ * {@link ObjectReader} for every target type is built once and reused, so binding a large list does not look up
+ * deserializers again on every call. A field the target type has no place for fails the binding rather than being
+ * dropped; models that must carry every field, such as a character compared as a whole, collect the rest themselves.
+ */
+public final class Json {
+
+    public static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new BlackbirdModule());
+
+    private static final Map<JavaType, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    private Json() {
+    }
+
+    public static <T> T read(Response response, Class<T> type) {
+        return read(response.asByteArray(), MAPPER.constructType(type));
+    }
+
+    public static <T> List<T> readList(Response response, Class<T> elementType) {
+        return readList(response.asByteArray(), elementType);
+    }
+
+    public static <T> List<T> readList(byte[] json, Class<T> elementType) {
+        return read(json, MAPPER.getTypeFactory().constructCollectionType(List.class, elementType));
+    }
+
+    public static <T> T read(byte[] json, JavaType type) {
+        try {
+            return reader(type).readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot bind body to " + type, e);
+        }
+    }
+
+    /**
+     * The elements of a list body, each bound only when the stream reaches it, so a body of any length is walked in
+     * the memory of one element. Closing the stream, or running it to the end, closes the input.
+     */
+    public static <T> Stream<T> elements(InputStream json, Class<T> elementType) {
+        MappingIterator<T> elements;
+        try {
+            elements = reader(MAPPER.constructType(elementType)).readValues(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot bind elements to " + elementType.getSimpleName(), e);
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(elements, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    try {
+                        elements.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private static ObjectReader reader(JavaType type) {
+        return READERS.computeIfAbsent(type, MAPPER::readerFor);
+    }
+}
@@ -0,0 +1,238 @@
+package com.cbt.utilities.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Pulls several paths out of a JSON body in one streaming pass, without building an object tree.
+ *
+ * When the body is an array every element becomes a row; when it is an object the whole body is the only row.
+ * Paths are dotted field names relative to a row, such as {@code "_id"} or {@code "owner.id"}. A path that crosses
+ * an array collects the values of every element into a list, so {@code "members._id"} on a house gives the ids of
+ * all its members. Fields that no path asks for are skipped by the parser.
+ * <pre>
+ * JsonColumns columns = JsonColumns.extract(response, "_id", "house", "dumbledoresArmy");
+ * Column houses = columns.column("house");
+ * </pre>
+ */
+public class JsonColumns {
+
+    static final JsonFactory FACTORY = new JsonFactory();
+
+    private final Map<String, Column> columns;
+    private final int rows;
+
+    private JsonColumns(Map<String, Column> columns, int rows) {
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    public static JsonColumns extract(Response response, String... paths) {
+        return extract(response.asByteArray(), paths);
+    }
+
+    public static JsonColumns extract(byte[] json, String... paths) {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            return new Extraction(paths).run(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot extract " + Arrays.toString(paths), e);
+        }
+    }
+
+    public static JsonColumns extract(InputStream json, String... paths) {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            return new Extraction(paths).run(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot extract " + Arrays.toString(paths), e);
+        }
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public Column column(String path) {
+        Column column = columns.get(path);
+        if (column == null) {
+            throw new IllegalArgumentException("Path '" + path + "' was not extracted, only " + columns.keySet());
+        }
+        return column;
+    }
+
+    /**
+     * Field names of the requested paths arranged as a tree, so the parser knows at every field whether to descend,
+     * capture or skip.
+     */
+    static class PathNode {
+
+        final Map<String, PathNode> children = new HashMap<>();
+        Column column;
+
+        PathNode child(String name) {
+            return children.computeIfAbsent(name, n -> new PathNode());
+        }
+    }
+
+    private static class Extraction {
+
+        private final PathNode root = new PathNode();
+        private final Map<String, Column> columns = new LinkedHashMap<>();
+        private final Map<Column, List<Object>> collected = new HashMap<>();
+        private int row;
+
+        Extraction(String[] paths) {
+            for (String path : paths) {
+                PathNode node = root;
+                if (!path.isEmpty()) {
+                    for (String name : path.split("\\.")) {
+                        node = node.child(name);
+                    }
+                }
+                node.column = new Column(path);
+                columns.put(path, node.column);
+            }
+        }
+
+        JsonColumns run(JsonParser parser) throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    readRow(parser);
+                }
+            } else if (token != null) {
+                readRow(parser);
+            }
+            for (Column column : columns.values()) {
+                column.endRow(row);
+            }
+            return new JsonColumns(Collections.unmodifiableMap(columns), row);
+        }
+
+        private void readRow(JsonParser parser) throws IOException {
+            collected.clear();
+            read(parser, root, false);
+            collected.forEach((column, values) -> column.setRef(row, Column.Kind.LIST, values));
+            row++;
+        }
+
+        /**
+         * Reads the value the parser is positioned on. {@code fanOut} is true once the path has crossed an array,
+         * from then on captured values are appended to the row's list instead of replacing it.
+         */
+        private void read(JsonParser parser, PathNode node, boolean fanOut) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (node.column != null && node.children.isEmpty()) {
+                capture(parser, node.column, fanOut);
+                return;
+            }
+            if (node.column != null) {
+                // Another path goes deeper than this one, as "owner.id" does below "owner": keep the subtree
+                // for this column and take the deeper columns out of it.
+                Object value = Trees.read(parser);
+                store(node.column, value, fanOut);
+                walk(value, node, fanOut);
+                return;
+            }
+            if (token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    PathNode child = node.children.get(parser.getCurrentName());
+                    parser.nextToken();
+                    if (child == null) {
+                        parser.skipChildren();
+                    } else {
+                        read(parser, child, fanOut);
+                    }
+                }
+            } else if (token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    read(parser, node, true);
+                }
+            }
+        }
+
+        /**
+         * The same descent as {@link #read} over a subtree that has already been read.
+         */
+        private void walk(Object value, PathNode node, boolean fanOut) {
+            if (value instanceof Map) {
+                Map<?, ?> object = (Map<?, ?>) value;
+                node.children.forEach((name, child) -> {
+                    if (object.containsKey(name)) {
+                        Object field = object.get(name);
+                        if (child.column != null) {
+                            store(child.column, field, fanOut);
+                        }
+                        walk(field, child, fanOut);
+                    }
+                });
+            } else if (value instanceof List) {
+                for (Object element : (List<?>) value) {
+                    walk(element, node, true);
+                }
+            }
+        }
+
+        private void store(Column column, Object value, boolean fanOut) {
+            if (fanOut) {
+                collected.computeIfAbsent(column, c -> new ArrayList<>()).add(value);
+            } else if (value instanceof Integer || value instanceof Long) {
+                column.setLong(row, ((Number) value).longValue());
+            } else if (value instanceof Double) {
+                column.setDouble(row, (Double) value);
+            } else if (value instanceof Boolean) {
+                column.setBoolean(row, (Boolean) value);
+            } else if (value instanceof String) {
+                column.setRef(row, Column.Kind.STRING, value);
+            } else if (value == null) {
+                column.setNull(row);
+            } else if (value instanceof List) {
+                column.setRef(row, Column.Kind.LIST, value);
+            } else {
+                column.setRef(row, Column.Kind.OBJECT, value);
+            }
+        }
+
+        private void capture(JsonParser parser, Column column, boolean fanOut) throws IOException {
+            if (fanOut) {
+                collected.computeIfAbsent(column, c -> new ArrayList<>()).add(Trees.read(parser));
+                return;
+            }
+            switch (parser.currentToken()) {
+                case VALUE_NUMBER_INT:
+                    if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                        column.setRef(row, Column.Kind.OBJECT, parser.getBigIntegerValue());
+                    } else {
+                        column.setLong(row, parser.getLongValue());
+                    }
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    column.setDouble(row, parser.getDoubleValue());
+                    break;
+                case VALUE_TRUE:
+                    column.setBoolean(row, true);
+                    break;
+                case VALUE_FALSE:
+                    column.setBoolean(row, false);
+                    break;
+                case VALUE_STRING:
+                    column.setRef(row, Column.Kind.STRING, parser.getText());
+                    break;
+                case VALUE_NULL:
+                    column.setNull(row);
+                    break;
+                case START_ARRAY:
+                    column.setRef(row, Column.Kind.LIST, Trees.read(parser));
+                    break;
+                default:
+                    column.setRef(row, Column.Kind.OBJECT, Trees.read(parser));
+            }
+        }
+    }
+}
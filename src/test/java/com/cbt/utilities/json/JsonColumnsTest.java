@@ -0,0 +1,70 @@
+package com.cbt.utilities.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class JsonColumnsTest {
+
+    private static final byte[] REPOS = ("[" +
+            "{\"id\":1,\"name\":\"a\",\"owner\":{\"id\":7,\"login\":\"x\"},\"topics\":[\"x\",\"y\"],\"score\":1.5}," +
+            "{\"id\":2,\"name\":null,\"owner\":{\"id\":7},\"fork\":true,\"members\":[{\"_id\":\"m1\"},{\"_id\":\"m2\"}]}," +
+            "{\"id\":3000000000,\"owner\":{\"id\":8,\"extra\":{\"deep\":[1,2,3]}}}" +
+            "]").getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void everyArrayElementIsARow() {
+        JsonColumns columns = JsonColumns.extract(REPOS, "id", "owner.id");
+
+        assertThat(columns.rows(), is(3));
+        assertThat(columns.column("id").toList(), is(Arrays.asList(1, 2, 3000000000L)));
+        assertThat(columns.column("owner.id").longs(), is(new long[]{7, 7, 8}));
+    }
+
+    @Test
+    public void kindsTellMissingFromNull() {
+        JsonColumns columns = JsonColumns.extract(REPOS, "name", "fork", "score");
+        Column name = columns.column("name");
+
+        assertThat(name.kind(0), is(Column.Kind.STRING));
+        assertThat(name.kind(1), is(Column.Kind.NULL));
+        assertThat(name.kind(2), is(Column.Kind.MISSING));
+        assertThat(columns.column("fork").getBoolean(1), is(true));
+        assertThat(columns.column("score").getDouble(0), is(1.5));
+        assertThat(columns.column("fork").allOfKind(Column.Kind.BOOLEAN), is(false));
+    }
+
+    @Test
+    public void pathsThroughArraysCollectLists() {
+        JsonColumns columns = JsonColumns.extract(REPOS, "topics", "members._id");
+
+        assertThat(columns.column("topics").getList(0), contains("x", "y"));
+        assertThat(columns.column("members._id").getList(1), contains("m1", "m2"));
+        assertThat(columns.column("members._id").isMissing(0), is(true));
+    }
+
+    @Test
+    public void pathBelowAnotherPathIsStillExtracted() {
+        JsonColumns columns = JsonColumns.extract(REPOS, "owner", "owner.id", "members", "members._id");
+
+        assertThat(columns.column("owner").kind(0), is(Column.Kind.OBJECT));
+        assertThat(columns.column("owner.id").longs(), is(new long[]{7, 7, 8}));
+        assertThat(columns.column("members").getList(1), hasSize(2));
+        assertThat(columns.column("members._id").getList(1), contains("m1", "m2"));
+        assertThat(columns.column("members._id").isMissing(0), is(true));
+    }
+
+    @Test
+    public void objectBodyIsASingleRow() {
+        byte[] org = "{\"login\":\"cucumber\",\"public_repos\":36}".getBytes(StandardCharsets.UTF_8);
+
+        JsonColumns columns = JsonColumns.extract(org, "public_repos");
+
+        assertThat(columns.rows(), is(1));
+        assertThat(columns.column("public_repos").getLong(0), is(36L));
+    }
+}
@@ -0,0 +1,109 @@
+package com.cbt.utilities.json;
+
+import java.util.*;
+
+/**
+ * Field-by-field comparison of two {@link HashedNode} trees.
+ *
+ * Equal roots return at once. Otherwise only the fields and elements whose hashes differ are walked, down to the
+ * leaves that actually differ, so the result names each differing path instead of printing both records whole.
+ * Paths are written {@code $.wand.core} and {@code $.members[2]._id}.
+ * <pre>
+ * List&lt;JsonDiff.Difference&gt; differences = JsonDiff.diff(HashedNode.of(expected), HashedNode.of(actual));
+ * </pre>
+ */
+public final class JsonDiff {
+
+    /**
+     * Walking stops after this many differences; a record that differs everywhere needs no longer report.
+     */
+    public static final int LIMIT = 20;
+
+    private JsonDiff() {
+    }
+
+    public static List<Difference> diff(HashedNode expected, HashedNode actual) {
+        List<Difference> differences = new ArrayList<>();
+        diff("$", expected, actual, differences);
+        return differences;
+    }
+
+    private static void diff(String path, HashedNode expected, HashedNode actual, List<Difference> differences) {
+        if (differences.size() >= LIMIT || expected.hash() == actual.hash()) {
+            return;
+        }
+        if (expected.isObject() && actual.isObject()) {
+            for (String name : expected.fieldNames()) {
+                HashedNode other = actual.field(name);
+                if (other == null) {
+                    add(differences, new Difference(path + "." + name, expected.field(name), null));
+                } else {
+                    diff(path + "." + name, expected.field(name), other, differences);
+                }
+            }
+            for (String name : actual.fieldNames()) {
+                if (expected.field(name) == null) {
+                    add(differences, new Difference(path + "." + name, null, actual.field(name)));
+                }
+            }
+        } else if (expected.isArray() && actual.isArray()) {
+            int common = Math.min(expected.size(), actual.size());
+            for (int i = 0; i < common; i++) {
+                diff(path + "[" + i + "]", expected.item(i), actual.item(i), differences);
+            }
+            for (int i = common; i < expected.size(); i++) {
+                add(differences, new Difference(path + "[" + i + "]", expected.item(i), null));
+            }
+            for (int i = common; i < actual.size(); i++) {
+                add(differences, new Difference(path + "[" + i + "]", null, actual.item(i)));
+            }
+        } else {
+            add(differences, new Difference(path, expected, actual));
+        }
+    }
+
+    private static void add(List<Difference> differences, Difference difference) {
+        if (differences.size() < LIMIT) {
+            differences.add(difference);
+        }
+    }
+
+    /**
+     * One differing path. A side is null when the path exists only on the other side.
+     */
+    public static final class Difference {
+
+        private final String path;
+        private final HashedNode expected;
+        private final HashedNode actual;
+
+        Difference(String path, HashedNode expected, HashedNode actual) {
+            this.path = path;
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        public String path() {
+            return path;
+        }
+
+        public HashedNode expected() {
+            return expected;
+        }
+
+        public HashedNode actual() {
+            return actual;
+        }
+
+        @Override
+        public String toString() {
+            if (expected == null) {
+                return path + " unexpected " + actual;
+            }
+            if (actual == null) {
+                return path + " missing, expected " + expected;
+            }
+            return path + " expected " + expected + " but was " + actual;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.cbt.utilities.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.cbt.utilities.matchers.JsonMatchers.sameJsonAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JsonDiffTest {
+
+    private static final String HARRY = "{\"_id\":\"5a12\",\"name\":\"Harry Potter\",\"house\":\"Gryffindor\"," +
+            "\"wand\":{\"wood\":\"holly\",\"length\":11},\"ministryOfMagic\":false,\"boggart\":null," +
+            "\"members\":[{\"_id\":\"m1\"},{\"_id\":\"m2\"}]}";
+
+    @Test
+    public void fieldOrderDoesNotChangeTheHash() {
+        HashedNode shuffled = node("{\"members\":[{\"_id\":\"m1\"},{\"_id\":\"m2\"}],\"boggart\":null," +
+                "\"wand\":{\"length\":11.0,\"wood\":\"holly\"},\"house\":\"Gryffindor\",\"name\":\"Harry Potter\"," +
+                "\"ministryOfMagic\":false,\"_id\":\"5a12\"}");
+
+        assertThat(shuffled.hash(), is(node(HARRY).hash()));
+        assertThat(JsonDiff.diff(node(HARRY), shuffled), is(empty()));
+    }
+
+    @Test
+    public void elementOrderDoesChangeTheHash() {
+        assertThat(node("[1,2]").hash(), is(not(node("[2,1]").hash())));
+        assertThat(node("{\"a\":\"1\"}").hash(), is(not(node("{\"a\":1}").hash())));
+        assertThat(node("{\"a\":{\"b\":1}}").hash(), is(not(node("{\"b\":{\"a\":1}}").hash())));
+    }
+
+    @Test
+    public void differencesNameTheLeafPaths() {
+        HashedNode changed = node(HARRY.replace("holly", "oak").replace("\"m2\"", "\"m3\"")
+                .replace(",\"boggart\":null", "").replace("false", "false,\"alias\":\"Chosen One\""));
+
+        List<String> paths = JsonDiff.diff(node(HARRY), changed).stream()
+                .map(JsonDiff.Difference::toString).collect(Collectors.toList());
+
+        assertThat(paths, containsInAnyOrder(
+                "$.wand.wood expected \"holly\" but was \"oak\"",
+                "$.members[1]._id expected \"m2\" but was \"m3\"",
+                "$.boggart missing, expected null",
+                "$.alias unexpected \"Chosen One\""));
+    }
+
+    @Test
+    public void arraysOfDifferentLengthReportTheExtraElements() {
+        List<JsonDiff.Difference> differences = JsonDiff.diff(node("[1,2,3]"), node("[1,5]"));
+
+        assertThat(differences.get(0).path(), is("$[1]"));
+        assertThat(differences.get(1).toString(), is("$[2] missing, expected 3"));
+    }
+
+    @Test
+    public void matcherListsTheDifferences() {
+        AssertionError error = assertThrows(AssertionError.class,
+                () -> assertThat(node(HARRY.replace("Gryffindor", "Slytherin")), sameJsonAs(node(HARRY))));
+
+        assertThat(error.getMessage(), containsString("$.house expected \"Gryffindor\" but was \"Slytherin\""));
+    }
+
+    private static HashedNode node(String json) {
+        return HashedNode.of(JsonQuery.parse(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,88 @@
+package com.cbt.utilities.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The elements of a JSON list body as a lazy stream: each element is parsed into maps, lists and scalars only when
+ * the stream reaches it, so a body of any length is walked in the memory of its largest element. A body that is not
+ * a list is one element. Closing the stream, or running it to the end, closes the input.
+ */
+public final class JsonElements {
+
+    private JsonElements() {
+    }
+
+    public static Stream<Object> of(InputStream json) {
+        JsonParser parser;
+        JsonToken first;
+        try {
+            parser = JsonColumns.FACTORY.createParser(json);
+            first = parser.nextToken();
+        } catch (IOException e) {
+            close(json);
+            throw new UncheckedIOException("Cannot read JSON body", e);
+        }
+        Iterator<Object> elements = new Iterator<Object>() {
+
+            private final boolean single = first != JsonToken.START_ARRAY;
+            private JsonToken next = single ? first : advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != null && next != JsonToken.END_ARRAY;
+            }
+
+            @Override
+            public Object next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    Object element = Trees.read(parser);
+                    next = single ? null : advance();
+                    if (!hasNext()) {
+                        parser.close();
+                    }
+                    return element;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot read JSON element", e);
+                }
+            }
+
+            private JsonToken advance() {
+                try {
+                    return parser.nextToken();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot read JSON element", e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(elements, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    try {
+                        parser.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private static void close(InputStream json) {
+        try {
+            json.close();
+        } catch (IOException e) {
+            // the read already failed; that is the error worth reporting
+        }
+    }
+}
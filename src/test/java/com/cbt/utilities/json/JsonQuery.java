@@ -0,0 +1,417 @@
+package com.cbt.utilities.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A GPath-style query parsed once into an immutable, thread-safe form and evaluated without Groovy.
+ *
+ * It covers the subset the suites use: dotted field names, which collect over arrays as GPath does, indexes such as
+ * {@code [0]} or {@code [-1]}, and {@code find{...}} / {@code findAll{...}} filters whose predicate is
+ * {@code it.field}, alone for Groovy truth or compared with {@code ==} or {@code !=} to a quoted string, number,
+ * {@code true}, {@code false} or {@code null}. Anything else, a single {@code =} included, is rejected by
+ * {@link #compile} with the position of the mistake.
+ * <pre>
+ * private static final JsonQuery GRYFFINDOR_ID = JsonQuery.compile("find{it.name=='Gryffindor'}._id");
+ * String id = GRYFFINDOR_ID.string(response);
+ * </pre>
+ */
+public final class JsonQuery {
+
+    private static final Map<String, JsonQuery> COMPILED = new ConcurrentHashMap<>();
+
+    private final String source;
+    private final List<Step> steps;
+
+    private JsonQuery(String source, List<Step> steps) {
+        this.source = source;
+        this.steps = steps;
+    }
+
+    /**
+     * Parses the query, or returns the one already parsed from the same text.
+     *
+     * @throws IllegalArgumentException if the query is malformed
+     */
+    public static JsonQuery compile(String query) {
+        JsonQuery compiled = COMPILED.get(query);
+        if (compiled == null) {
+            compiled = new JsonQuery(query, Collections.unmodifiableList(new Parser(query).parse()));
+            COMPILED.putIfAbsent(query, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Parses a JSON body into plain maps, lists and boxed scalars, for evaluating several queries on it.
+     */
+    public static Object parse(byte[] json) {
+        try (JsonParser parser = JsonColumns.FACTORY.createParser(json)) {
+            return parser.nextToken() == null ? null : Trees.read(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot parse JSON body", e);
+        }
+    }
+
+    public Object evaluate(Response response) {
+        return evaluate(parse(response.asByteArray()));
+    }
+
+    /**
+     * Runs the query against a tree from {@link #parse}.
+     */
+    public Object evaluate(Object document) {
+        Object current = document;
+        for (Step step : steps) {
+            current = step.apply(current);
+        }
+        return current;
+    }
+
+    public String string(Response response) {
+        Object value = evaluate(response);
+        return value == null ? null : value.toString();
+    }
+
+    public int integer(Response response) {
+        Object value = evaluate(response);
+        if (!(value instanceof Number)) {
+            throw new IllegalStateException("Query '" + source + "' gave " + value + ", not a number");
+        }
+        return ((Number) value).intValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> List<T> list(Response response) {
+        return (List<T>) asList(evaluate(response));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> List<T> list(Object document) {
+        return (List<T>) asList(evaluate(document));
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    private List<?> asList(Object value) {
+        if (value == null || value instanceof List) {
+            return (List<?>) value;
+        }
+        throw new IllegalStateException("Query '" + source + "' gave " + value.getClass().getSimpleName()
+                + ", not a list");
+    }
+
+    private interface Step {
+
+        Object apply(Object value);
+    }
+
+    /**
+     * {@code name}: the field of an object, or the field of every non-null element of an array.
+     */
+    private static final class Field implements Step {
+
+        private final String name;
+
+        Field(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Object apply(Object value) {
+            if (value instanceof Map) {
+                return ((Map<?, ?>) value).get(name);
+            }
+            if (value instanceof List) {
+                List<Object> collected = new ArrayList<>();
+                for (Object element : (List<?>) value) {
+                    if (element != null) {
+                        collected.add(apply(element));
+                    }
+                }
+                return collected;
+            }
+            return null;
+        }
+    }
+
+    private static final class Index implements Step {
+
+        private final int index;
+
+        Index(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public Object apply(Object value) {
+            if (!(value instanceof List)) {
+                return null;
+            }
+            List<?> list = (List<?>) value;
+            int at = index < 0 ? list.size() + index : index;
+            return at >= 0 && at < list.size() ? list.get(at) : null;
+        }
+    }
+
+    private static final class Filter implements Step {
+
+        private final boolean all;
+        private final Predicate predicate;
+
+        Filter(boolean all, Predicate predicate) {
+            this.all = all;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public Object apply(Object value) {
+            if (!(value instanceof List)) {
+                boolean matches = value != null && predicate.test(value);
+                return all ? (matches ? Collections.singletonList(value) : Collections.emptyList())
+                        : (matches ? value : null);
+            }
+            List<Object> matched = new ArrayList<>();
+            for (Object element : (List<?>) value) {
+                if (predicate.test(element)) {
+                    if (!all) {
+                        return element;
+                    }
+                    matched.add(element);
+                }
+            }
+            return all ? matched : null;
+        }
+    }
+
+    private static final class Predicate {
+
+        private final List<Step> path;
+        private final String operator;
+        private final Object literal;
+
+        Predicate(List<Step> path, String operator, Object literal) {
+            this.path = path;
+            this.operator = operator;
+            this.literal = literal;
+        }
+
+        boolean test(Object element) {
+            Object value = element;
+            for (Step step : path) {
+                value = step.apply(value);
+            }
+            if (operator == null) {
+                return truthy(value);
+            }
+            boolean equal = same(value, literal);
+            return operator.equals("==") == equal;
+        }
+
+        private static boolean truthy(Object value) {
+            if (value == null) {
+                return false;
+            }
+            if (value instanceof Boolean) {
+                return (Boolean) value;
+            }
+            if (value instanceof String) {
+                return !((String) value).isEmpty();
+            }
+            if (value instanceof Number) {
+                return ((Number) value).doubleValue() != 0;
+            }
+            if (value instanceof Collection) {
+                return !((Collection<?>) value).isEmpty();
+            }
+            return !(value instanceof Map) || !((Map<?, ?>) value).isEmpty();
+        }
+
+        private static boolean same(Object value, Object literal) {
+            if (value instanceof Number && literal instanceof Number) {
+                return new BigDecimal(value.toString()).compareTo(new BigDecimal(literal.toString())) == 0;
+            }
+            return Objects.equals(value, literal);
+        }
+    }
+
+    private static final class Parser {
+
+        private final String text;
+        private int at;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        List<Step> parse() {
+            List<Step> steps = new ArrayList<>();
+            skipSpaces();
+            if (at == text.length()) {
+                return steps;
+            }
+            do {
+                skipSpaces();
+                String name = identifier();
+                skipSpaces();
+                if ((name.equals("find") || name.equals("findAll")) && peek() == '{') {
+                    at++;
+                    steps.add(new Filter(name.equals("findAll"), predicate()));
+                    expect('}');
+                } else {
+                    steps.add(new Field(name));
+                }
+                indexes(steps);
+                skipSpaces();
+            } while (consume('.'));
+            if (at != text.length()) {
+                throw error("Unexpected '" + text.charAt(at) + "'");
+            }
+            return steps;
+        }
+
+        private Predicate predicate() {
+            skipSpaces();
+            if (!identifier().equals("it")) {
+                throw error("Filters start with 'it'");
+            }
+            List<Step> path = new ArrayList<>();
+            indexes(path);
+            while (consume('.')) {
+                path.add(new Field(identifier()));
+                indexes(path);
+            }
+            skipSpaces();
+            if (peek() == '}') {
+                return new Predicate(path, null, null);
+            }
+            String operator;
+            if (text.startsWith("==", at) || text.startsWith("!=", at)) {
+                operator = text.substring(at, at + 2);
+                at += 2;
+            } else if (peek() == '=') {
+                throw error("'=' assigns; compare with '=='");
+            } else {
+                throw error("Expected '==', '!=' or '}'");
+            }
+            skipSpaces();
+            Object literal = literal();
+            skipSpaces();
+            return new Predicate(path, operator, literal);
+        }
+
+        private Object literal() {
+            char c = peek();
+            if (c == '\'' || c == '"') {
+                int start = ++at;
+                StringBuilder value = new StringBuilder();
+                while (at < text.length() && text.charAt(at) != c) {
+                    if (text.charAt(at) == '\\' && at + 1 < text.length()) {
+                        at++;
+                    }
+                    value.append(text.charAt(at++));
+                }
+                if (at == text.length()) {
+                    at = start - 1;
+                    throw error("Unterminated string");
+                }
+                at++;
+                return value.toString();
+            }
+            if (c == '-' || Character.isDigit(c)) {
+                int start = at++;
+                while (at < text.length() && (Character.isDigit(text.charAt(at)) || text.charAt(at) == '.')) {
+                    at++;
+                }
+                try {
+                    return new BigDecimal(text.substring(start, at));
+                } catch (NumberFormatException e) {
+                    at = start;
+                    throw error("Malformed number");
+                }
+            }
+            int start = at;
+            String word = Character.isJavaIdentifierStart(c) ? identifier() : "";
+            switch (word) {
+                case "true":
+                    return Boolean.TRUE;
+                case "false":
+                    return Boolean.FALSE;
+                case "null":
+                    return null;
+                default:
+                    at = start;
+                    throw error("Expected a string, number, true, false or null");
+            }
+        }
+
+        private void indexes(List<Step> steps) {
+            while (consume('[')) {
+                skipSpaces();
+                int start = at;
+                if (peek() == '-') {
+                    at++;
+                }
+                while (at < text.length() && Character.isDigit(text.charAt(at))) {
+                    at++;
+                }
+                if (at == start || text.charAt(at - 1) == '-') {
+                    throw error("Expected an index");
+                }
+                steps.add(new Index(Integer.parseInt(text.substring(start, at))));
+                skipSpaces();
+                expect(']');
+            }
+        }
+
+        private String identifier() {
+            int start = at;
+            while (at < text.length() && Character.isJavaIdentifierPart(text.charAt(at))) {
+                at++;
+            }
+            if (at == start) {
+                throw error("Expected a field name");
+            }
+            return text.substring(start, at);
+        }
+
+        private char peek() {
+            return at < text.length() ? text.charAt(at) : '\0';
+        }
+
+        private boolean consume(char c) {
+            if (peek() == c) {
+                at++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            skipSpaces();
+            if (!consume(c)) {
+                throw error("Expected '" + c + "'");
+            }
+        }
+
+        private void skipSpaces() {
+            while (at < text.length() && Character.isWhitespace(text.charAt(at))) {
+                at++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + at + " of query\n" + text + "\n"
+                    + " ".repeat(at) + "^");
+        }
+    }
+}
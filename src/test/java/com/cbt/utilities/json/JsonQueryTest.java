@@ -0,0 +1,58 @@
+package com.cbt.utilities.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JsonQueryTest {
+
+    private static final Object HOUSES = JsonQuery.parse(("[" +
+            "{\"_id\":\"g\",\"name\":\"Gryffindor\",\"members\":[\"m1\",\"m2\"],\"founded\":990}," +
+            "{\"_id\":\"r\",\"name\":\"Ravenclaw\",\"members\":[],\"head\":null}," +
+            "{\"_id\":\"s\",\"name\":\"Slytherin\",\"members\":[{\"_id\":\"m3\"},{\"_id\":\"m4\"}]}" +
+            "]").getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    public void fieldsCollectOverArraysAsGPathDoes() {
+        assertThat(JsonQuery.compile("_id").list(HOUSES), is(Arrays.asList("g", "r", "s")));
+        assertThat(JsonQuery.compile(" members[0]").evaluate(HOUSES), is(Arrays.asList("m1", "m2")));
+        assertThat(JsonQuery.compile("members[-1]._id").evaluate(HOUSES), is(Arrays.asList("m3", "m4")));
+        assertThat(JsonQuery.compile("members[7]").evaluate(HOUSES), is(nullValue()));
+    }
+
+    @Test
+    public void filtersCompareAndUseGroovyTruth() {
+        assertThat(JsonQuery.compile("find{it.name=='Gryffindor'}._id").evaluate(HOUSES), is("g"));
+        assertThat(JsonQuery.compile("findAll{it.name != \"Gryffindor\"}._id").evaluate(HOUSES),
+                is(Arrays.asList("r", "s")));
+        assertThat(JsonQuery.compile("findAll{it.members}.name").evaluate(HOUSES),
+                is(Arrays.asList("Gryffindor", "Slytherin")));
+        assertThat(JsonQuery.compile("find{it.founded == 990.0}.name").evaluate(HOUSES), is("Gryffindor"));
+        assertThat(JsonQuery.compile("findAll{it.head == null}._id").evaluate(HOUSES), is(Arrays.asList("g", "r", "s")));
+        assertThat(JsonQuery.compile("findAll{it.name == 'Hufflepuff'}._id").evaluate(HOUSES),
+                is(Collections.emptyList()));
+    }
+
+    @Test
+    public void assignmentIsRejectedWhereItIsWritten() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> JsonQuery.compile("findAll{it.house='Ravenclaw'}.members[0]"));
+
+        assertThat(error.getMessage(), startsWith("'=' assigns; compare with '==' at position 16"));
+    }
+
+    @Test
+    public void malformedQueriesFailToCompile() {
+        for (String query : new String[]{"find{name=='x'}", "a..b", "a[", "a[x]", "find{it.a=='x}", "a b",
+                "find{it.a == bogus}"}) {
+            assertThrows(IllegalArgumentException.class, () -> JsonQuery.compile(query), query);
+        }
+        assertThat(JsonQuery.compile("a.b"), is(sameInstance(JsonQuery.compile("a.b"))));
+    }
+}
@@ -0,0 +1,500 @@
+package com.cbt.utilities.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * A contract schema compiled once and checked against a body during a single streaming parse, without building a
+ * tree. Every violation is reported with the JSON pointer of the offending value, such as {@code /42/house}.
+ *
+ * Schemas live in {@code src/test/resources/schemas/<name>.schema.json} and describe one record; {@link #arrayOf()}
+ * checks every element of a list body against it. The supported subset of JSON Schema draft 7 is {@code type},
+ * {@code enum}, {@code properties}, {@code required}, {@code additionalProperties}, {@code items},
+ * {@code minItems}, {@code minLength}, {@code pattern}, {@code minimum} and {@code format: date-time}; any other
+ * validation keyword fails when the schema is compiled rather than being ignored.
+ * <pre>
+ * List&lt;JsonSchema.Violation&gt; violations = JsonSchema.load("character").arrayOf().validate(response);
+ * </pre>
+ */
+public final class JsonSchema {
+
+    /**
+     * Validation stops after this many violations; a body that breaks the contract everywhere needs no longer report.
+     */
+    public static final int LIMIT = 100;
+
+    private static final Map<String, JsonSchema> LOADED = new ConcurrentHashMap<>();
+    private static final Set<String> ANNOTATIONS = new HashSet<>(Arrays.asList("$schema", "$id", "title",
+            "description", "$comment", "examples", "default"));
+
+    private static final int STRING = 1, INTEGER = 2, NUMBER = 4, BOOLEAN = 8, NULL = 16, ARRAY = 32, OBJECT = 64;
+    private static final String[] TYPE_NAMES = {"string", "integer", "number", "boolean", "null", "array", "object"};
+
+    private final String name;
+    private final Node root;
+    private volatile JsonSchema arrayOf;
+
+    private JsonSchema(String name, Node root) {
+        this.name = name;
+        this.root = root;
+    }
+
+    /**
+     * The schema in {@code schemas/<name>.schema.json} on the test class path, compiled on first use.
+     *
+     * @throws IllegalArgumentException if the schema is missing or uses a keyword this validator does not support
+     */
+    public static JsonSchema load(String name) {
+        return LOADED.computeIfAbsent(name, JsonSchema::read);
+    }
+
+    /**
+     * Compiles a schema given as text, for schemas that are not resources.
+     */
+    public static JsonSchema compile(String name, byte[] schema) {
+        return new JsonSchema(name, new Node(JsonQuery.parse(schema), "#"));
+    }
+
+    /**
+     * A schema for a list body whose every element matches this one.
+     */
+    public JsonSchema arrayOf() {
+        JsonSchema array = arrayOf;
+        if (array == null) {
+            Node node = new Node();
+            node.types = ARRAY;
+            node.items = root;
+            array = arrayOf = new JsonSchema("array of " + name, node);
+        }
+        return array;
+    }
+
+    public List<Violation> validate(Response response) {
+        return validate(response.asByteArray());
+    }
+
+    public List<Violation> validate(byte[] json) {
+        try (JsonParser parser = JsonColumns.FACTORY.createParser(json)) {
+            return new Validation(parser).run(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot validate against " + name, e);
+        }
+    }
+
+    public List<Violation> validate(InputStream json) {
+        try (JsonParser parser = JsonColumns.FACTORY.createParser(json)) {
+            return new Validation(parser).run(root);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot validate against " + name, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static JsonSchema read(String name) {
+        String resource = "/schemas/" + name + ".schema.json";
+        try (InputStream in = JsonSchema.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No schema " + resource + " on the class path");
+            }
+            return compile(name, in.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + resource, e);
+        }
+    }
+
+    /**
+     * One value that breaks the contract.
+     */
+    public static final class Violation {
+
+        private final String pointer;
+        private final String message;
+
+        Violation(String pointer, String message) {
+            this.pointer = pointer;
+            this.message = message;
+        }
+
+        /**
+         * RFC 6901 pointer to the value, empty for the whole body.
+         */
+        public String pointer() {
+            return pointer;
+        }
+
+        public String message() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return (pointer.isEmpty() ? "(root)" : pointer) + " " + message;
+        }
+    }
+
+    /**
+     * A compiled schema node. Keywords that do not apply to a value's type are skipped, as JSON Schema specifies,
+     * so one node can describe, say, a member that is either an id or an object with an id.
+     */
+    private static final class Node {
+
+        int types = -1;
+        Set<Object> allowed;
+        String allowedText;
+        Map<String, Property> properties;
+        long requiredMask;
+        String[] required;
+        boolean closed;
+        Node additional;
+        Node items;
+        int minItems = -1;
+        int minLength = -1;
+        Pattern pattern;
+        Double minimum;
+        boolean dateTime;
+
+        Node() {
+        }
+
+        @SuppressWarnings("unchecked")
+        Node(Object schema, String location) {
+            if (!(schema instanceof Map)) {
+                throw new IllegalArgumentException(location + " is not a schema object");
+            }
+            Map<String, Object> keywords = (Map<String, Object>) schema;
+            for (Map.Entry<String, Object> keyword : keywords.entrySet()) {
+                Object value = keyword.getValue();
+                String at = location + "/" + keyword.getKey();
+                switch (keyword.getKey()) {
+                    case "type":
+                        types = 0;
+                        for (Object type : value instanceof List ? (List<Object>) value : List.of(value)) {
+                            types |= type(String.valueOf(type), at);
+                        }
+                        break;
+                    case "enum":
+                        allowed = new HashSet<>();
+                        for (Object option : (List<Object>) value) {
+                            allowed.add(normalize(option));
+                        }
+                        allowedText = value.toString();
+                        break;
+                    case "properties":
+                        for (Map.Entry<String, Object> property : ((Map<String, Object>) value).entrySet()) {
+                            property(property.getKey()).schema = new Node(property.getValue(), at + "/"
+                                    + property.getKey());
+                        }
+                        break;
+                    case "required":
+                        List<Object> names = (List<Object>) value;
+                        if (names.size() > 64) {
+                            throw new IllegalArgumentException(at + " lists more than 64 fields");
+                        }
+                        required = new String[names.size()];
+                        for (int i = 0; i < names.size(); i++) {
+                            required[i] = String.valueOf(names.get(i));
+                            property(required[i]).bit = 1L << i;
+                            requiredMask |= 1L << i;
+                        }
+                        break;
+                    case "additionalProperties":
+                        if (Boolean.FALSE.equals(value)) {
+                            closed = true;
+                        } else if (!Boolean.TRUE.equals(value)) {
+                            additional = new Node(value, at);
+                        }
+                        break;
+                    case "items":
+                        items = new Node(value, at);
+                        break;
+                    case "minItems":
+                        minItems = ((Number) value).intValue();
+                        break;
+                    case "minLength":
+                        minLength = ((Number) value).intValue();
+                        break;
+                    case "pattern":
+                        pattern = Pattern.compile((String) value);
+                        break;
+                    case "minimum":
+                        minimum = ((Number) value).doubleValue();
+                        break;
+                    case "format":
+                        if (!"date-time".equals(value)) {
+                            throw new IllegalArgumentException(at + " '" + value + "' is not supported");
+                        }
+                        dateTime = true;
+                        break;
+                    default:
+                        if (!ANNOTATIONS.contains(keyword.getKey())) {
+                            throw new IllegalArgumentException(at + " is not supported");
+                        }
+                }
+            }
+        }
+
+        private Property property(String name) {
+            if (properties == null) {
+                properties = new HashMap<>();
+            }
+            return properties.computeIfAbsent(name, n -> new Property());
+        }
+
+        private static int type(String name, String location) {
+            for (int i = 0; i < TYPE_NAMES.length; i++) {
+                if (TYPE_NAMES[i].equals(name)) {
+                    return 1 << i;
+                }
+            }
+            throw new IllegalArgumentException(location + " has unknown type '" + name + "'");
+        }
+    }
+
+    private static final class Property {
+
+        Node schema;
+        long bit;
+    }
+
+    /**
+     * Integral numbers compare as longs and other numbers as doubles, so {@code 1} in a schema matches {@code 1} in
+     * a body whatever width either was read with.
+     */
+    private static Object normalize(Object value) {
+        if (value instanceof Number) {
+            Number number = (Number) value;
+            return value instanceof Double || value instanceof Float ? (Object) number.doubleValue()
+                    : (Object) number.longValue();
+        }
+        return value;
+    }
+
+    private static String typeNames(int types) {
+        StringJoiner names = new StringJoiner(" or ");
+        for (int i = 0; i < TYPE_NAMES.length; i++) {
+            if ((types & 1 << i) != 0 && !(i == 1 && (types & NUMBER) != 0)) {
+                names.add(TYPE_NAMES[i]);
+            }
+        }
+        return names.toString();
+    }
+
+    /**
+     * One pass over one body. The pointer is kept as a stack of segments and only rendered for a violation, so a
+     * valid element costs a token walk and a few map lookups.
+     */
+    private static final class Validation {
+
+        private static final class Full extends RuntimeException {
+
+            private static final long serialVersionUID = 1L;
+
+            Full() {
+                super(null, null, false, false);
+            }
+        }
+
+        private final JsonParser parser;
+        private final List<Violation> violations = new ArrayList<>();
+        private Object[] path = new Object[16];
+        private int depth;
+
+        Validation(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        List<Violation> run(Node root) throws IOException {
+            if (parser.nextToken() == null) {
+                violations.add(new Violation("", "is empty"));
+                return violations;
+            }
+            try {
+                value(root);
+            } catch (Full full) {
+                // LIMIT violations recorded, the rest of the body is not read
+            }
+            return violations;
+        }
+
+        private void value(Node node) throws IOException {
+            JsonToken token = parser.currentToken();
+            int type = typeOf(token);
+            if ((node.types & type) == 0 && !(type == INTEGER && (node.types & NUMBER) != 0)) {
+                fail("expected " + typeNames(node.types) + " but was " + typeNames(type));
+                parser.skipChildren();
+                return;
+            }
+            if (node.allowed != null && !node.allowed.contains(scalar(token))) {
+                fail(describe(token) + " is not one of " + node.allowedText);
+            }
+            switch (type) {
+                case OBJECT:
+                    object(node);
+                    break;
+                case ARRAY:
+                    array(node);
+                    break;
+                case STRING:
+                    string(node);
+                    break;
+                case INTEGER:
+                case NUMBER:
+                    if (node.minimum != null && parser.getDoubleValue() < node.minimum) {
+                        fail(parser.getText() + " is less than " + node.minimum);
+                    }
+                    break;
+                default:
+            }
+        }
+
+        private void object(Node node) throws IOException {
+            long seen = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                Property property = node.properties == null ? null : node.properties.get(name);
+                if (property != null) {
+                    seen |= property.bit;
+                }
+                Node schema = property != null && property.schema != null ? property.schema
+                        : property == null ? node.additional : null;
+                if (schema != null) {
+                    push(name);
+                    value(schema);
+                    depth--;
+                } else {
+                    if (property == null && node.closed) {
+                        push(name);
+                        fail("is not allowed");
+                        depth--;
+                    }
+                    parser.skipChildren();
+                }
+            }
+            if (seen != node.requiredMask) {
+                for (int i = 0; i < node.required.length; i++) {
+                    if ((seen & 1L << i) == 0) {
+                        fail("is missing required field '" + node.required[i] + "'");
+                    }
+                }
+            }
+        }
+
+        private void array(Node node) throws IOException {
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (node.items == null) {
+                    parser.skipChildren();
+                } else {
+                    push(index);
+                    value(node.items);
+                    depth--;
+                }
+                index++;
+            }
+            if (index < node.minItems) {
+                fail("has " + index + " items, fewer than " + node.minItems);
+            }
+        }
+
+        private void string(Node node) throws IOException {
+            if (node.minLength < 0 && node.pattern == null && !node.dateTime) {
+                return;
+            }
+            String text = parser.getText();
+            if (node.minLength >= 0 && text.codePointCount(0, text.length()) < node.minLength) {
+                fail(describe(text) + " is shorter than " + node.minLength);
+            }
+            if (node.pattern != null && !node.pattern.matcher(text).find()) {
+                fail(describe(text) + " does not match " + node.pattern);
+            }
+            if (node.dateTime) {
+                try {
+                    OffsetDateTime.parse(text);
+                } catch (DateTimeParseException e) {
+                    fail(describe(text) + " is not a date-time");
+                }
+            }
+        }
+
+        private Object scalar(JsonToken token) throws IOException {
+            switch (token) {
+                case VALUE_STRING:
+                    return parser.getText();
+                case VALUE_NUMBER_INT:
+                    return parser.getLongValue();
+                case VALUE_NUMBER_FLOAT:
+                    return parser.getDoubleValue();
+                case VALUE_TRUE:
+                    return Boolean.TRUE;
+                case VALUE_FALSE:
+                    return Boolean.FALSE;
+                case VALUE_NULL:
+                    return null;
+                default:
+                    return token;
+            }
+        }
+
+        private String describe(JsonToken token) throws IOException {
+            return token == JsonToken.VALUE_STRING ? describe(parser.getText())
+                    : token.isStructStart() ? typeNames(typeOf(token)) : parser.getText();
+        }
+
+        private static String describe(String text) {
+            return '"' + text + '"';
+        }
+
+        private static int typeOf(JsonToken token) {
+            switch (token) {
+                case START_OBJECT:
+                    return OBJECT;
+                case START_ARRAY:
+                    return ARRAY;
+                case VALUE_STRING:
+                    return STRING;
+                case VALUE_NUMBER_INT:
+                    return INTEGER;
+                case VALUE_NUMBER_FLOAT:
+                    return NUMBER;
+                case VALUE_TRUE:
+                case VALUE_FALSE:
+                    return BOOLEAN;
+                default:
+                    return NULL;
+            }
+        }
+
+        private void push(Object segment) {
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+            }
+            path[depth++] = segment;
+        }
+
+        private void fail(String message) {
+            StringBuilder pointer = new StringBuilder();
+            for (int i = 0; i < depth; i++) {
+                pointer.append('/').append(path[i].toString().replace("~", "~0").replace("/", "~1"));
+            }
+            violations.add(new Violation(pointer.toString(), message));
+            if (violations.size() >= LIMIT) {
+                throw new Full();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.cbt.utilities.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JsonSchemaTest {
+
+    private static final String HARRY = "{\"_id\":\"5a0fa4daae5bc100213c2332\",\"name\":\"Harry Potter\"," +
+            "\"house\":\"Gryffindor\",\"__v\":0,\"ministryOfMagic\":false,\"orderOfThePhoenix\":true," +
+            "\"dumbledoresArmy\":true,\"deathEater\":false,\"bloodStatus\":\"half-blood\",\"species\":\"human\"}";
+
+    private static final JsonSchema CHARACTERS = JsonSchema.load("character").arrayOf();
+
+    @Test
+    public void validRecordsHaveNoViolations() {
+        assertThat(CHARACTERS.validate(bytes("[" + HARRY + "," + HARRY + "]")), is(empty()));
+        assertThat(JsonSchema.load("character").arrayOf(), is(sameInstance(CHARACTERS)));
+    }
+
+    @Test
+    public void violationsArePointedAt() {
+        String broken = HARRY.replace("\"Gryffindor\"", "\"Durmstrang\"")
+                .replace("\"dumbledoresArmy\":true,", "")
+                .replace("\"deathEater\":false", "\"deathEater\":\"no\",\"wand/core\":\"phoenix\"");
+
+        List<String> violations = CHARACTERS.validate(bytes("[" + HARRY + "," + broken + "]")).stream()
+                .map(JsonSchema.Violation::toString).collect(Collectors.toList());
+
+        assertThat(violations, contains(
+                "/1/house \"Durmstrang\" is not one of [Gryffindor, Ravenclaw, Slytherin, Hufflepuff]",
+                "/1/deathEater expected boolean but was string",
+                "/1/wand~1core is not allowed",
+                "/1 is missing required field 'dumbledoresArmy'"));
+    }
+
+    @Test
+    public void keywordsApplyOnlyToTheirType() {
+        String house = "{\"_id\":\"5a05e2b252f721a3cf2ea33f\",\"name\":\"Gryffindor\",\"mascot\":\"lion\"," +
+                "\"headOfHouse\":\"Minerva McGonagall\",\"houseGhost\":\"Nearly Headless Nick\"," +
+                "\"founder\":\"Godric Gryffindor\",\"school\":\"Hogwarts\",\"values\":[\"courage\"]," +
+                "\"colors\":[\"scarlet\"],\"members\":[\"5a0fa4daae5bc100213c2332\"," +
+                "{\"_id\":\"5a0fa4daae5bc100213c2338\",\"name\":\"Remus Lupin\"},\"x\",{\"name\":\"Nobody\"},7]}";
+
+        List<String> violations = JsonSchema.load("house").validate(bytes(house)).stream()
+                .map(JsonSchema.Violation::toString).collect(Collectors.toList());
+
+        assertThat(violations, contains(
+                "/members/2 \"x\" does not match ^[0-9a-f]{24}$",
+                "/members/3 is missing required field '_id'",
+                "/members/4 expected string or object but was integer"));
+    }
+
+    @Test
+    public void reportingStopsAtTheLimit() {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < JsonSchema.LIMIT * 2; i++) {
+            body.append(i == 0 ? "" : ",").append("{}");
+        }
+
+        List<JsonSchema.Violation> violations = CHARACTERS.validate(bytes(body.append(']').toString()));
+
+        assertThat(violations, hasSize(JsonSchema.LIMIT));
+        assertThat(violations.get(0).pointer(), is("/0"));
+    }
+
+    @Test
+    public void unsupportedKeywordsFailToCompile() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> JsonSchema.compile("odd", bytes("{\"properties\":{\"a\":{\"oneOf\":[]}}}")));
+
+        assertThat(error.getMessage(), is("#/properties/a/oneOf is not supported"));
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
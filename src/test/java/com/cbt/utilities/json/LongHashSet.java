@@ -0,0 +1,71 @@
+package com.cbt.utilities.json;
+
+/**
+ * Open-addressing set of primitive longs that also remembers the row each value was first seen at.
+ *
+ * Keys live in one {@code long[]} probed linearly, with 0 as the empty slot and the value 0 itself kept aside.
+ */
+final class LongHashSet {
+
+    private long[] keys;
+    private int[] rows;
+    private int mask;
+    private int size;
+    private int zeroRow = -1;
+
+    LongHashSet(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        keys = new long[capacity];
+        rows = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Adds the value, or returns the row it was first added at if it is already present; -1 when it was new.
+     */
+    int addOrGetRow(long value, int row) {
+        if (value == 0) {
+            if (zeroRow >= 0) {
+                return zeroRow;
+            }
+            zeroRow = row;
+            size++;
+            return -1;
+        }
+        int slot = (int) Hashing.mix(value) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == value) {
+                return rows[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = value;
+        rows[slot] = row;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+        return -1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldRows = rows;
+        keys = new long[oldKeys.length * 2];
+        rows = new int[oldKeys.length * 2];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = (int) Hashing.mix(oldKeys[i]) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                rows[slot] = oldRows[i];
+            }
+        }
+    }
+}
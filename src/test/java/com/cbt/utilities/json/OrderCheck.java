@@ -0,0 +1,170 @@
+package com.cbt.utilities.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Sortedness check over one path of streamed JSON bodies, in one pass that keeps only the previous value.
+ *
+ * Every value is compared with the one before it as it arrives, across all bodies fed to the same instance, so the
+ * pages of a list can be checked as they come in. Equal neighbours are in order. A row without the path counts as
+ * {@code null}, which sorts first.
+ * <pre>
+ * OrderCheck&lt;Instant&gt; created = OrderCheck.of("created_at", Ordering.isoInstant(), Direction.DESCENDING);
+ * pages.forEach(page -&gt; OrderCheck.scan(page, created));
+ * assertThat(created, isInOrder());
+ * </pre>
+ */
+public class OrderCheck<T> extends PathCheck {
+
+    public enum Direction {
+        ASCENDING, DESCENDING
+    }
+
+    /**
+     * The first neighbours found in the wrong order.
+     */
+    public static final class Violation {
+
+        private final String path;
+        private final Direction direction;
+        private final int index;
+        private final String previous;
+        private final String value;
+
+        Violation(String path, Direction direction, int index, String previous, String value) {
+            this.path = path;
+            this.direction = direction;
+            this.index = index;
+            this.previous = previous;
+            this.value = value;
+        }
+
+        /**
+         * Row of the second value of the pair; the first is at {@code index - 1}.
+         */
+        public int index() {
+            return index;
+        }
+
+        public String previous() {
+            return previous;
+        }
+
+        public String value() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "'" + path + "' is not " + direction.name().toLowerCase() + " at index " + index + ": "
+                    + quote(value) + " comes after " + quote(previous);
+        }
+
+        private static String quote(String text) {
+            return text == null ? "null" : '"' + text + '"';
+        }
+    }
+
+    private final Ordering<T> ordering;
+    private final Direction direction;
+
+    private T previous;
+    private String previousText;
+    private boolean started;
+    private boolean seenInRow;
+    private int rows;
+    private Violation violation;
+
+    private OrderCheck(String path, Ordering<T> ordering, Direction direction) {
+        super(path);
+        this.ordering = ordering;
+        this.direction = direction;
+    }
+
+    public static <T> OrderCheck<T> of(String path, Ordering<T> ordering, Direction direction) {
+        return new OrderCheck<>(path, ordering, direction);
+    }
+
+    /**
+     * Feeds one body to every check in a single pass.
+     */
+    public static void scan(Response response, OrderCheck<?>... checks) {
+        scan(response.asByteArray(), checks);
+    }
+
+    public static void scan(byte[] json, OrderCheck<?>... checks) {
+        PathCheck.scan(json, checks);
+    }
+
+    /**
+     * Feeds a streamed body, such as a {@code SpilledBody}, to every check without holding it in memory.
+     */
+    public static void scan(InputStream json, OrderCheck<?>... checks) {
+        PathCheck.scan(json, checks);
+    }
+
+    public String path() {
+        return path;
+    }
+
+    public Ordering<T> ordering() {
+        return ordering;
+    }
+
+    public Direction direction() {
+        return direction;
+    }
+
+    /**
+     * Rows seen so far.
+     */
+    public int count() {
+        return rows;
+    }
+
+    public Optional<Violation> violation() {
+        return Optional.ofNullable(violation);
+    }
+
+    @Override
+    void startRow() {
+        seenInRow = false;
+    }
+
+    @Override
+    void value(JsonParser parser, JsonToken token) throws IOException {
+        seenInRow = true;
+        next(token == JsonToken.VALUE_NULL ? null : parser.getText());
+    }
+
+    @Override
+    void endRow() {
+        if (!seenInRow) {
+            next(null);
+        }
+        rows++;
+    }
+
+    private void next(String text) {
+        if (violation != null) {
+            return;
+        }
+        T value = ordering.read(text);
+        if (started) {
+            int order = ordering.compare(previous, value);
+            if (direction == Direction.ASCENDING ? order > 0 : order < 0) {
+                violation = new Violation(path, direction, rows, previousText, text);
+                return;
+            }
+        }
+        previous = value;
+        previousText = text;
+        started = true;
+    }
+}
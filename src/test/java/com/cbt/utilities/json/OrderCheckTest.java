@@ -0,0 +1,71 @@
+package com.cbt.utilities.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Locale;
+
+import static com.cbt.utilities.json.OrderCheck.Direction.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class OrderCheckTest {
+
+    private static byte[] json(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void comparesTimestampsAsInstantsAcrossBodies() {
+        OrderCheck<Instant> created = OrderCheck.of("created_at", Ordering.isoInstant(), DESCENDING);
+
+        OrderCheck.scan(json("[{\"created_at\":\"2018-04-18T10:05:08Z\"},{\"created_at\":\"2018-04-18T12:00:00+02:00\"}]"),
+                created);
+        OrderCheck.scan(json("[{\"created_at\":\"2011-10-04T05:07:27Z\"}]"), created);
+        assertThat(created.violation().isPresent(), is(false));
+
+        OrderCheck.scan(json("[{\"created_at\":\"2011-10-04T05:07:28Z\"}]"), created);
+        assertThat(created.count(), is(4));
+        assertThat(created.violation().get().toString(), is("'created_at' is not descending at index 3: "
+                + "\"2011-10-04T05:07:28Z\" comes after \"2011-10-04T05:07:27Z\""));
+    }
+
+    @Test
+    public void collationIgnoresCaseWhereNaturalOrderDoesNot() {
+        byte[] names = json("[{\"full_name\":\"cucumber/Aruba\"},{\"full_name\":\"cucumber/bool\"},"
+                + "{\"full_name\":\"cucumber/Common\"}]");
+        OrderCheck<String> collated = OrderCheck.of("full_name", Ordering.collated(Locale.ENGLISH), ASCENDING);
+        OrderCheck<String> natural = OrderCheck.of("full_name", Ordering.natural(), ASCENDING);
+
+        OrderCheck.scan(names, collated, natural);
+
+        assertThat(collated.violation().isPresent(), is(false));
+        assertThat(natural.violation().get().index(), is(2));
+        assertThat(natural.violation().get().previous(), is("cucumber/bool"));
+    }
+
+    @Test
+    public void caseInsensitiveOrderKeepsPunctuation() {
+        byte[] names = json("[{\"full_name\":\"cucumber/cucumber-js-pretty-formatter\"},"
+                + "{\"full_name\":\"cucumber/Cucumber-json-schema\"}]");
+        OrderCheck<String> github = OrderCheck.of("full_name", Ordering.caseInsensitive(Locale.ROOT), ASCENDING);
+        OrderCheck<String> collated = OrderCheck.of("full_name", Ordering.collated(Locale.ENGLISH), ASCENDING);
+
+        OrderCheck.scan(names, github, collated);
+
+        assertThat(github.violation().isPresent(), is(false));
+        assertThat(collated.violation().get().index(), is(1));
+    }
+
+    @Test
+    public void equalNeighboursAndLeadingNullsAreInOrder() {
+        OrderCheck<Double> stars = OrderCheck.of("stars", Ordering.numeric(), ASCENDING);
+
+        OrderCheck.scan(json("[{},{\"stars\":null},{\"stars\":1},{\"stars\":1.0},{\"stars\":20}]"), stars);
+        assertThat(stars.violation().isPresent(), is(false));
+
+        OrderCheck.scan(json("[{\"stars\":3}]"), stars);
+        assertThat(stars.violation().get().index(), is(5));
+    }
+}
@@ -0,0 +1,79 @@
+package com.cbt.utilities.json;
+
+import java.text.Collator;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * How the text of a JSON value is read and compared for an {@link OrderCheck}. Null and missing values sort first.
+ */
+public final class Ordering<T> {
+
+    private final String name;
+    private final Function<String, T> reader;
+    private final Comparator<? super T> comparator;
+
+    private Ordering(String name, Function<String, T> reader, Comparator<? super T> comparator) {
+        this.name = name;
+        this.reader = reader;
+        this.comparator = Comparator.nullsFirst(comparator);
+    }
+
+    public static <T> Ordering<T> of(String name, Function<String, T> reader, Comparator<? super T> comparator) {
+        return new Ordering<>(name, reader, comparator);
+    }
+
+    /**
+     * Strings by UTF-16 code unit, as {@code String.compareTo}.
+     */
+    public static Ordering<String> natural() {
+        return of("natural", Function.identity(), Comparator.naturalOrder());
+    }
+
+    /**
+     * Strings by the collation rules of a locale, ignoring case. Collators also skip punctuation such as {@code -},
+     * which is right for people's names but not for what GitHub sorts; use {@link #caseInsensitive} there.
+     */
+    public static Ordering<String> collated(Locale locale) {
+        Collator collator = Collator.getInstance(locale);
+        collator.setStrength(Collator.SECONDARY);
+        return of("collated " + locale, Function.identity(), collator::compare);
+    }
+
+    /**
+     * Strings lower-cased with the rules of a locale, then by code unit: how GitHub orders {@code full_name}.
+     */
+    public static Ordering<String> caseInsensitive(Locale locale) {
+        return of("case-insensitive " + locale, text -> text.toLowerCase(locale), Comparator.naturalOrder());
+    }
+
+    /**
+     * ISO-8601 timestamps with an offset, such as {@code 2011-10-04T05:07:27Z}, by the instant they name.
+     */
+    public static Ordering<Instant> isoInstant() {
+        return of("ISO-8601 instant", text -> OffsetDateTime.parse(text).toInstant(), Comparator.naturalOrder());
+    }
+
+    /**
+     * Numbers by value.
+     */
+    public static Ordering<Double> numeric() {
+        return of("numeric", Double::valueOf, Comparator.naturalOrder());
+    }
+
+    T read(String text) {
+        return text == null ? null : reader.apply(text);
+    }
+
+    int compare(T left, T right) {
+        return comparator.compare(left, right);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,118 @@
+package com.cbt.utilities.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * A check fed the values of one dotted path, row by row, while a body streams past. Rows are counted the way
+ * {@link JsonColumns} counts them, and a path that crosses an array feeds every element's value to the same row.
+ */
+abstract class PathCheck {
+
+    final String path;
+    private final String[] segments;
+
+    PathCheck(String path) {
+        this.path = path;
+        this.segments = path.isEmpty() ? new String[0] : path.split("\\.");
+    }
+
+    abstract void startRow();
+
+    /**
+     * Called with the parser on a scalar value at the path.
+     */
+    abstract void value(JsonParser parser, JsonToken token) throws IOException;
+
+    abstract void endRow();
+
+    /**
+     * Feeds one body to every check in a single pass.
+     */
+    static void scan(byte[] json, PathCheck... checks) {
+        try (JsonParser parser = JsonColumns.FACTORY.createParser(json)) {
+            scan(parser, checks);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot scan " + Arrays.toString(checks), e);
+        }
+    }
+
+    static void scan(InputStream json, PathCheck... checks) {
+        try (JsonParser parser = JsonColumns.FACTORY.createParser(json)) {
+            scan(parser, checks);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot scan " + Arrays.toString(checks), e);
+        }
+    }
+
+    private static void scan(JsonParser parser, PathCheck... checks) throws IOException {
+        Node root = new Node();
+        for (PathCheck check : checks) {
+            Node node = root;
+            for (String segment : check.segments) {
+                node = node.children.computeIfAbsent(segment, s -> new Node());
+            }
+            node.checks.add(check);
+        }
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_ARRAY) {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                readRow(parser, root, checks);
+            }
+        } else if (token != null) {
+            readRow(parser, root, checks);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    private static void readRow(JsonParser parser, Node root, PathCheck[] checks) throws IOException {
+        for (PathCheck check : checks) {
+            check.startRow();
+        }
+        read(parser, root);
+        for (PathCheck check : checks) {
+            check.endRow();
+        }
+    }
+
+    private static void read(JsonParser parser, Node node) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_ARRAY) {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                read(parser, node);
+            }
+        } else if (token == JsonToken.START_OBJECT) {
+            if (!node.checks.isEmpty()) {
+                throw new IllegalArgumentException("'" + node.checks.get(0).path + "' is an object, not a value");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Node child = node.children.get(parser.getCurrentName());
+                parser.nextToken();
+                if (child == null) {
+                    parser.skipChildren();
+                } else {
+                    read(parser, child);
+                }
+            }
+        } else {
+            for (PathCheck check : node.checks) {
+                check.value(parser, token);
+            }
+        }
+    }
+
+    private static final class Node {
+
+        final Map<String, Node> children = new HashMap<>();
+        final List<PathCheck> checks = new ArrayList<>(1);
+    }
+}
@@ -0,0 +1,97 @@
+package com.cbt.utilities.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * A JSON list of any length shaped like a recorded one, for trying checks on bodies far larger than the real API
+ * returns. Element {@code i} is recorded element {@code i % n}; from the second round on, its identifying fields get
+ * the round appended (numbers are shifted instead) so uniqueness checks still pass. Elements are written one at a
+ * time, so millions of them never sit in memory.
+ * <pre>
+ * SyntheticArray characters = SyntheticArray.of(recordedBody, "_id", "name");
+ * characters.write(out, 5_000_000);
+ * </pre>
+ */
+public final class SyntheticArray {
+
+    private final List<Map<String, Object>> elements;
+    private final String[] uniqueFields;
+
+    private SyntheticArray(List<Map<String, Object>> elements, String[] uniqueFields) {
+        this.elements = elements;
+        this.uniqueFields = uniqueFields;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static SyntheticArray of(byte[] recordedArray, String... uniqueFields) {
+        Object parsed = JsonQuery.parse(recordedArray);
+        if (!(parsed instanceof List) || ((List<?>) parsed).isEmpty()) {
+            throw new IllegalArgumentException("Recorded body is not a non-empty JSON array");
+        }
+        List<Map<String, Object>> elements = new ArrayList<>();
+        for (Object element : (List<?>) parsed) {
+            if (!(element instanceof Map)) {
+                throw new IllegalArgumentException("Recorded body holds " + element + ", not only objects");
+            }
+            elements.add((Map<String, Object>) element);
+        }
+        return new SyntheticArray(elements, uniqueFields);
+    }
+
+    /**
+     * Number of distinct recorded elements one round goes through.
+     */
+    public int recorded() {
+        return elements.size();
+    }
+
+    /**
+     * Writes a list of {@code count} elements; the stream is flushed but left open.
+     */
+    public void write(OutputStream out, long count) {
+        try (JsonGenerator generator = JsonColumns.FACTORY.createGenerator(out)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.setCodec(Json.MAPPER);
+            generator.writeStartArray();
+            for (long i = 0; i < count; i++) {
+                generator.writeObject(element(i));
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write synthetic array", e);
+        }
+    }
+
+    public byte[] toBytes(int count) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(out, count);
+        return out.toByteArray();
+    }
+
+    /**
+     * Element {@code i} of the list.
+     */
+    public Map<String, Object> element(long i) {
+        Map<String, Object> recorded = elements.get((int) (i % elements.size()));
+        long round = i / elements.size();
+        if (round == 0) {
+            return recorded;
+        }
+        Map<String, Object> copy = new LinkedHashMap<>(recorded);
+        for (String field : uniqueFields) {
+            Object value = copy.get(field);
+            if (value instanceof Number) {
+                copy.put(field, ((Number) value).longValue() + round * 10_000_000_000L);
+            } else if (value != null) {
+                copy.put(field, value + "-" + round);
+            }
+        }
+        return copy;
+    }
+}
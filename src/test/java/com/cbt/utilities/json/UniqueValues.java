@@ -0,0 +1,231 @@
+package com.cbt.utilities.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Uniqueness check over one path of streamed JSON bodies, fed page by page without boxing or keeping the values as
+ * objects.
+ *
+ * Rows are counted the way {@link JsonColumns} counts them, across every body fed to the same instance. Integer
+ * values go into a primitive {@code long} set; strings and every other value go into a set of byte slices, so
+ * {@code 1} and {@code "1"} stay different. A row without the path counts as {@code null}, like the {@code HashSet}
+ * of extracted values this replaces. Once a duplicate is found the rest is only counted.
+ *
+ * {@link #probable} swaps both sets for a Bloom filter sized up front, for columns of millions of values where a
+ * small chance of a false duplicate is acceptable; its report cannot name the first occurrence.
+ * <pre>
+ * UniqueValues ids = UniqueValues.exact("id");
+ * pages.forEach(page -&gt; UniqueValues.scan(page, ids));
+ * assertThat(ids, hasNoDuplicates());
+ * </pre>
+ */
+public class UniqueValues extends PathCheck {
+
+    /**
+     * The first value seen twice. {@code firstIndex} is -1 when the check was probabilistic.
+     */
+    public static final class Duplicate {
+
+        private final String path;
+        private final String value;
+        private final int index;
+        private final int firstIndex;
+
+        Duplicate(String path, String value, int index, int firstIndex) {
+            this.path = path;
+            this.value = value;
+            this.index = index;
+            this.firstIndex = firstIndex;
+        }
+
+        public String value() {
+            return value;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public int firstIndex() {
+            return firstIndex;
+        }
+
+        @Override
+        public String toString() {
+            return firstIndex < 0
+                    ? "'" + path + "' probably repeats " + value + " at index " + index
+                    : "'" + path + "' repeats " + value + " at index " + index + ", first seen at index " + firstIndex;
+        }
+    }
+
+    private static final byte STRING = 's';
+    private static final byte NUMBER = 'n';
+    private static final byte BOOLEAN = 'b';
+    private static final byte NULL = 'z';
+
+    private final int expected;
+    private final BloomFilter bloom;
+
+    private LongHashSet longs;
+    private ByteSliceSet slices;
+    private byte[] scratch = new byte[64];
+    private int rows;
+    private boolean seenInRow;
+    private Duplicate duplicate;
+
+    private UniqueValues(String path, int expected, BloomFilter bloom) {
+        super(path);
+        this.expected = expected;
+        this.bloom = bloom;
+    }
+
+    public static UniqueValues exact(String path) {
+        return new UniqueValues(path, 256, null);
+    }
+
+    public static UniqueValues probable(String path, long expected, double falsePositiveRate) {
+        return new UniqueValues(path, 0, new BloomFilter(expected, falsePositiveRate));
+    }
+
+    /**
+     * Feeds one body to every check in a single pass.
+     */
+    public static void scan(Response response, UniqueValues... checks) {
+        scan(response.asByteArray(), checks);
+    }
+
+    public static void scan(byte[] json, UniqueValues... checks) {
+        PathCheck.scan(json, checks);
+    }
+
+    /**
+     * Feeds a streamed body, such as a {@code SpilledBody}, to every check without holding it in memory.
+     */
+    public static void scan(InputStream json, UniqueValues... checks) {
+        PathCheck.scan(json, checks);
+    }
+
+    public String path() {
+        return path;
+    }
+
+    /**
+     * Rows seen so far.
+     */
+    public int count() {
+        return rows;
+    }
+
+    public Optional<Duplicate> duplicate() {
+        return Optional.ofNullable(duplicate);
+    }
+
+    @Override
+    void startRow() {
+        seenInRow = false;
+    }
+
+    @Override
+    void endRow() {
+        if (!seenInRow) {
+            addText(NULL, null, 0, 0, null);
+        }
+        rows++;
+    }
+
+    @Override
+    void value(JsonParser parser, JsonToken token) throws IOException {
+        seenInRow = true;
+        if (duplicate != null) {
+            return;
+        }
+        switch (token) {
+            case VALUE_NUMBER_INT:
+                if (parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                    addLong(parser.getLongValue());
+                    return;
+                }
+                addText(NUMBER, parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength(), parser);
+                return;
+            case VALUE_NUMBER_FLOAT:
+                addText(NUMBER, parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength(), parser);
+                return;
+            case VALUE_STRING:
+                addText(STRING, parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength(), parser);
+                return;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                addText(BOOLEAN, parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength(), parser);
+                return;
+            default:
+                addText(NULL, null, 0, 0, null);
+        }
+    }
+
+    private void addLong(long value) {
+        if (bloom != null) {
+            if (bloom.put(Hashing.mix(value))) {
+                duplicate = new Duplicate(path, Long.toString(value), rows, -1);
+            }
+            return;
+        }
+        if (longs == null) {
+            longs = new LongHashSet(expected);
+        }
+        int first = longs.addOrGetRow(value, rows);
+        if (first >= 0) {
+            duplicate = new Duplicate(path, Long.toString(value), rows, first);
+        }
+    }
+
+    /**
+     * Adds a non-integer value as its kind byte followed by its characters, encoded the way UTF-8 encodes them but
+     * one {@code char} at a time, which keeps equal strings equal and different strings different.
+     */
+    private void addText(byte kind, char[] chars, int offset, int length, JsonParser parser) {
+        if (duplicate != null) {
+            return;
+        }
+        if (scratch.length < 1 + length * 3) {
+            scratch = new byte[Math.max(scratch.length * 2, 1 + length * 3)];
+        }
+        byte[] bytes = scratch;
+        int size = 0;
+        bytes[size++] = kind;
+        for (int i = offset; i < offset + length; i++) {
+            char c = chars[i];
+            if (c < 0x80) {
+                bytes[size++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[size++] = (byte) (0xc0 | c >> 6);
+                bytes[size++] = (byte) (0x80 | c & 0x3f);
+            } else {
+                bytes[size++] = (byte) (0xe0 | c >> 12);
+                bytes[size++] = (byte) (0x80 | c >> 6 & 0x3f);
+                bytes[size++] = (byte) (0x80 | c & 0x3f);
+            }
+        }
+        long hash = Hashing.bytes(bytes, size);
+        boolean repeated;
+        int first = -1;
+        if (bloom != null) {
+            repeated = bloom.put(hash);
+        } else {
+            if (slices == null) {
+                slices = new ByteSliceSet(expected);
+            }
+            first = slices.addOrGetRow(bytes, size, (int) (hash ^ hash >>> 32), rows);
+            repeated = first >= 0;
+        }
+        if (repeated) {
+            String value = parser == null ? "null" : new String(chars, offset, length);
+            duplicate = new Duplicate(path, kind == STRING ? '"' + value + '"' : value, rows, first);
+        }
+    }
+}
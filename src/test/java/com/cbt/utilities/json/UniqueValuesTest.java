@@ -0,0 +1,74 @@
+package com.cbt.utilities.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class UniqueValuesTest {
+
+    private static byte[] json(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void reportsTheFirstDuplicateAcrossBodies() {
+        UniqueValues ids = UniqueValues.exact("id");
+        UniqueValues nodeIds = UniqueValues.exact("node_id");
+
+        UniqueValues.scan(json("[{\"id\":0,\"node_id\":\"a\"},{\"id\":7,\"node_id\":\"b\"}]"), ids, nodeIds);
+        UniqueValues.scan(json("[{\"id\":9,\"node_id\":\"c\"},{\"id\":7,\"node_id\":\"c\"},{\"id\":0}]"), ids, nodeIds);
+
+        assertThat(ids.count(), is(5));
+        assertThat(ids.duplicate().get().value(), is("7"));
+        assertThat(ids.duplicate().get().index(), is(3));
+        assertThat(ids.duplicate().get().firstIndex(), is(1));
+        assertThat(nodeIds.duplicate().get().toString(),
+                is("'node_id' repeats \"c\" at index 3, first seen at index 2"));
+    }
+
+    @Test
+    public void keepsKindsApartAndTreatsMissingAsNull() {
+        UniqueValues values = UniqueValues.exact("owner.id");
+
+        UniqueValues.scan(json("[{\"owner\":{\"id\":1}},{\"owner\":{\"id\":\"1\"}},{\"owner\":{\"id\":1.0}},"
+                + "{\"owner\":{\"id\":true}},{\"owner\":{\"id\":\"é中\"}},{\"owner\":{}}]"), values);
+        assertThat(values.duplicate().isPresent(), is(false));
+
+        UniqueValues.scan(json("[{\"owner\":{\"id\":null}}]"), values);
+        assertThat(values.duplicate().get().firstIndex(), is(5));
+    }
+
+    @Test
+    public void growsPastTheInitialCapacity() {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 5000; i++) {
+            body.append("{\"id\":").append(i * 31L).append(",\"name\":\"repo-").append(i).append("\"},");
+        }
+        body.append("{\"id\":31,\"name\":\"repo-4999\"}]");
+        UniqueValues ids = UniqueValues.exact("id");
+        UniqueValues names = UniqueValues.exact("name");
+
+        UniqueValues.scan(json(body.toString()), ids, names);
+
+        assertThat(ids.duplicate().get().firstIndex(), is(1));
+        assertThat(names.duplicate().get().firstIndex(), is(4999));
+    }
+
+    @Test
+    public void probableModeFindsDuplicatesWithoutTheirFirstIndex() {
+        UniqueValues ids = UniqueValues.probable("id", 100_000, 1e-6);
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 100_000; i++) {
+            body.append("{\"id\":").append(i).append("},");
+        }
+        body.append("{\"id\":42}]");
+
+        UniqueValues.scan(json(body.toString()), ids);
+
+        assertThat(ids.duplicate().get().index(), is(100_000));
+        assertThat(ids.duplicate().get().firstIndex(), is(-1));
+    }
+}
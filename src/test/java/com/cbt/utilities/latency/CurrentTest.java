@@ -0,0 +1,65 @@
+package com.cbt.utilities.latency;
+
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestIdentifier;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * Name of the test running on the current thread, as {@code Class#method}. Threads a test starts, such as the
+ * paginator's page fetchers, inherit it.
+ */
+public final class CurrentTest {
+
+    /**
+     * The name of a thread that no test name reached.
+     */
+    public static final String UNNAMED = "-";
+
+    private static final InheritableThreadLocal<String> NAME = new InheritableThreadLocal<>();
+
+    private CurrentTest() {
+    }
+
+    public static String name() {
+        String name = NAME.get();
+        return name == null ? UNNAMED : name;
+    }
+
+    /**
+     * The name a test method is known by here, {@code Class#method}; empty for containers.
+     */
+    public static Optional<String> nameOf(TestIdentifier testIdentifier) {
+        return testIdentifier.getSource()
+                .filter(MethodSource.class::isInstance)
+                .map(MethodSource.class::cast)
+                .map(method -> simpleName(method.getClassName()) + "#" + method.getMethodName());
+    }
+
+    /**
+     * Runs a piece of a test under its own name, for checks that run on a worker thread rather than as a JUnit test
+     * of their own. The thread's previous name is restored afterwards.
+     */
+    public static <T> T callAs(String name, Callable<T> work) throws Exception {
+        String previous = NAME.get();
+        NAME.set(name);
+        try {
+            return work.call();
+        } finally {
+            NAME.set(previous);
+        }
+    }
+
+    static void set(String name) {
+        NAME.set(name);
+    }
+
+    static void clear() {
+        NAME.remove();
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,47 @@
+package com.cbt.utilities.latency;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event for every request that went over the network, so request phases line up with GC, thread and I/O
+ * events in a flight recording ({@code -XX:StartFlightRecording}). Costs nothing when no recording is running.
+ */
+@Name("com.cbt.HttpRequest")
+@Label("HTTP Request")
+@Category({"REST Assured", "HTTP"})
+@StackTrace(false)
+class HttpRequestEvent extends Event {
+
+    @Label("Test")
+    String test;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Status")
+    int status;
+
+    @Label("DNS")
+    @Timespan
+    long dns;
+
+    @Label("Connect")
+    @Timespan
+    long connect;
+
+    @Label("TLS")
+    @Timespan
+    long tls;
+
+    @Label("Time To First Byte")
+    @Timespan
+    long timeToFirstByte;
+
+    @Label("Download")
+    @Timespan
+    long download;
+
+    @Label("Body Size")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,71 @@
+package com.cbt.utilities.latency;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-endpoint p95 latency budgets for a test class. After the class has run, every endpoint with a budget is
+ * checked against the requests the class's own tests sent to it, leaving out the ones that ran while the JVM was
+ * still warming up, and the class fails if one is over budget:
+ * <pre>
+ * &#64;RegisterExtension
+ * static final LatencyBudget BUDGET = LatencyBudget.p95()
+ *         .endpoint("GET /orgs/{org}/repos", Duration.ofMillis(800));
+ * </pre>
+ * {@code -Dlatency.budgetFactor} scales every budget, to run the same suite against a slower environment.
+ */
+public class LatencyBudget implements AfterAllCallback {
+
+    private final double percentile;
+    private final Map<String, Duration> budgets = new LinkedHashMap<>();
+    private final LatencyRecorder recorder;
+
+    LatencyBudget(double percentile, LatencyRecorder recorder) {
+        this.percentile = percentile;
+        this.recorder = recorder;
+    }
+
+    public static LatencyBudget p95() {
+        return new LatencyBudget(95, LatencyRecorder.shared());
+    }
+
+    /**
+     * Budget for an endpoint, written as method and path template: {@code "GET /orgs/{org}"}.
+     */
+    public LatencyBudget endpoint(String endpoint, Duration budget) {
+        budgets.put(endpoint, budget);
+        return this;
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        check(context.getRequiredTestClass().getSimpleName());
+    }
+
+    /**
+     * Checks the budgets against the requests of the tests named {@code testClass#...}.
+     */
+    void check(String testClass) {
+        String prefix = testClass + "#";
+        double factor = Double.parseDouble(System.getProperty("latency.budgetFactor", "1"));
+        List<String> exceeded = new ArrayList<>();
+        budgets.forEach((endpoint, budget) -> {
+            long measured = recorder.percentile(record -> record.getEndpoint().equals(endpoint)
+                    && record.getTest().startsWith(prefix) && !record.isWarmUp(), percentile);
+            long allowed = (long) (budget.toNanos() * factor);
+            if (measured > allowed) {
+                exceeded.add(String.format("%s p%.0f %.1f ms > %.1f ms", endpoint, percentile, measured / 1e6,
+                        allowed / 1e6));
+            }
+        });
+        if (!exceeded.isEmpty()) {
+            throw new AssertionError("Latency budget exceeded: " + String.join("; ", exceeded));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.cbt.utilities.latency;
+
+import com.cbt.utilities.json.Json;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LatencyBudgetTest {
+
+    private static final String ORG = "GET /orgs/{org}";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void budgetOnlyCountsItsOwnClassAfterWarmUp() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.add(record("GitHubApiTesting#test3[cucumber]", 900, true));
+        recorder.add(record("GitHubApiTesting#test5[cucumber]", 40, false));
+        recorder.add(record("GitHubScenarioTests#verifyOrganizationInformation", 900, false));
+        LatencyBudget budget = new LatencyBudget(95, recorder).endpoint(ORG, Duration.ofMillis(100));
+
+        budget.check("GitHubApiTesting");
+        AssertionError error = assertThrows(AssertionError.class, () -> budget.check("GitHubScenarioTests"));
+        assertThat(error.getMessage(), containsString(ORG + " p95 900.0 ms"));
+    }
+
+    @Test
+    public void exportedSummaryKeepsWarmUpRequests() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.add(record("GitHubApiTesting#test3[cucumber]", 900, true));
+        recorder.add(record("GitHubApiTesting#test5[cucumber]", 40, false));
+
+        recorder.export(dir);
+
+        JsonNode endpoint = Json.MAPPER.readTree(dir.resolve("latency.json").toFile()).path("endpoints").get(0);
+        assertThat(endpoint.path("count").asInt(), is(2));
+        assertThat(endpoint.path("warmUpCount").asInt(), is(1));
+        assertThat(endpoint.path("maxMillis").asDouble(), is(900.0));
+    }
+
+    private static LatencyRecord record(String test, long millis, boolean warmUp) {
+        long nanos = Duration.ofMillis(millis).toNanos();
+        return new LatencyRecord(test, ORG, 200, 0, 0, 0, nanos, 0, nanos, 1024, warmUp);
+    }
+}
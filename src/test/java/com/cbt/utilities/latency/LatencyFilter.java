@@ -0,0 +1,76 @@
+package com.cbt.utilities.latency;
+
+import com.cbt.utilities.http.RequestTimings;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Records DNS, connect, TLS, time to first byte, download time and body size of every request, tagged with the
+ * running test and the endpoint template.
+ *
+ * It runs just before the transport, after the response cache, so only requests that really went over the network
+ * are measured. Each request is kept in {@link LatencyRecorder} and emitted as a {@link HttpRequestEvent}.
+ */
+public class LatencyFilter implements OrderedFilter {
+
+    private static final LatencyFilter SHARED = new LatencyFilter(LatencyRecorder.shared());
+
+    private final LatencyRecorder recorder;
+
+    public LatencyFilter(LatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public static LatencyFilter shared() {
+        return SHARED;
+    }
+
+    public static boolean enabled() {
+        return Boolean.parseBoolean(System.getProperty("latency.enabled", "true"));
+    }
+
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE - 1;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+        RequestTimings timings = RequestTimings.start();
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } finally {
+            RequestTimings.finish();
+        }
+        long end = System.nanoTime();
+        event.end();
+
+        long bytes = response.asByteArray().length;
+        long download = timings.firstByteAt() == 0 ? 0 : end - timings.firstByteAt();
+        LatencyRecord record = new LatencyRecord(CurrentTest.name(), RequestTimings.endpoint(requestSpec),
+                response.statusCode(), timings.dnsNanos(), timings.connectNanos(), timings.tlsNanos(),
+                timings.timeToFirstByteNanos(), download, end - timings.startedAt(), bytes, recorder.warmUp(timings.startedAt(), end));
+        recorder.add(record);
+
+        if (event.shouldCommit()) {
+            event.test = record.getTest();
+            event.endpoint = record.getEndpoint();
+            event.status = record.getStatus();
+            event.dns = timings.dnsNanos();
+            event.connect = timings.connectNanos();
+            event.tls = timings.tlsNanos();
+            event.timeToFirstByte = timings.timeToFirstByteNanos();
+            event.download = download;
+            event.bytes = bytes;
+            event.commit();
+        }
+        return response;
+    }
+}
@@ -0,0 +1,328 @@
+package com.cbt.utilities.latency;
+
+import com.cbt.utilities.stub.StubMode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Request times and body sizes of every run, per endpoint, kept between runs and compared with the runs before.
+ *
+ * Each run is appended to the file as one block: magic, length, the time it was recorded, then for every endpoint
+ * its name and the total time (in microseconds) and body size of each request that answered 2xx after warm-up.
+ * A block cut short by a killed JVM is skipped when reading. The file only keeps the runs a comparison reads:
+ * appending drops the oldest block once there are more than {@code -Dlatency.history.runs}. Runs go to one file
+ * per {@link StubMode} under {@code -Dlatency.history.dir} ({@code .latency-history}), since a stub's timings say
+ * nothing about the real server's.
+ *
+ * An endpoint regresses when its times or sizes in this run are larger than in the last
+ * {@code -Dlatency.history.runs} (5) runs together, with a Mann-Whitney p below {@code -Dlatency.history.alpha}
+ * (0.01), and its median grew by more than {@code -Dlatency.history.minGrowth} (0.1). The second condition keeps a
+ * large sample from flagging a shift nobody would notice. Both sides need {@code -Dlatency.history.minSamples} (8)
+ * requests. {@code -Dlatency.history.enabled=false} turns the history off.
+ */
+public class LatencyHistory {
+
+    private static final int MAGIC = 0x4C415448;
+
+    private final Path file;
+    private final int runs;
+    private final double alpha;
+    private final double minGrowth;
+    private final int minSamples;
+
+    public LatencyHistory(Path file, int runs, double alpha, double minGrowth, int minSamples) {
+        this.file = file;
+        this.runs = runs;
+        this.alpha = alpha;
+        this.minGrowth = minGrowth;
+        this.minSamples = minSamples;
+    }
+
+    public static boolean enabled() {
+        return Boolean.parseBoolean(System.getProperty("latency.history.enabled", "true"));
+    }
+
+    public static LatencyHistory fromProperties() {
+        Path dir = Paths.get(System.getProperty("latency.history.dir", ".latency-history"));
+        return new LatencyHistory(dir.resolve(StubMode.current().name().toLowerCase(Locale.ROOT) + ".bin"),
+                Integer.getInteger("latency.history.runs", 5),
+                Double.parseDouble(System.getProperty("latency.history.alpha", "0.01")),
+                Double.parseDouble(System.getProperty("latency.history.minGrowth", "0.1")),
+                Integer.getInteger("latency.history.minSamples", 8));
+    }
+
+    /**
+     * Compares the run with the ones before it, then appends it to the history.
+     */
+    public List<Regression> record(Run run) {
+        List<Run> previous = read();
+        List<Regression> regressions = compare(run, previous.subList(Math.max(0, previous.size() - runs),
+                previous.size()));
+        append(run);
+        return regressions;
+    }
+
+    public List<Run> read() {
+        if (!Files.exists(file)) {
+            return new ArrayList<>();
+        }
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+            List<Run> read = new ArrayList<>();
+            for (int[] block : blocks(in)) {
+                ByteBuffer payload = in.duplicate();
+                payload.limit(block[1]).position(block[0] + 8);
+                read.add(Run.read(payload.slice()));
+            }
+            return read;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read latency history " + file, e);
+        }
+    }
+
+    /**
+     * Appends the run and then drops all but the last {@code runs} runs, the only ones a comparison reads.
+     */
+    public void append(Run run) {
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            run.write(new DataOutputStream(payload));
+            ByteBuffer block = ByteBuffer.allocate(8 + payload.size());
+            block.putInt(MAGIC).putInt(payload.size()).put(payload.toByteArray()).flip();
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    channel.position(channel.size());
+                    while (block.hasRemaining()) {
+                        channel.write(block);
+                    }
+                    trim(channel);
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to latency history " + file, e);
+        }
+    }
+
+    private void trim(FileChannel channel) throws IOException {
+        ByteBuffer all = ByteBuffer.allocate((int) channel.size());
+        while (all.hasRemaining()) {
+            if (channel.read(all, all.position()) < 0) {
+                break;
+            }
+        }
+        all.flip();
+        List<int[]> blocks = blocks(all);
+        if (blocks.size() <= runs) {
+            return;
+        }
+        ByteBuffer kept = all.duplicate();
+        kept.limit(blocks.get(blocks.size() - 1)[1]).position(blocks.get(blocks.size() - runs)[0]);
+        long length = kept.remaining();
+        long position = 0;
+        while (kept.hasRemaining()) {
+            position += channel.write(kept, position);
+        }
+        channel.truncate(length);
+    }
+
+    /**
+     * Start and end offsets of the complete blocks at the start of the buffer; reading stops at the first block
+     * that is damaged or cut short.
+     */
+    private static List<int[]> blocks(ByteBuffer in) {
+        List<int[]> blocks = new ArrayList<>();
+        int position = 0;
+        while (in.limit() - position >= 8 && in.getInt(position) == MAGIC) {
+            int length = in.getInt(position + 4);
+            if (length < 0 || length > in.limit() - position - 8) {
+                break;
+            }
+            blocks.add(new int[]{position, position + 8 + length});
+            position += 8 + length;
+        }
+        return blocks;
+    }
+
+    List<Regression> compare(Run current, List<Run> previous) {
+        List<Regression> regressions = new ArrayList<>();
+        current.samples.forEach((endpoint, samples) -> {
+            List<Samples> baseline = previous.stream()
+                    .map(run -> run.samples.get(endpoint))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            compare(endpoint, "time", samples.micros, concat(baseline, true), regressions);
+            compare(endpoint, "size", samples.bytes, concat(baseline, false), regressions);
+        });
+        return regressions;
+    }
+
+    private void compare(String endpoint, String metric, long[] current, long[] baseline,
+                         List<Regression> regressions) {
+        if (current.length < minSamples || baseline.length < minSamples) {
+            return;
+        }
+        long before = median(baseline);
+        long now = median(current);
+        if (now <= before * (1 + minGrowth)) {
+            return;
+        }
+        double p = MannWhitney.pLarger(baseline, current);
+        if (p < alpha) {
+            regressions.add(new Regression(endpoint, metric, before, now, p));
+        }
+    }
+
+    private static long[] concat(List<Samples> samples, boolean micros) {
+        return samples.stream()
+                .flatMapToLong(s -> Arrays.stream(micros ? s.micros : s.bytes))
+                .toArray();
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(sorted.length - 1) / 2];
+    }
+
+    /**
+     * What one run measured, per endpoint.
+     */
+    public static final class Run {
+
+        private final long recordedAt;
+        private final Map<String, Samples> samples;
+
+        Run(long recordedAt, Map<String, Samples> samples) {
+            this.recordedAt = recordedAt;
+            this.samples = samples;
+        }
+
+        /**
+         * The requests of this run that answered 2xx after warm-up.
+         */
+        public static Run of(List<LatencyRecord> records) {
+            Map<String, List<LatencyRecord>> byEndpoint = records.stream()
+                    .filter(record -> !record.isWarmUp() && record.getStatus() / 100 == 2)
+                    .collect(Collectors.groupingBy(LatencyRecord::getEndpoint, TreeMap::new, Collectors.toList()));
+            Map<String, Samples> samples = new TreeMap<>();
+            byEndpoint.forEach((endpoint, calls) -> samples.put(endpoint, new Samples(
+                    calls.stream().mapToLong(call -> call.totalNanos() / 1000).toArray(),
+                    calls.stream().mapToLong(LatencyRecord::getBytes).toArray())));
+            return new Run(System.currentTimeMillis(), samples);
+        }
+
+        public long recordedAt() {
+            return recordedAt;
+        }
+
+        public Set<String> endpoints() {
+            return samples.keySet();
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeLong(recordedAt);
+            out.writeInt(samples.size());
+            for (Map.Entry<String, Samples> endpoint : samples.entrySet()) {
+                byte[] name = endpoint.getKey().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(name.length);
+                out.write(name);
+                long[] micros = endpoint.getValue().micros;
+                long[] bytes = endpoint.getValue().bytes;
+                out.writeInt(micros.length);
+                for (long value : micros) {
+                    out.writeInt((int) Math.min(value, Integer.MAX_VALUE));
+                }
+                for (long value : bytes) {
+                    out.writeInt((int) Math.min(value, Integer.MAX_VALUE));
+                }
+            }
+            out.flush();
+        }
+
+        static Run read(ByteBuffer in) {
+            long recordedAt = in.getLong();
+            int endpoints = in.getInt();
+            Map<String, Samples> samples = new TreeMap<>();
+            for (int e = 0; e < endpoints; e++) {
+                byte[] name = new byte[in.getInt()];
+                in.get(name);
+                long[] micros = new long[in.getInt()];
+                long[] bytes = new long[micros.length];
+                for (int i = 0; i < micros.length; i++) {
+                    micros[i] = in.getInt();
+                }
+                for (int i = 0; i < bytes.length; i++) {
+                    bytes[i] = in.getInt();
+                }
+                samples.put(new String(name, StandardCharsets.UTF_8), new Samples(micros, bytes));
+            }
+            return new Run(recordedAt, samples);
+        }
+    }
+
+    static final class Samples {
+
+        final long[] micros;
+        final long[] bytes;
+
+        Samples(long[] micros, long[] bytes) {
+            this.micros = micros;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * An endpoint whose times or sizes grew: medians before and now, in microseconds or bytes.
+     */
+    public static final class Regression {
+
+        private final String endpoint;
+        private final String metric;
+        private final long before;
+        private final long now;
+        private final double p;
+
+        Regression(String endpoint, String metric, long before, long now, double p) {
+            this.endpoint = endpoint;
+            this.metric = metric;
+            this.before = before;
+            this.now = now;
+            this.p = p;
+        }
+
+        public String endpoint() {
+            return endpoint;
+        }
+
+        public String metric() {
+            return metric;
+        }
+
+        @Override
+        public String toString() {
+            return "time".equals(metric)
+                    ? String.format("%s time: median %.1f ms, was %.1f ms (p=%.2g)", endpoint, now / 1e3, before / 1e3, p)
+                    : String.format("%s size: median %d bytes, was %d bytes (p=%.2g)", endpoint, now, before, p);
+        }
+    }
+}
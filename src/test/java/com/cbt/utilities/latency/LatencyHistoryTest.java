@@ -0,0 +1,97 @@
+package com.cbt.utilities.latency;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class LatencyHistoryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void runsAreReadBackAndACutOffRunIsSkipped() throws Exception {
+        Path file = dir.resolve("replay.bin");
+        LatencyHistory history = new LatencyHistory(file, 5, 0.01, 0.1, 8);
+        history.append(run(100, 2000, 12));
+        history.append(run(110, 2000, 12));
+        Files.write(file, Arrays.copyOf(Files.readAllBytes(file), 20), StandardOpenOption.APPEND);
+
+        List<LatencyHistory.Run> runs = history.read();
+
+        assertThat(runs, hasSize(2));
+        assertThat(runs.get(1).endpoints(), contains("GET /orgs/{org}"));
+    }
+
+    @Test
+    public void fileKeepsOnlyTheRunsItComparesWith() {
+        LatencyHistory history = new LatencyHistory(dir.resolve("replay.bin"), 3, 0.01, 0.1, 8);
+        for (long recordedAt = 1; recordedAt <= 5; recordedAt++) {
+            history.append(new LatencyHistory.Run(recordedAt, Collections.emptyMap()));
+        }
+
+        assertThat(history.read().stream().map(LatencyHistory.Run::recordedAt).collect(Collectors.toList()),
+                contains(3L, 4L, 5L));
+    }
+
+    @Test
+    public void slowerAndBiggerAnswersAreRegressions() {
+        LatencyHistory history = new LatencyHistory(dir.resolve("replay.bin"), 3, 0.01, 0.1, 8);
+        for (int i = 0; i < 4; i++) {
+            history.record(run(100, 2000, 12));
+        }
+
+        assertThat(history.record(run(100, 2000, 12)), is(empty()));
+        assertThat(history.record(run(103, 2000, 12)), is(empty()));
+        List<LatencyHistory.Regression> regressions = history.record(run(160, 2600, 12));
+        assertThat(regressions, hasSize(2));
+        assertThat(regressions.get(0).metric(), is("time"));
+        assertThat(regressions.get(1).metric(), is("size"));
+    }
+
+    @Test
+    public void tooFewSamplesAreNotJudged() {
+        LatencyHistory history = new LatencyHistory(dir.resolve("replay.bin"), 3, 0.01, 0.1, 8);
+        history.record(run(100, 2000, 5));
+
+        assertThat(history.record(run(500, 9000, 5)), is(empty()));
+    }
+
+    @Test
+    public void mannWhitneySeparatesShiftedSamplesFromInterleavedOnes() {
+        long[] low = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        long[] high = {11, 12, 13, 14, 15, 16, 17, 18, 19, 20};
+        long[] interleaved = {1, 3, 5, 7, 9, 11, 13, 15, 17, 19};
+        long[] other = {2, 4, 6, 8, 10, 12, 14, 16, 18, 20};
+
+        assertThat(MannWhitney.pLarger(low, high), lessThan(0.001));
+        assertThat(MannWhitney.pLarger(high, low), greaterThan(0.999));
+        assertThat(MannWhitney.pLarger(interleaved, other), greaterThan(0.2));
+        assertThat(MannWhitney.pLarger(new long[]{5, 5, 5}, new long[]{5, 5}), is(1.0));
+        assertThat(MannWhitney.upperTail(1.96), closeTo(0.025, 1e-4));
+    }
+
+    /**
+     * A run with requests spread around the given time in milliseconds and body size.
+     */
+    private static LatencyHistory.Run run(long millis, long bytes, int requests) {
+        Random random = new Random(millis * 31 + bytes);
+        List<LatencyRecord> records = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            long nanos = (long) (millis * 1e6 * (0.95 + 0.1 * random.nextDouble()));
+            records.add(new LatencyRecord("Suite#test", "GET /orgs/{org}", 200, 0, 0, 0, nanos, 0, nanos, bytes,
+                    false));
+        }
+        records.add(new LatencyRecord("Suite#test", "GET /orgs/{org}", 200, 0, 0, 0, 0, 0, 900_000_000L, bytes, true));
+        records.add(new LatencyRecord("Suite#test", "GET /orgs/{org}", 404, 0, 0, 0, 0, 0, 1_000_000L, 10, false));
+        return LatencyHistory.Run.of(records);
+    }
+}
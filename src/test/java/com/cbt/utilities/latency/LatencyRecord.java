@@ -0,0 +1,111 @@
+package com.cbt.utilities.latency;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Timings of one request that went over the network. Durations are in milliseconds; phases the transport skipped
+ * or could not see, such as connecting on a reused connection, are zero.
+ */
+@JsonPropertyOrder({"test", "endpoint", "status", "dnsMillis", "connectMillis", "tlsMillis", "ttfbMillis",
+        "downloadMillis", "totalMillis", "bytes", "warmUp"})
+public class LatencyRecord {
+
+    static final String CSV_HEADER =
+            "test,endpoint,status,dns_ms,connect_ms,tls_ms,ttfb_ms,download_ms,total_ms,bytes,warm_up";
+
+    private final String test;
+    private final String endpoint;
+    private final int status;
+    private final long dnsNanos;
+    private final long connectNanos;
+    private final long tlsNanos;
+    private final long ttfbNanos;
+    private final long downloadNanos;
+    private final long totalNanos;
+    private final long bytes;
+    private final boolean warmUp;
+
+    LatencyRecord(String test, String endpoint, int status, long dnsNanos, long connectNanos, long tlsNanos,
+                  long ttfbNanos, long downloadNanos, long totalNanos, long bytes, boolean warmUp) {
+        this.test = test;
+        this.endpoint = endpoint;
+        this.status = status;
+        this.dnsNanos = dnsNanos;
+        this.connectNanos = connectNanos;
+        this.tlsNanos = tlsNanos;
+        this.ttfbNanos = ttfbNanos;
+        this.downloadNanos = downloadNanos;
+        this.totalNanos = totalNanos;
+        this.bytes = bytes;
+        this.warmUp = warmUp;
+    }
+
+    public String getTest() {
+        return test;
+    }
+
+    /**
+     * Method and path template, such as {@code GET /orgs/{org}/repos}.
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public double getDnsMillis() {
+        return millis(dnsNanos);
+    }
+
+    public double getConnectMillis() {
+        return millis(connectNanos);
+    }
+
+    public double getTlsMillis() {
+        return millis(tlsNanos);
+    }
+
+    public double getTtfbMillis() {
+        return millis(ttfbNanos);
+    }
+
+    public double getDownloadMillis() {
+        return millis(downloadNanos);
+    }
+
+    public double getTotalMillis() {
+        return millis(totalNanos);
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Whether the request was already under way when the first response of the run came back, so it also paid for
+     * class loading, JIT compilation and the first connections.
+     */
+    public boolean isWarmUp() {
+        return warmUp;
+    }
+
+    long totalNanos() {
+        return totalNanos;
+    }
+
+    String toCsv() {
+        return csv(test) + "," + csv(endpoint) + "," + status + "," + getDnsMillis() + "," + getConnectMillis() + ","
+                + getTlsMillis() + "," + getTtfbMillis() + "," + getDownloadMillis() + "," + getTotalMillis() + ","
+                + bytes + "," + warmUp;
+    }
+
+    static double millis(long nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+
+    private static String csv(String value) {
+        return value.indexOf(',') < 0 && value.indexOf('"') < 0 ? value : '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
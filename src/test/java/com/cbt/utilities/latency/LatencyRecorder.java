@@ -0,0 +1,102 @@
+package com.cbt.utilities.latency;
+
+import com.cbt.utilities.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Every {@link LatencyRecord} of the run, with per-endpoint percentiles and the JSON and CSV exports.
+ */
+public class LatencyRecorder {
+
+    private static final LatencyRecorder SHARED = new LatencyRecorder();
+
+    private final Queue<LatencyRecord> records = new ConcurrentLinkedQueue<>();
+    private final AtomicLong firstFinishedAt = new AtomicLong();
+
+    public static LatencyRecorder shared() {
+        return SHARED;
+    }
+
+    /**
+     * True for requests started before the first request of the run finished; see {@link LatencyRecord#isWarmUp()}.
+     */
+    boolean warmUp(long startedAt, long finishedAt) {
+        firstFinishedAt.compareAndSet(0, finishedAt);
+        return startedAt < firstFinishedAt.get();
+    }
+
+    void add(LatencyRecord record) {
+        records.add(record);
+    }
+
+    public List<LatencyRecord> records() {
+        return new ArrayList<>(records);
+    }
+
+    /**
+     * Nearest-rank percentile of total request time over the records that match, in nanoseconds; -1 when none do.
+     */
+    public long percentile(Predicate<LatencyRecord> which, double percentile) {
+        return percentile(records.stream().filter(which).mapToLong(LatencyRecord::totalNanos).toArray(), percentile);
+    }
+
+    private static long percentile(long[] values, double percentile) {
+        long[] totals = Arrays.stream(values)
+                .sorted()
+                .toArray();
+        if (totals.length == 0) {
+            return -1;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * totals.length);
+        return totals[Math.max(0, Math.min(totals.length, rank) - 1)];
+    }
+
+    /**
+     * Writes {@code latency.json} (per-endpoint summary of all requests, warm-up included, and every request) and
+     * {@code latency.csv} (every request) into {@code dir}.
+     */
+    public void export(Path dir) {
+        List<LatencyRecord> all = records();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("endpoints", summary(all));
+        report.put("requests", all);
+        try {
+            Files.createDirectories(dir);
+            Json.MAPPER.writerWithDefaultPrettyPrinter().writeValue(dir.resolve("latency.json").toFile(), report);
+            List<String> lines = new ArrayList<>(all.size() + 1);
+            lines.add(LatencyRecord.CSV_HEADER);
+            all.forEach(record -> lines.add(record.toCsv()));
+            Files.write(dir.resolve("latency.csv"), lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write latency report to " + dir, e);
+        }
+    }
+
+    private List<Map<String, Object>> summary(List<LatencyRecord> all) {
+        Map<String, List<LatencyRecord>> byEndpoint = all.stream()
+                .collect(Collectors.groupingBy(LatencyRecord::getEndpoint, TreeMap::new, Collectors.toList()));
+        List<Map<String, Object>> summary = new ArrayList<>();
+        byEndpoint.forEach((endpoint, calls) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpoint);
+            long[] totals = calls.stream().mapToLong(LatencyRecord::totalNanos).toArray();
+            row.put("count", calls.size());
+            row.put("warmUpCount", calls.stream().filter(LatencyRecord::isWarmUp).count());
+            row.put("p50Millis", LatencyRecord.millis(percentile(totals, 50)));
+            row.put("p95Millis", LatencyRecord.millis(percentile(totals, 95)));
+            row.put("maxMillis", LatencyRecord.millis(percentile(totals, 100)));
+            summary.add(row);
+        });
+        return summary;
+    }
+}
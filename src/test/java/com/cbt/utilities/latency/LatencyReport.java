@@ -0,0 +1,57 @@
+package com.cbt.utilities.latency;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Tags requests with the test that sent them and writes the latency report once all tests have run, into
+ * {@code -Dlatency.reportDir} ({@code target/latency}). The run is then added to the {@link LatencyHistory}, and
+ * endpoints that got slower or bigger than in the previous runs are printed and listed in {@code regressions.txt}.
+ * Registered through {@code META-INF/services}.
+ */
+public class LatencyReport implements TestExecutionListener {
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        CurrentTest.nameOf(testIdentifier).ifPresent(CurrentTest::set);
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        if (CurrentTest.nameOf(testIdentifier).isPresent()) {
+            CurrentTest.clear();
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        LatencyRecorder recorder = LatencyRecorder.shared();
+        if (recorder.records().isEmpty()) {
+            return;
+        }
+        Path dir = Paths.get(System.getProperty("latency.reportDir", "target/latency"));
+        recorder.export(dir);
+        if (LatencyHistory.enabled()) {
+            List<LatencyHistory.Regression> regressions = LatencyHistory.fromProperties()
+                    .record(LatencyHistory.Run.of(recorder.records()));
+            regressions.forEach(regression -> System.out.println("latency regression: " + regression));
+            try {
+                Files.write(dir.resolve("regressions.txt"),
+                        regressions.stream().map(String::valueOf).collect(Collectors.toList()), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write " + dir.resolve("regressions.txt"), e);
+            }
+        }
+    }
+}
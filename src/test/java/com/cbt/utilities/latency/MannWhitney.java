@@ -0,0 +1,73 @@
+package com.cbt.utilities.latency;
+
+import java.util.Arrays;
+
+/**
+ * Mann-Whitney U test with the normal approximation, corrected for ties and continuity. It only compares ranks, so
+ * a few very slow requests weigh no more than a few slightly slow ones and no distribution has to be assumed.
+ */
+final class MannWhitney {
+
+    private MannWhitney() {
+    }
+
+    /**
+     * One-sided p-value for {@code current} tending to be larger than {@code baseline}: small when it clearly is,
+     * 1 when either sample is empty or every value is tied.
+     */
+    static double pLarger(long[] baseline, long[] current) {
+        int n1 = baseline.length;
+        int n2 = current.length;
+        if (n1 == 0 || n2 == 0) {
+            return 1;
+        }
+        int n = n1 + n2;
+        long[][] all = new long[n][];
+        for (int i = 0; i < n1; i++) {
+            all[i] = new long[]{baseline[i], 0};
+        }
+        for (int i = 0; i < n2; i++) {
+            all[n1 + i] = new long[]{current[i], 1};
+        }
+        Arrays.sort(all, (a, b) -> Long.compare(a[0], b[0]));
+
+        double currentRanks = 0;
+        double ties = 0;
+        for (int i = 0; i < n; ) {
+            int j = i;
+            while (j < n && all[j][0] == all[i][0]) {
+                j++;
+            }
+            double rank = (i + 1 + j) / 2.0;
+            for (int k = i; k < j; k++) {
+                if (all[k][1] == 1) {
+                    currentRanks += rank;
+                }
+            }
+            double t = j - i;
+            ties += t * t * t - t;
+            i = j;
+        }
+        double u = currentRanks - n2 * (n2 + 1) / 2.0;
+        double mean = n1 * (double) n2 / 2;
+        double variance = n1 * (double) n2 / 12 * ((n + 1) - ties / ((double) n * (n - 1)));
+        if (variance <= 0) {
+            return 1;
+        }
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return upperTail(z);
+    }
+
+    /**
+     * P(Z > z) for a standard normal Z, from the complementary error function (Numerical Recipes' erfc, with a
+     * relative error below 1.2e-7).
+     */
+    static double upperTail(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.5 * x);
+        double erfc = t * Math.exp(-x * x - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418
+                + t * (-0.18628806 + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587
+                + t * (-0.82215223 + t * 0.17087277)))))))));
+        return z >= 0 ? erfc / 2 : 1 - erfc / 2;
+    }
+}
@@ -0,0 +1,44 @@
+package com.cbt.utilities.load;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentilesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        assertThat(histogram.count(), is(10_000L));
+        assertThat((double) histogram.percentile(50), closeTo(5_000_000, 5_000));
+        assertThat((double) histogram.percentile(99), closeTo(9_900_000, 9_900));
+        assertThat((double) histogram.percentile(99.9), closeTo(9_990_000, 9_990));
+        assertThat(histogram.percentile(100), is(10_000_000L));
+    }
+
+    @Test
+    public void stallIsBackfilledWithTheCallsItDelayed() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.recordWithExpectedInterval(1_000_000, 10_000_000);
+        }
+        histogram.recordWithExpectedInterval(1_000_000_000, 10_000_000);
+
+        assertThat(histogram.count(), is(99L + 100L));
+        assertThat(histogram.percentile(50), greaterThanOrEqualTo(10_000_000L));
+    }
+
+    @Test
+    public void bucketIndexRoundTrips() {
+        for (long value : new long[]{0, 1, 2047, 2048, 4095, 4096, 1_234_567, 987_654_321_000L}) {
+            long highest = LatencyHistogram.highestEquivalent(LatencyHistogram.index(value));
+            assertThat(highest, greaterThanOrEqualTo(value));
+            assertThat((double) highest, closeTo(value, value / 1000.0 + 1));
+        }
+    }
+}
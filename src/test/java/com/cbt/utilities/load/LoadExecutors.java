@@ -0,0 +1,41 @@
+package com.cbt.utilities.load;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors for load runs. On a JDK with virtual threads every call gets its own virtual thread, so thousands of
+ * calls can wait on the network at once; on older JDKs a pool of {@code platformThreads} daemon threads is used
+ * instead.
+ */
+final class LoadExecutors {
+
+    private LoadExecutors() {
+    }
+
+    static boolean virtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    static ExecutorService create(int platformThreads) {
+        if (virtualThreads()) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create a virtual thread executor", e);
+            }
+        }
+        AtomicInteger number = new AtomicInteger();
+        return Executors.newFixedThreadPool(platformThreads, task -> {
+            Thread thread = new Thread(task, "load-" + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
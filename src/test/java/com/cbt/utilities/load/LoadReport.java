@@ -0,0 +1,77 @@
+package com.cbt.utilities.load;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of one {@link LoadRunner} run: call and error counts, throughput and latency percentiles.
+ *
+ * The percentiles come from the coordinated-omission-corrected histogram; the uncorrected service time p99 is shown
+ * next to them, and a large gap between the two means the service, not the load generator, set the pace.
+ */
+public class LoadReport {
+
+    private final String scenario;
+    private final int calls;
+    private final int errors;
+    private final Throwable firstError;
+    private final long elapsedNanos;
+    private final LatencyHistogram latency;
+    private final LatencyHistogram serviceTime;
+
+    LoadReport(String scenario, int calls, int errors, Throwable firstError, long elapsedNanos,
+               LatencyHistogram latency, LatencyHistogram serviceTime) {
+        this.scenario = scenario;
+        this.calls = calls;
+        this.errors = errors;
+        this.firstError = firstError;
+        this.elapsedNanos = elapsedNanos;
+        this.latency = latency;
+        this.serviceTime = serviceTime;
+    }
+
+    public String scenario() {
+        return scenario;
+    }
+
+    public int calls() {
+        return calls;
+    }
+
+    public int errors() {
+        return errors;
+    }
+
+    public Throwable firstError() {
+        return firstError;
+    }
+
+    public double errorRate() {
+        return (double) errors / calls;
+    }
+
+    public double throughput() {
+        return calls / (elapsedNanos / 1e9);
+    }
+
+    public LatencyHistogram latency() {
+        return latency;
+    }
+
+    public LatencyHistogram serviceTime() {
+        return serviceTime;
+    }
+
+    @Override
+    public String toString() {
+        String summary = String.format("%s: %d calls, %d errors in %.1f s, %.1f calls/s; latency p50 %s, p99 %s,"
+                        + " p99.9 %s, max %s (service time p99 %s)",
+                scenario, calls, errors, elapsedNanos / 1e9, throughput(), millis(latency.percentile(50)),
+                millis(latency.percentile(99)), millis(latency.percentile(99.9)), millis(latency.max()),
+                millis(serviceTime.percentile(99)));
+        return firstError == null ? summary : summary + "; first error: " + firstError;
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f ms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,65 @@
+package com.cbt.utilities.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Load-generation mode: replays existing tests as load scenarios. Run it with the {@code load} profile, which
+ * turns the response cache off so every call reaches the service:
+ * <pre>
+ * mvn test -Pload -Dload.scenarios=com.cbt.harryPotterAPI.HarryPotterApiTests#verifyHouseMembers[Gryffindor] \
+ *     -Dload.iterations=2000 -Dload.rate=100
+ * </pre>
+ * <ul>
+ *     <li>{@code load.scenarios}: comma separated {@code <class>#<method>} references; a
+ *     {@code @ForEachTarget} check runs as one scenario per target unless the reference ends in
+ *     {@code [<target>]}</li>
+ *     <li>{@code load.iterations} (1000): calls per scenario</li>
+ *     <li>{@code load.rate}: calls started per second; without it {@code load.concurrency} workers call back to
+ *     back, optionally paced by {@code load.expectedIntervalMillis}</li>
+ *     <li>{@code load.concurrency} (16): closed-model workers, or the pool size when there are no virtual threads</li>
+ *     <li>{@code load.maxErrorRate} (0): the run fails when a scenario's share of failed calls is higher</li>
+ * </ul>
+ * Point it at a staging service with {@code -Dstub.mode=live}; by default it runs against the local stub.
+ */
+public class LoadRun {
+
+    @Test
+    public void replayScenarios() {
+        String scenarios = System.getProperty("load.scenarios", "");
+        assumeTrue(!scenarios.isBlank(), "no -Dload.scenarios given");
+
+        LoadRunner runner = runner();
+        System.out.println("load run on " + (LoadExecutors.virtualThreads() ? "virtual" : "platform") + " threads");
+        List<LoadReport> reports = new ArrayList<>();
+        for (String reference : scenarios.split(",")) {
+            for (Scenario scenario : Scenario.fromTest(reference.trim())) {
+                LoadReport report = runner.run(scenario);
+                System.out.println(report);
+                reports.add(report);
+            }
+        }
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.maxErrorRate", "0"));
+        for (LoadReport report : reports) {
+            assertThat(report.scenario() + " error rate", report.errorRate(), lessThanOrEqualTo(maxErrorRate));
+        }
+    }
+
+    private static LoadRunner runner() {
+        int iterations = Integer.getInteger("load.iterations", 1000);
+        int concurrency = Integer.getInteger("load.concurrency", 16);
+        String rate = System.getProperty("load.rate");
+        if (rate != null && !rate.isBlank()) {
+            return LoadRunner.atRate(iterations, Double.parseDouble(rate), concurrency);
+        }
+        return LoadRunner.closed(iterations, concurrency,
+                Duration.ofMillis(Long.getLong("load.expectedIntervalMillis", 0L)));
+    }
+}
@@ -0,0 +1,136 @@
+package com.cbt.utilities.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Repeats a {@link Scenario} and measures how long every call took.
+ *
+ * <ul>
+ *     <li>{@link #atRate}: an open model. Call {@code i} is due at {@code start + i / rate} no matter how the earlier
+ *     calls went, and its latency is measured from that due time, so time spent queued behind slow calls is part of
+ *     the result instead of silently lowering the request rate (coordinated omission).</li>
+ *     <li>{@link #closed}: a fixed number of workers call back to back. Latencies are corrected for coordinated
+ *     omission against {@code expectedInterval}, the pace a single worker was meant to keep, when one is given.</li>
+ * </ul>
+ */
+public class LoadRunner {
+
+    private final int iterations;
+    private final int concurrency;
+    private final long intervalNanos;
+    private final boolean open;
+
+    private LoadRunner(int iterations, int concurrency, long intervalNanos, boolean open) {
+        if (iterations < 1 || concurrency < 1) {
+            throw new IllegalArgumentException("iterations and concurrency must be at least 1, were " + iterations
+                    + " and " + concurrency);
+        }
+        this.iterations = iterations;
+        this.concurrency = concurrency;
+        this.intervalNanos = intervalNanos;
+        this.open = open;
+    }
+
+    /**
+     * Starts {@code ratePerSecond} calls per second. {@code maxConcurrency} only bounds the thread pool used when
+     * the JDK has no virtual threads.
+     */
+    public static LoadRunner atRate(int iterations, double ratePerSecond, int maxConcurrency) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("ratePerSecond must be positive, was " + ratePerSecond);
+        }
+        return new LoadRunner(iterations, maxConcurrency, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond), true);
+    }
+
+    public static LoadRunner closed(int iterations, int concurrency, Duration expectedInterval) {
+        return new LoadRunner(iterations, concurrency, expectedInterval.toNanos(), false);
+    }
+
+    public LoadReport run(Scenario scenario) {
+        LatencyHistogram corrected = new LatencyHistogram();
+        LatencyHistogram service = new LatencyHistogram();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        ExecutorService executor = LoadExecutors.create(concurrency);
+        long start = System.nanoTime();
+        try {
+            if (open) {
+                runOpen(scenario, executor, start, corrected, service, errors, firstError);
+            } else {
+                runClosed(scenario, executor, corrected, service, errors, firstError);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new LoadReport(scenario.name(), iterations, errors.get(), firstError.get(), System.nanoTime() - start,
+                corrected, service);
+    }
+
+    private void runOpen(Scenario scenario, ExecutorService executor, long start, LatencyHistogram corrected,
+                         LatencyHistogram service, AtomicInteger errors, AtomicReference<Throwable> firstError) {
+        List<Future<?>> calls = new ArrayList<>(iterations);
+        for (int i = 0; i < iterations; i++) {
+            long due = start + i * intervalNanos;
+            for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+            calls.add(executor.submit(() -> {
+                long began = System.nanoTime();
+                call(scenario, errors, firstError);
+                long end = System.nanoTime();
+                corrected.record(end - due);
+                service.record(end - began);
+            }));
+        }
+        awaitAll(calls);
+    }
+
+    private void runClosed(Scenario scenario, ExecutorService executor, LatencyHistogram corrected,
+                           LatencyHistogram service, AtomicInteger errors, AtomicReference<Throwable> firstError) {
+        AtomicInteger remaining = new AtomicInteger(iterations);
+        List<Future<?>> workers = new ArrayList<>(concurrency);
+        for (int worker = 0; worker < concurrency; worker++) {
+            workers.add(executor.submit(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    long began = System.nanoTime();
+                    call(scenario, errors, firstError);
+                    long took = System.nanoTime() - began;
+                    corrected.recordWithExpectedInterval(took, intervalNanos);
+                    service.record(took);
+                }
+            }));
+        }
+        awaitAll(workers);
+    }
+
+    private static void call(Scenario scenario, AtomicInteger errors, AtomicReference<Throwable> firstError) {
+        try {
+            scenario.run();
+        } catch (Throwable e) {
+            errors.incrementAndGet();
+            firstError.compareAndSet(null, e);
+        }
+    }
+
+    private static void awaitAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the load run", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Load worker failed", e.getCause());
+            }
+        }
+    }
+}
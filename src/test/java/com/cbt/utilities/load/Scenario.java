@@ -0,0 +1,139 @@
+package com.cbt.utilities.load;
+
+import com.cbt.utilities.targets.ForEachTarget;
+import com.cbt.utilities.targets.Target;
+import com.cbt.utilities.targets.Targets;
+import org.junit.jupiter.api.BeforeAll;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * One named request flow the load runner can repeat. Existing test methods are scenarios too:
+ * {@code Scenario.fromTest("com.cbt.harryPotterAPI.HarryPotterApiTests#VerifySortingHat")} runs the class's
+ * {@code @BeforeAll} methods once and then calls the method on a fresh instance for every iteration, so the load run
+ * sends exactly the requests, and checks exactly the assertions, of the functional test. A {@link ForEachTarget}
+ * check is one scenario per target of its list, {@code Class#method[target]}; a reference ending in the target's
+ * name, as in {@code HarryPotterApiTests#verifyHouseMembers[Gryffindor]}, picks just that one.
+ */
+public final class Scenario {
+
+    /**
+     * Body of a scenario; anything it throws counts as a failed call.
+     */
+    @FunctionalInterface
+    public interface Step {
+        void run() throws Throwable;
+    }
+
+    private static final Set<Class<?>> INITIALIZED = new HashSet<>();
+
+    private final String name;
+    private final Step step;
+
+    public Scenario(String name, Step step) {
+        this.name = name;
+        this.step = step;
+    }
+
+    public static List<Scenario> fromTest(String reference) {
+        int hash = reference.indexOf('#');
+        if (hash < 0) {
+            throw new IllegalArgumentException("Expected <class>#<method>, got '" + reference + "'");
+        }
+        String methodName = reference.substring(hash + 1);
+        String targetName = null;
+        int bracket = methodName.indexOf('[');
+        if (bracket >= 0) {
+            if (!methodName.endsWith("]")) {
+                throw new IllegalArgumentException("Expected <class>#<method>[<target>], got '" + reference + "'");
+            }
+            targetName = methodName.substring(bracket + 1, methodName.length() - 1);
+            methodName = methodName.substring(0, bracket);
+        }
+        try {
+            Class<?> type = Class.forName(reference.substring(0, hash));
+            Method method = find(type, methodName);
+            method.setAccessible(true);
+            String name = type.getSimpleName() + "#" + method.getName();
+            ForEachTarget forEach = method.getAnnotation(ForEachTarget.class);
+            if (forEach == null) {
+                if (targetName != null) {
+                    throw new IllegalArgumentException("'" + reference + "' names a target, but " + name
+                            + " is not a @ForEachTarget check");
+                }
+                initialize(type);
+                return Collections.singletonList(new Scenario(name, () -> invoke(type, method)));
+            }
+            List<Target> targets = Targets.load(forEach.value());
+            if (targetName != null) {
+                String wanted = targetName;
+                targets = targets.stream().filter(target -> target.name().equals(wanted)).collect(Collectors.toList());
+                if (targets.isEmpty()) {
+                    throw new IllegalArgumentException("'" + reference + "': no target '" + wanted + "' in list "
+                            + forEach.value());
+                }
+            }
+            initialize(type);
+            List<Scenario> scenarios = new ArrayList<>();
+            for (Target target : targets) {
+                scenarios.add(new Scenario(name + "[" + target.name() + "]", () -> invoke(type, method, target)));
+            }
+            return scenarios;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot load scenario '" + reference + "'", e);
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public void run() throws Throwable {
+        step.run();
+    }
+
+    /**
+     * The test method of that name: a no-argument test, or a {@link ForEachTarget} check taking its target.
+     */
+    private static Method find(Class<?> type, String name) throws NoSuchMethodException {
+        for (Method method : type.getDeclaredMethods()) {
+            if (!method.getName().equals(name)) {
+                continue;
+            }
+            Class<?>[] parameters = method.getParameterTypes();
+            if (method.isAnnotationPresent(ForEachTarget.class)
+                    ? parameters.length == 1 && parameters[0] == Target.class
+                    : parameters.length == 0) {
+                return method;
+            }
+        }
+        throw new NoSuchMethodException(type.getName() + "#" + name
+                + ": no test method without parameters or @ForEachTarget check of that name");
+    }
+
+    private static void invoke(Class<?> type, Method method, Object... arguments) throws Throwable {
+        try {
+            method.invoke(type.getDeclaredConstructor().newInstance(), arguments);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void initialize(Class<?> type) throws ReflectiveOperationException {
+        synchronized (INITIALIZED) {
+            if (!INITIALIZED.add(type)) {
+                return;
+            }
+            for (Method method : type.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(BeforeAll.class) && Modifier.isStatic(method.getModifiers())) {
+                    method.setAccessible(true);
+                    method.invoke(null);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.cbt.utilities.load;
+
+import com.cbt.utilities.targets.ForEachTarget;
+import com.cbt.utilities.targets.Target;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ScenarioTest {
+
+    private static final String HOUSES = ScenarioTest.Houses.class.getName();
+
+    @Test
+    public void forEachTargetCheckIsOneScenarioPerTarget() throws Throwable {
+        List<Scenario> scenarios = Scenario.fromTest(HOUSES + "#members");
+        assertThat(scenarios.stream().map(Scenario::name).collect(Collectors.toList()),
+                contains("Houses#members[Gryffindor]"));
+
+        scenarios.get(0).run();
+        scenarios.get(0).run();
+        assertThat(Houses.SEEN, contains("Gryffindor:5a05e2b252f721a3cf2ea33f", "Gryffindor:5a05e2b252f721a3cf2ea33f"));
+        assertThat(Houses.INITIALIZED.get(), is(1));
+    }
+
+    @Test
+    public void referenceCanPickOneTarget() {
+        assertThat(Scenario.fromTest(HOUSES + "#members[Gryffindor]").get(0).name(),
+                is("Houses#members[Gryffindor]"));
+        assertThrows(IllegalArgumentException.class, () -> Scenario.fromTest(HOUSES + "#members[Hufflepuff]"));
+        assertThrows(IllegalArgumentException.class, () -> Scenario.fromTest(HOUSES + "#plain[Gryffindor]"));
+    }
+
+    @Test
+    public void plainTestIsOneScenario() {
+        List<Scenario> scenarios = Scenario.fromTest(HOUSES + "#plain");
+        assertThat(scenarios, hasSize(1));
+        assertThat(scenarios.get(0).name(), is("Houses#plain"));
+        assertThrows(IllegalArgumentException.class, () -> Scenario.fromTest(HOUSES + "#missing"));
+    }
+
+    public static class Houses {
+
+        static final AtomicInteger INITIALIZED = new AtomicInteger();
+        static final Queue<String> SEEN = new ConcurrentLinkedQueue<>();
+
+        @BeforeAll
+        public static void setUp() {
+            INITIALIZED.incrementAndGet();
+        }
+
+        @ForEachTarget("potter-houses")
+        public void members(Target house) {
+            SEEN.add(house.name() + ":" + house.get("id"));
+        }
+
+        public void plain() {
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.cbt.utilities.logging;
+
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded queue of request/response records and the single daemon thread that formats and prints them.
+ *
+ * Test threads only decide whether a record is kept and hand over references; they never format or write. When the
+ * queue is full records are dropped and counted rather than slowing the test down. Successful exchanges are printed
+ * for a {@code sampleRate} share of requests, with bodies cut at {@code maxBodyBytes}; failed ones (status 400 and
+ * up, or no response at all) are always printed in full. The exchanges of a test that was not sampled are held back
+ * until the test ends, and printed in full if it failed. At most {@code HELD_PER_TEST} exchanges are held per test
+ * and at most {@code -Dlog.heldTests} (256) tests are held at once; past that the longest-held test is forgotten, so
+ * exchanges filed under a test that already ended cannot pile up.
+ */
+public class AsyncLog {
+
+    private static final int HELD_PER_TEST = 32;
+    private static final int HELD_TESTS = Integer.getInteger("log.heldTests", 256);
+
+    private static final AsyncLog SHARED = new AsyncLog(
+            Integer.getInteger("log.queueSize", 1024),
+            Double.parseDouble(System.getProperty("log.sampleRate", "0.05")),
+            Integer.getInteger("log.maxBodyBytes", 2048),
+            System.out);
+
+    private final BlockingQueue<Entry> queue;
+    private final double sampleRate;
+    private final int maxBodyBytes;
+    private final PrintStream out;
+    private final Map<String, Deque<LogRecord>> held = Collections.synchronizedMap(
+            new LinkedHashMap<String, Deque<LogRecord>>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Deque<LogRecord>> eldest) {
+                    return size() > HELD_TESTS;
+                }
+            });
+    private final LongAdder dropped = new LongAdder();
+    private final Object idle = new Object();
+    private int pending;
+
+    AsyncLog(int queueSize, double sampleRate, int maxBodyBytes, PrintStream out) {
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.sampleRate = sampleRate;
+        this.maxBodyBytes = maxBodyBytes;
+        this.out = out;
+        Thread writer = new Thread(this::write, "async-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static AsyncLog shared() {
+        return SHARED;
+    }
+
+    void log(LogRecord record) {
+        if (record.failed()) {
+            enqueue(record, -1);
+        } else if (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            enqueue(record, maxBodyBytes);
+        } else {
+            Deque<LogRecord> records = held.computeIfAbsent(record.test, test -> new ArrayDeque<>());
+            synchronized (records) {
+                if (records.size() == HELD_PER_TEST) {
+                    records.removeFirst();
+                }
+                records.addLast(record);
+            }
+        }
+    }
+
+    /**
+     * Called when a test ends: its held-back exchanges are printed in full if it failed, and forgotten otherwise.
+     */
+    public void testFinished(String test, boolean failed) {
+        Deque<LogRecord> records = held.remove(test);
+        if (records != null && failed) {
+            synchronized (records) {
+                records.forEach(record -> enqueue(record, -1));
+            }
+        }
+    }
+
+    /**
+     * Waits until everything queued so far has been written, for at most {@code timeoutMillis}.
+     */
+    public void flush(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (idle) {
+            while (pending > 0 && System.currentTimeMillis() < deadline) {
+                try {
+                    idle.wait(Math.max(1, deadline - System.currentTimeMillis()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        long lost = dropped.sumThenReset();
+        if (lost > 0) {
+            out.println("async log: dropped " + lost + " records, queue was full");
+        }
+    }
+
+    private void enqueue(LogRecord record, int maxBody) {
+        synchronized (idle) {
+            pending++;
+        }
+        if (!queue.offer(new Entry(record, maxBody))) {
+            dropped.increment();
+            done();
+        }
+    }
+
+    private void write() {
+        while (true) {
+            try {
+                Entry entry = queue.poll(1, TimeUnit.SECONDS);
+                if (entry != null) {
+                    out.print(entry.record.format(entry.maxBodyBytes));
+                    done();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                out.println("async log: cannot format record: " + e);
+                done();
+            }
+        }
+    }
+
+    private void done() {
+        synchronized (idle) {
+            pending--;
+            idle.notifyAll();
+        }
+    }
+
+    private static class Entry {
+
+        final LogRecord record;
+        final int maxBodyBytes;
+
+        Entry(LogRecord record, int maxBodyBytes) {
+            this.record = record;
+            this.maxBodyBytes = maxBodyBytes;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.cbt.utilities.logging;
+
+import com.cbt.utilities.latency.CurrentTest;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Replaces {@code log().all()} and {@code prettyPeek()}: hands every exchange to {@link AsyncLog}, which decides
+ * whether to print it and does the formatting on its own thread.
+ *
+ * {@code -Dlog.mode=async} (default) samples successful exchanges at {@code -Dlog.sampleRate} (0.05) and cuts bodies
+ * at {@code -Dlog.maxBodyBytes} (2048); failures are always printed in full. {@code -Dlog.mode=off} turns it off.
+ * It runs outermost, so it logs what the test sent and got, cached or not.
+ */
+public class AsyncLogFilter implements OrderedFilter {
+
+    private static final AsyncLogFilter SHARED = new AsyncLogFilter(AsyncLog.shared());
+
+    private final AsyncLog log;
+
+    public AsyncLogFilter(AsyncLog log) {
+        this.log = log;
+    }
+
+    public static AsyncLogFilter shared() {
+        return SHARED;
+    }
+
+    public static boolean enabled() {
+        return !"off".equalsIgnoreCase(System.getProperty("log.mode", "async"));
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (RuntimeException e) {
+            log.log(new LogRecord(CurrentTest.name(), requestSpec.getMethod(), requestSpec.getURI(),
+                    requestSpec.getHeaders(), requestSpec.getBody(), null, 0, null, null, e));
+            throw e;
+        }
+        log.log(new LogRecord(CurrentTest.name(), requestSpec.getMethod(), requestSpec.getURI(),
+                requestSpec.getHeaders(), requestSpec.getBody(), response.getStatusLine(), response.getStatusCode(),
+                response.getHeaders(), response.asByteArray(), null));
+        return response;
+    }
+}
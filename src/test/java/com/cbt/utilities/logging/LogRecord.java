@@ -0,0 +1,86 @@
+package com.cbt.utilities.logging;
+
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One request and its response as captured on the test thread: only references, no formatting. The log writer
+ * thread turns it into text.
+ */
+class LogRecord {
+
+    final String test;
+    final String method;
+    final String uri;
+    final Headers requestHeaders;
+    final Object requestBody;
+    final String statusLine;
+    final int status;
+    final Headers responseHeaders;
+    final byte[] responseBody;
+    final Throwable error;
+
+    LogRecord(String test, String method, String uri, Headers requestHeaders, Object requestBody, String statusLine,
+              int status, Headers responseHeaders, byte[] responseBody, Throwable error) {
+        this.test = test;
+        this.method = method;
+        this.uri = uri;
+        this.requestHeaders = requestHeaders;
+        this.requestBody = requestBody;
+        this.statusLine = statusLine;
+        this.status = status;
+        this.responseHeaders = responseHeaders;
+        this.responseBody = responseBody;
+        this.error = error;
+    }
+
+    boolean failed() {
+        return error != null || status >= 400;
+    }
+
+    /**
+     * Request and response as text; bodies longer than {@code maxBodyBytes} are cut, unless {@code maxBodyBytes} is
+     * negative.
+     */
+    String format(int maxBodyBytes) {
+        StringBuilder text = new StringBuilder(256);
+        text.append("--> ").append(method).append(' ').append(uri).append("  [").append(test).append("]\n");
+        headers(text, requestHeaders);
+        if (requestBody != null) {
+            byte[] body = requestBody instanceof byte[]
+                    ? (byte[]) requestBody
+                    : String.valueOf(requestBody).getBytes(StandardCharsets.UTF_8);
+            body(text, body, maxBodyBytes);
+        }
+        if (error != null) {
+            return text.append("<-- failed: ").append(error).append('\n').toString();
+        }
+        text.append("<-- ").append(statusLine).append(" (").append(responseBody.length).append(" bytes)\n");
+        headers(text, responseHeaders);
+        body(text, responseBody, maxBodyBytes);
+        return text.toString();
+    }
+
+    private static void headers(StringBuilder text, Headers headers) {
+        if (headers != null) {
+            for (Header header : headers) {
+                text.append(header.getName()).append(": ").append(header.getValue()).append('\n');
+            }
+        }
+    }
+
+    private static void body(StringBuilder text, byte[] body, int maxBodyBytes) {
+        if (body.length == 0) {
+            return;
+        }
+        text.append('\n');
+        if (maxBodyBytes < 0 || body.length <= maxBodyBytes) {
+            text.append(new String(body, StandardCharsets.UTF_8)).append('\n');
+        } else {
+            text.append(new String(body, 0, maxBodyBytes, StandardCharsets.UTF_8))
+                    .append("... (").append(body.length - maxBodyBytes).append(" more bytes)\n");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.cbt.utilities.logging;
+
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class LogRecordTest {
+
+    private static final byte[] BODY = "[{\"name\":\"Harry Potter\"},{\"name\":\"Hermione Granger\"}]"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void longBodiesAreCut() {
+        String text = record(200).format(10);
+
+        assertThat(text, containsString("--> GET http://stub/characters  [T#m]"));
+        assertThat(text, containsString("<-- HTTP/1.1 200 OK (" + BODY.length + " bytes)"));
+        assertThat(text, containsString("[{\"name\":\"... (" + (BODY.length - 10) + " more bytes)"));
+        assertThat(text, not(containsString("Hermione")));
+    }
+
+    @Test
+    public void failuresArePrintedInFull() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AsyncLog log = new AsyncLog(16, 0, 10, new PrintStream(out, true));
+
+        log.log(record(200));
+        log.log(record(401));
+        log.flush(5000);
+
+        String text = out.toString();
+        assertThat(text, not(containsString("200 OK")));
+        assertThat(text, containsString("Hermione Granger"));
+    }
+
+    @Test
+    public void heldBackExchangesOfFailedTestsArePrinted() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AsyncLog log = new AsyncLog(16, 0, 10, new PrintStream(out, true));
+
+        log.log(record(200));
+        log.testFinished("T#m", true);
+        log.flush(5000);
+
+        assertThat(out.toString(), containsString("Hermione Granger"));
+    }
+
+    @Test
+    public void heldBackTestsAreCapped() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AsyncLog log = new AsyncLog(16, 0, 10, new PrintStream(out, true));
+
+        log.log(record("T#first", 200));
+        for (int i = 0; i < Integer.getInteger("log.heldTests", 256); i++) {
+            log.log(record("T#m" + i, 200));
+        }
+        log.testFinished("T#first", true);
+        log.flush(5000);
+
+        assertThat(out.toString(), not(containsString("T#first")));
+    }
+
+    private static LogRecord record(int status) {
+        return record("T#m", status);
+    }
+
+    private static LogRecord record(String test, int status) {
+        return new LogRecord(test, "GET", "http://stub/characters", new Headers(new Header("Accept", "*/*")), null,
+                "HTTP/1.1 " + status + (status == 200 ? " OK" : " Unauthorized"), status,
+                new Headers(new Header("Content-Type", "application/json")), BODY, null);
+    }
+}
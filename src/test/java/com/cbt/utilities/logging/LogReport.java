@@ -0,0 +1,30 @@
+package com.cbt.utilities.logging;
+
+import com.cbt.utilities.latency.CurrentTest;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * Tells {@link AsyncLog} how each test ended, dynamic ones included, so the exchanges of failed tests are printed in
+ * full, and drains the log before the run ends. Registered through {@code META-INF/services}.
+ */
+public class LogReport implements TestExecutionListener {
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        boolean failed = testExecutionResult.getStatus() != TestExecutionResult.Status.SUCCESSFUL;
+        CurrentTest.nameOf(testIdentifier).ifPresent(test -> AsyncLog.shared().testFinished(test, failed));
+        if (testIdentifier.isTest()) {
+            // Dynamic tests have no method name of their own, and pool threads that no test name reached log under
+            // CurrentTest.UNNAMED; whatever they held is released with the next test to end.
+            AsyncLog.shared().testFinished(CurrentTest.UNNAMED, failed);
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        AsyncLog.shared().flush(5000);
+    }
+}
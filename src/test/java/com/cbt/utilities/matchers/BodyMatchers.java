@@ -0,0 +1,38 @@
+package com.cbt.utilities.matchers;
+
+import com.cbt.utilities.http.Body;
+import io.restassured.response.Response;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+/**
+ * Hamcrest matchers on the raw bytes of a response body, which never decode it to a string.
+ */
+public final class BodyMatchers {
+
+    private BodyMatchers() {
+    }
+
+    /**
+     * The body holds {@code text}, encoded in the body's charset.
+     */
+    public static Matcher<Response> bodyContains(String text) {
+        return new TypeSafeDiagnosingMatcher<Response>() {
+            @Override
+            protected boolean matchesSafely(Response response, Description mismatch) {
+                Body body = Body.of(response);
+                if (body.contains(text)) {
+                    return true;
+                }
+                mismatch.appendText("a " + body.length() + " byte body without it");
+                return false;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("a body containing ").appendValue(text);
+            }
+        };
+    }
+}
@@ -0,0 +1,146 @@
+package com.cbt.utilities.matchers;
+
+import com.cbt.utilities.json.HashedNode;
+import com.cbt.utilities.json.JsonDiff;
+import com.cbt.utilities.json.JsonSchema;
+import com.cbt.utilities.json.OrderCheck;
+import com.cbt.utilities.json.Ordering;
+import com.cbt.utilities.json.UniqueValues;
+import io.restassured.response.Response;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+import java.util.List;
+
+/**
+ * Hamcrest matchers that check a JSON body while streaming it, instead of extracting and boxing every value first.
+ */
+public final class JsonMatchers {
+
+    private JsonMatchers() {
+    }
+
+    /**
+     * No two rows of the body share a value at the path.
+     */
+    public static Matcher<Response> allUnique(String path) {
+        return new TypeSafeDiagnosingMatcher<Response>() {
+            @Override
+            protected boolean matchesSafely(Response response, Description mismatch) {
+                UniqueValues values = UniqueValues.exact(path);
+                UniqueValues.scan(response, values);
+                values.duplicate().ifPresent(duplicate -> mismatch.appendText(duplicate.toString()));
+                return !values.duplicate().isPresent();
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("unique values at ").appendValue(path);
+            }
+        };
+    }
+
+    /**
+     * For checks fed across several bodies, such as the pages of a list.
+     */
+    public static Matcher<UniqueValues> hasNoDuplicates() {
+        return new TypeSafeDiagnosingMatcher<UniqueValues>() {
+            @Override
+            protected boolean matchesSafely(UniqueValues values, Description mismatch) {
+                values.duplicate().ifPresent(duplicate -> mismatch.appendText(duplicate.toString()));
+                return !values.duplicate().isPresent();
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("no duplicate values");
+            }
+        };
+    }
+
+    /**
+     * Values at the path follow the ordering in the given direction, checked in one pass over the body.
+     */
+    public static <T> Matcher<Response> isSortedBy(String path, Ordering<T> ordering, OrderCheck.Direction direction) {
+        return new TypeSafeDiagnosingMatcher<Response>() {
+            @Override
+            protected boolean matchesSafely(Response response, Description mismatch) {
+                OrderCheck<T> check = OrderCheck.of(path, ordering, direction);
+                OrderCheck.scan(response, check);
+                check.violation().ifPresent(violation -> mismatch.appendText(violation.toString()));
+                return !check.violation().isPresent();
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendValue(path).appendText(" sorted " + direction.name().toLowerCase() + " by "
+                        + ordering);
+            }
+        };
+    }
+
+    /**
+     * For checks fed across several bodies, such as the pages of a list.
+     */
+    public static Matcher<OrderCheck<?>> isInOrder() {
+        return new TypeSafeDiagnosingMatcher<OrderCheck<?>>() {
+            @Override
+            protected boolean matchesSafely(OrderCheck<?> check, Description mismatch) {
+                check.violation().ifPresent(violation -> mismatch.appendText(violation.toString()));
+                return !check.violation().isPresent();
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("values in order");
+            }
+        };
+    }
+
+    /**
+     * Same structure and values as the expected tree, field order aside. Equal hashes match without a walk; on a
+     * mismatch every differing path is listed.
+     */
+    public static Matcher<HashedNode> sameJsonAs(HashedNode expected) {
+        return new TypeSafeDiagnosingMatcher<HashedNode>() {
+            @Override
+            protected boolean matchesSafely(HashedNode actual, Description mismatch) {
+                if (actual.hash() == expected.hash()) {
+                    return true;
+                }
+                List<JsonDiff.Difference> differences = JsonDiff.diff(expected, actual);
+                for (int i = 0; i < differences.size(); i++) {
+                    mismatch.appendText(i == 0 ? "" : "\n          ").appendText(differences.get(i).toString());
+                }
+                return false;
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("JSON equal to ").appendText(expected.toString());
+            }
+        };
+    }
+
+    /**
+     * The body keeps the contract, checked in one streaming pass; on a mismatch every violation is listed by pointer.
+     */
+    public static Matcher<Response> matchesSchema(JsonSchema schema) {
+        return new TypeSafeDiagnosingMatcher<Response>() {
+            @Override
+            protected boolean matchesSafely(Response response, Description mismatch) {
+                List<JsonSchema.Violation> violations = schema.validate(response);
+                for (int i = 0; i < violations.size(); i++) {
+                    mismatch.appendText(i == 0 ? "" : "\n          ").appendText(violations.get(i).toString());
+                }
+                return violations.isEmpty();
+            }
+
+            @Override
+            public void describeTo(Description description) {
+                description.appendText("body matching schema ").appendText(schema.toString());
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.cbt.utilities.scenarios;
+
+import java.util.List;
+
+/**
+ * One entry of a scenario file, compiled: its name, the steps it documents, the request it sends and what the
+ * answer must look like. A scenario run for each target of a list is one of these per target.
+ */
+public final class ApiScenario {
+
+    private final String name;
+    private final List<String> steps;
+    private final RequestTemplate request;
+    private final Expectations expectations;
+
+    ApiScenario(String name, List<String> steps, RequestTemplate request, Expectations expectations) {
+        this.name = name;
+        this.steps = steps;
+        this.request = request;
+        this.expectations = expectations;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * The step list, as the test's Javadoc used to give it.
+     */
+    public List<String> steps() {
+        return steps;
+    }
+
+    RequestTemplate request() {
+        return request;
+    }
+
+    void verify(Exchange exchange) {
+        expectations.verify(name, exchange);
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + request;
+    }
+}
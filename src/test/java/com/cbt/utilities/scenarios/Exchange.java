@@ -0,0 +1,30 @@
+package com.cbt.utilities.scenarios;
+
+import com.cbt.utilities.json.JsonQuery;
+import io.restassured.response.Response;
+
+/**
+ * A response shared by every scenario that sent the same request, with its body parsed at most once.
+ */
+final class Exchange {
+
+    private final Response response;
+    private Object tree;
+    private boolean parsed;
+
+    Exchange(Response response) {
+        this.response = response;
+    }
+
+    Response response() {
+        return response;
+    }
+
+    synchronized Object tree() {
+        if (!parsed) {
+            tree = JsonQuery.parse(response.asByteArray());
+            parsed = true;
+        }
+        return tree;
+    }
+}
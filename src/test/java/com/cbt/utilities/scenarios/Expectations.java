@@ -0,0 +1,155 @@
+package com.cbt.utilities.scenarios;
+
+import com.cbt.utilities.json.HashedNode;
+import com.cbt.utilities.json.JsonQuery;
+import com.cbt.utilities.json.JsonSchema;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.cbt.utilities.matchers.BodyMatchers.bodyContains;
+import static com.cbt.utilities.matchers.JsonMatchers.matchesSchema;
+import static com.cbt.utilities.matchers.JsonMatchers.sameJsonAs;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+/**
+ * The {@code expect} block of a scenario, compiled into checks: queries are compiled and schemas loaded when the file
+ * is read, so running a check only evaluates it. Every check runs and every failure is reported, not just the first.
+ * <ul>
+ *     <li>{@code status}: the status code</li>
+ *     <li>{@code contentType}: the start of the Content-Type header, so {@code application/json} accepts any
+ *     charset</li>
+ *     <li>{@code statusLine}: text the status line contains</li>
+ *     <li>{@code bodyContains}: text, or a list of texts, the raw body contains</li>
+ *     <li>{@code schema}: a schema under {@code schemas/}, with {@code []} appended for a list of it</li>
+ *     <li>{@code body}: {@link JsonQuery} to expected value, {@code ""} being the whole body. A value is compared as
+ *     JSON; an object with one of the keys {@code equals}, {@code size}, {@code empty} or {@code oneOf} is that
+ *     comparison instead</li>
+ * </ul>
+ */
+final class Expectations {
+
+    private static final Set<String> KEYS = new HashSet<>(Arrays.asList(
+            "status", "contentType", "statusLine", "bodyContains", "schema", "body"));
+    private static final Set<String> OPERATORS = new HashSet<>(Arrays.asList("equals", "size", "empty", "oneOf"));
+
+    private interface Check {
+
+        void verify(Exchange exchange);
+    }
+
+    private final List<Check> checks = new ArrayList<>();
+
+    Expectations(Map<String, Object> expect, String where) {
+        for (String key : expect.keySet()) {
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException(where + ": unknown expectation '" + key + "', expected one of "
+                        + new TreeSet<>(KEYS));
+            }
+        }
+        Object status = expect.get("status");
+        if (status != null) {
+            int code = ((Number) status).intValue();
+            checks.add(exchange -> assertThat("status", exchange.response().statusCode(), is(code)));
+        }
+        Object contentType = expect.get("contentType");
+        if (contentType != null) {
+            checks.add(exchange -> assertThat("content type", exchange.response().contentType(),
+                    startsWith(contentType.toString())));
+        }
+        Object statusLine = expect.get("statusLine");
+        if (statusLine != null) {
+            checks.add(exchange -> assertThat("status line", exchange.response().statusLine(),
+                    containsString(statusLine.toString())));
+        }
+        Object texts = expect.get("bodyContains");
+        if (texts != null) {
+            for (Object text : texts instanceof List ? (List<?>) texts : Collections.singletonList(texts)) {
+                checks.add(exchange -> assertThat(exchange.response(), bodyContains(text.toString())));
+            }
+        }
+        Object schema = expect.get("schema");
+        if (schema != null) {
+            String name = schema.toString();
+            JsonSchema compiled = name.endsWith("[]")
+                    ? JsonSchema.load(name.substring(0, name.length() - 2)).arrayOf()
+                    : JsonSchema.load(name);
+            checks.add(exchange -> assertThat(exchange.response(), matchesSchema(compiled)));
+        }
+        Object body = expect.get("body");
+        if (body != null) {
+            if (!(body instanceof Map)) {
+                throw new IllegalArgumentException(where + ": 'body' must map queries to expected values");
+            }
+            ((Map<?, ?>) body).forEach((query, expected) -> checks.add(body(query.toString(), expected, where)));
+        }
+    }
+
+    void verify(String scenario, Exchange exchange) {
+        assertAll(scenario, checks.stream()
+                .map(check -> (Executable) () -> check.verify(exchange))
+                .collect(Collectors.toList()));
+    }
+
+    private static Check body(String query, Object expected, String where) {
+        JsonQuery compiled;
+        try {
+            compiled = query.isEmpty() ? null : JsonQuery.compile(query);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(where + ": " + e.getMessage(), e);
+        }
+        String label = query.isEmpty() ? "body" : "'" + query + "'";
+        if (!(expected instanceof Map) || ((Map<?, ?>) expected).size() != 1
+                || !OPERATORS.contains(((Map<?, ?>) expected).keySet().iterator().next().toString())) {
+            return equalTo(compiled, label, expected);
+        }
+        Map.Entry<?, ?> operator = ((Map<?, ?>) expected).entrySet().iterator().next();
+        Object operand = operator.getValue();
+        switch (operator.getKey().toString()) {
+            case "size":
+                int size = ((Number) operand).intValue();
+                return exchange -> assertThat(label + " size", size(evaluate(compiled, exchange), label), is(size));
+            case "empty":
+                boolean empty = Boolean.TRUE.equals(operand);
+                return exchange -> assertThat(label + " is empty", size(evaluate(compiled, exchange), label) == 0,
+                        is(empty));
+            case "oneOf":
+                if (!(operand instanceof List)) {
+                    throw new IllegalArgumentException(where + ": 'oneOf' of " + label + " must be a list");
+                }
+                Set<HashedNode> allowed = ((List<?>) operand).stream().map(HashedNode::of).collect(Collectors.toSet());
+                return exchange -> {
+                    Object actual = evaluate(compiled, exchange);
+                    assertThat(label + " is " + actual + ", one of " + operand, allowed.contains(HashedNode.of(actual)),
+                            is(true));
+                };
+            default:
+                return equalTo(compiled, label, operand);
+        }
+    }
+
+    private static Check equalTo(JsonQuery compiled, String label, Object expected) {
+        HashedNode hashed = HashedNode.of(expected);
+        return exchange -> assertThat(label, HashedNode.of(evaluate(compiled, exchange)), sameJsonAs(hashed));
+    }
+
+    private static Object evaluate(JsonQuery query, Exchange exchange) {
+        return query == null ? exchange.tree() : query.evaluate(exchange.tree());
+    }
+
+    private static int size(Object value, String label) {
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).size();
+        }
+        if (value instanceof Map) {
+            return ((Map<?, ?>) value).size();
+        }
+        if (value instanceof String) {
+            return ((String) value).length();
+        }
+        throw new AssertionError(label + " is " + value + ", which has no size");
+    }
+}
@@ -0,0 +1,60 @@
+package com.cbt.utilities.scenarios;
+
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.*;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * The request of a scenario with every placeholder resolved: which specification it starts from, method, path
+ * template, path and query parameters and extra headers. Two templates with the same {@link #key()} send the same
+ * request, so the engine sends it once for both.
+ */
+final class RequestTemplate {
+
+    private final String spec;
+    private final String method;
+    private final String path;
+    private final Map<String, String> pathParams;
+    private final Map<String, String> query;
+    private final Map<String, String> headers;
+    private final String key;
+
+    RequestTemplate(String spec, String method, String path, Map<String, String> pathParams,
+                    Map<String, String> query, Map<String, String> headers) {
+        this.spec = spec;
+        this.method = method.toUpperCase(Locale.ROOT);
+        this.path = path;
+        this.pathParams = Collections.unmodifiableMap(new TreeMap<>(pathParams));
+        this.query = Collections.unmodifiableMap(new TreeMap<>(query));
+        this.headers = Collections.unmodifiableMap(new TreeMap<>(headers));
+        this.key = spec + " " + this.method + " " + path + " " + this.pathParams + " " + this.query + " " + this.headers;
+    }
+
+    String spec() {
+        return spec;
+    }
+
+    String key() {
+        return key;
+    }
+
+    Response send(RequestSpecification base) {
+        RequestSpecification request = given(base);
+        if (!pathParams.isEmpty()) {
+            request.pathParams(pathParams);
+        }
+        if (!query.isEmpty()) {
+            request.queryParams(query);
+        }
+        headers.forEach(request::header);
+        return request.request(method, path);
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + path;
+    }
+}
@@ -0,0 +1,96 @@
+package com.cbt.utilities.scenarios;
+
+import com.cbt.utilities.latency.CurrentTest;
+import com.cbt.utilities.logging.AsyncLog;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Runs the scenarios of a file and hands their outcomes to JUnit, one dynamic test per scenario.
+ *
+ * Scenarios that send the same request share one round-trip and one parsed body, whatever file position they are
+ * at; distinct requests go out side by side, at most {@code -Dscenarios.concurrency} (8) at a time. Requests are built
+ * on the suite's own specifications, so they pass through the same transport, cache, latency and log filters as the
+ * hand-written tests, and are known to the reports as {@code Suite#scenario} after the first scenario that sends them.
+ * <pre>
+ * &#64;TestFactory
+ * public Stream&lt;DynamicNode&gt; scenarios() {
+ *     return ScenarioEngine.run("potter", Map.of("default", PotterApi.spec(), "anonymous", PotterApi.anonymous()));
+ * }
+ * </pre>
+ */
+public final class ScenarioEngine {
+
+    private static final int CONCURRENCY = Integer.getInteger("scenarios.concurrency", 8);
+
+    private ScenarioEngine() {
+    }
+
+    public static Stream<DynamicNode> run(String file, Map<String, RequestSpecification> specs) {
+        return run(file, Scenarios.load(file), specs, CONCURRENCY);
+    }
+
+    static Stream<DynamicNode> run(String suite, List<ApiScenario> scenarios, Map<String, RequestSpecification> specs,
+                                   int concurrency) {
+        Map<String, List<ApiScenario>> byRequest = new LinkedHashMap<>();
+        for (ApiScenario scenario : scenarios) {
+            if (!specs.containsKey(scenario.request().spec())) {
+                throw new IllegalArgumentException(scenario.name() + " uses spec '" + scenario.request().spec()
+                        + "', but the suite only has " + specs.keySet());
+            }
+            byRequest.computeIfAbsent(scenario.request().key(), key -> new ArrayList<>()).add(scenario);
+        }
+        AtomicInteger number = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, task -> {
+            Thread thread = new Thread(task, "scenario-" + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Map<ApiScenario, CompletableFuture<Map<ApiScenario, Throwable>>> outcomes = new HashMap<>();
+        for (List<ApiScenario> sharing : byRequest.values()) {
+            CompletableFuture<Map<ApiScenario, Throwable>> outcome = CompletableFuture.supplyAsync(
+                    () -> run(suite, sharing, specs.get(sharing.get(0).request().spec())), executor);
+            sharing.forEach(scenario -> outcomes.put(scenario, outcome));
+        }
+        executor.shutdown();
+        return scenarios.stream().map(scenario -> DynamicTest.dynamicTest(scenario.name(), () -> {
+            Throwable failure = outcomes.get(scenario).join().get(scenario);
+            if (failure != null) {
+                throw failure;
+            }
+        }));
+    }
+
+    /**
+     * Sends the request the scenarios share and checks each of them against the answer.
+     */
+    private static Map<ApiScenario, Throwable> run(String suite, List<ApiScenario> sharing, RequestSpecification spec) {
+        String name = suite + "#" + sharing.get(0).name();
+        Map<ApiScenario, Throwable> failures = new HashMap<>();
+        Exchange exchange = null;
+        try {
+            exchange = new Exchange(CurrentTest.callAs(name, () -> sharing.get(0).request().send(spec)));
+        } catch (Throwable e) {
+            sharing.forEach(scenario -> failures.put(scenario, e));
+        }
+        if (exchange != null) {
+            for (ApiScenario scenario : sharing) {
+                try {
+                    scenario.verify(exchange);
+                } catch (Throwable e) {
+                    failures.put(scenario, e);
+                }
+            }
+        }
+        AsyncLog.shared().testFinished(name, !failures.isEmpty());
+        return failures;
+    }
+}
@@ -0,0 +1,92 @@
+package com.cbt.utilities.scenarios;
+
+import com.sun.net.httpserver.HttpServer;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ScenarioEngineTest {
+
+    private static final String SCENARIOS = "{\"scenarios\": ["
+            + "{\"name\": \"count\", \"request\": {\"path\": \"/houses\"},"
+            + " \"expect\": {\"status\": 200, \"contentType\": \"application/json\", \"body\": {\"\": {\"size\": 2}}}},"
+            + "{\"name\": \"names\", \"request\": {\"path\": \"/houses\"},"
+            + " \"expect\": {\"body\": {\"name\": [\"Gryffindor\", \"Slytherin\"], \"founder[0]\": {\"oneOf\": [\"Godric\"]}}}},"
+            + "{\"name\": \"wrong\", \"request\": {\"path\": \"/houses\", \"query\": {\"name\": \"Gryffindor\"}},"
+            + " \"expect\": {\"status\": 200, \"body\": {\"name[0]\": \"Hufflepuff\", \"\": {\"empty\": true}}}}"
+            + "]}";
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer server;
+    private RequestSpecification spec;
+
+    @BeforeEach
+    public void serveHouses() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/houses", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = "[{\"name\":\"Gryffindor\",\"founder\":\"Godric\"},{\"name\":\"Slytherin\",\"founder\":\"Salazar\"}]"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        spec = new RequestSpecBuilder().setBaseUri("http://localhost:" + server.getAddress().getPort()).build();
+    }
+
+    @AfterEach
+    public void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    public void identicalRequestsAreSentOnceAndEveryScenarioIsChecked() {
+        List<ApiScenario> scenarios = Scenarios.compile("houses.json", SCENARIOS.getBytes(StandardCharsets.UTF_8));
+        Map<String, Throwable> failures = new LinkedHashMap<>();
+        List<DynamicNode> tests = ScenarioEngine.run("Houses", scenarios, Map.of("default", spec), 2)
+                .collect(Collectors.toList());
+        for (DynamicNode node : tests) {
+            try {
+                ((DynamicTest) node).getExecutable().execute();
+            } catch (Throwable e) {
+                failures.put(node.getDisplayName(), e);
+            }
+        }
+
+        assertThat(tests.stream().map(DynamicNode::getDisplayName).collect(Collectors.toList()),
+                contains("count", "names", "wrong"));
+        assertThat(requests.get(), is(2));
+        assertThat(failures.keySet(), contains("wrong"));
+        assertThat(failures.get("wrong").getSuppressed().length, is(2));
+    }
+
+    @Test
+    public void mistakesInAFileAreReportedWhenItIsRead() {
+        assertThrows(IllegalArgumentException.class, () -> Scenarios.compile("bad.json",
+                "{\"scenarios\": [{\"name\": \"x\", \"request\": {\"path\": \"/\"}, \"expect\": {\"staus\": 200}}]}"
+                        .getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class, () -> Scenarios.compile("bad.json",
+                "{\"scenarios\": [{\"name\": \"x\", \"request\": {\"path\": \"/\"}, \"expect\": {\"body\": {\"a=1\": 1}}}]}"
+                        .getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class, () -> Scenarios.compile("bad.json",
+                "{\"scenarios\": [{\"name\": \"x\", \"expect\": {}}]}".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,166 @@
+package com.cbt.utilities.scenarios;
+
+import com.cbt.utilities.json.JsonQuery;
+import com.cbt.utilities.targets.Target;
+import com.cbt.utilities.targets.Targets;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Scenario files: JSON under {@code src/test/resources/scenarios/}, read and compiled once per run.
+ * <pre>
+ * {"scenarios": [{
+ *     "name": "verifyNoKey",
+ *     "steps": ["Send a get request to /characters without a key", "Verify status code 409"],
+ *     "spec": "anonymous",
+ *     "request": {"method": "GET", "path": "/characters", "query": {"name": "Harry Potter"}},
+ *     "expect": {"status": 409, "body": {"error": "Must pass API key for request"}}
+ * }]}
+ * </pre>
+ * {@code spec} names one of the specifications the suite hands to the {@link ScenarioEngine} ({@code default} when
+ * left out); {@code method} defaults to GET; {@code pathParams}, {@code query} and {@code headers} are maps of
+ * strings. A scenario with {@code "forEach": "<list>"} runs once per target of that {@link Targets} list, named
+ * {@code name[target]}, with {@code {{target}}} and {@code {{attribute}}} replaced in every string. See
+ * {@link Expectations} for the {@code expect} block.
+ */
+public final class Scenarios {
+
+    private static final Map<String, List<ApiScenario>> LOADED = new ConcurrentHashMap<>();
+    private static final Set<String> KEYS = new HashSet<>(Arrays.asList(
+            "name", "steps", "spec", "forEach", "request", "expect"));
+    private static final Set<String> REQUEST_KEYS = new HashSet<>(Arrays.asList(
+            "method", "path", "pathParams", "query", "headers"));
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{(\\w+)}}");
+
+    private Scenarios() {
+    }
+
+    public static List<ApiScenario> load(String file) {
+        return LOADED.computeIfAbsent(file, Scenarios::read);
+    }
+
+    static List<ApiScenario> compile(String file, byte[] json) {
+        Object parsed = JsonQuery.parse(json);
+        Object entries = parsed instanceof Map ? ((Map<?, ?>) parsed).get("scenarios") : null;
+        if (!(entries instanceof List)) {
+            throw new IllegalArgumentException(file + ": expected {\"scenarios\": [...]}");
+        }
+        List<ApiScenario> scenarios = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (Object entry : (List<?>) entries) {
+            Map<String, Object> scenario = map(entry, file + ": a scenario");
+            String where = file + ": " + scenario.get("name");
+            if (!(scenario.get("name") instanceof String)) {
+                throw new IllegalArgumentException(file + ": every scenario needs a name");
+            }
+            for (String key : scenario.keySet()) {
+                if (!KEYS.contains(key)) {
+                    throw new IllegalArgumentException(where + ": unknown key '" + key + "'");
+                }
+            }
+            Object list = scenario.get("forEach");
+            List<Target> targets = list == null ? Collections.singletonList(null) : Targets.load(list.toString());
+            for (Target target : targets) {
+                ApiScenario compiled = compile(scenario, target, where);
+                if (!names.add(compiled.name())) {
+                    throw new IllegalArgumentException(where + ": '" + compiled.name() + "' is defined twice");
+                }
+                scenarios.add(compiled);
+            }
+        }
+        return Collections.unmodifiableList(scenarios);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ApiScenario compile(Map<String, Object> scenario, Target target, String where) {
+        Map<String, Object> resolved = (Map<String, Object>) resolve(scenario, target);
+        String name = resolved.get("name") + (target == null ? "" : "[" + target + "]");
+        List<String> steps = new ArrayList<>();
+        Object stepList = resolved.get("steps");
+        if (stepList != null) {
+            ((List<?>) stepList).forEach(step -> steps.add(String.valueOf(step)));
+        }
+        Map<String, Object> request = map(resolved.get("request"), where + ": 'request'");
+        for (String key : request.keySet()) {
+            if (!REQUEST_KEYS.contains(key)) {
+                throw new IllegalArgumentException(where + ": unknown request key '" + key + "'");
+            }
+        }
+        if (!(request.get("path") instanceof String)) {
+            throw new IllegalArgumentException(where + ": the request needs a path");
+        }
+        RequestTemplate template = new RequestTemplate(
+                String.valueOf(resolved.getOrDefault("spec", "default")),
+                String.valueOf(request.getOrDefault("method", "GET")),
+                (String) request.get("path"),
+                strings(request.get("pathParams"), where + ": 'pathParams'"),
+                strings(request.get("query"), where + ": 'query'"),
+                strings(request.get("headers"), where + ": 'headers'"));
+        Expectations expectations = new Expectations(map(resolved.get("expect"), where + ": 'expect'"), where);
+        return new ApiScenario(name, Collections.unmodifiableList(steps), template, expectations);
+    }
+
+    /**
+     * A copy of the tree with the target's placeholders replaced in every string.
+     */
+    private static Object resolve(Object value, Target target) {
+        if (target == null) {
+            return value;
+        }
+        if (value instanceof String) {
+            Matcher placeholder = PLACEHOLDER.matcher((String) value);
+            StringBuilder resolved = new StringBuilder();
+            while (placeholder.find()) {
+                String attribute = placeholder.group(1);
+                placeholder.appendReplacement(resolved, Matcher.quoteReplacement(
+                        "target".equals(attribute) ? target.name() : target.get(attribute)));
+            }
+            return placeholder.appendTail(resolved).toString();
+        }
+        if (value instanceof Map) {
+            Map<String, Object> resolved = new LinkedHashMap<>();
+            ((Map<?, ?>) value).forEach((key, child) -> resolved.put(String.valueOf(key), resolve(child, target)));
+            return resolved;
+        }
+        if (value instanceof List) {
+            List<Object> resolved = new ArrayList<>();
+            ((List<?>) value).forEach(child -> resolved.add(resolve(child, target)));
+            return resolved;
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Object value, String what) {
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException(what + " must be an object");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private static Map<String, String> strings(Object value, String what) {
+        Map<String, String> strings = new LinkedHashMap<>();
+        if (value != null) {
+            map(value, what).forEach((key, string) -> strings.put(key, String.valueOf(string)));
+        }
+        return strings;
+    }
+
+    private static List<ApiScenario> read(String file) {
+        String resource = "/scenarios/" + file + ".json";
+        try (InputStream in = Scenarios.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No scenario file " + resource + " on the class path");
+            }
+            return compile(resource, in.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + resource, e);
+        }
+    }
+}
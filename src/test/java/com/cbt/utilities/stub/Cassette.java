@@ -0,0 +1,255 @@
+package com.cbt.utilities.stub;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Recorded request/response pairs for one API, kept in a plain text file so they can be read and edited by hand.
+ *
+ * Every exchange looks like this and ends with a line holding only {@code %%}:
+ * <pre>
+ * GET /orgs/cucumber?per_page=100
+ * Accept: application/json
+ *
+ * 200 body=20
+ * Content-Type: application/json; charset=utf-8
+ *
+ * {"login":"cucumber"}
+ * %%
+ * </pre>
+ * {@code body=} is the body's length in bytes, written by {@link #record}: the body is exactly that many bytes, so
+ * carriage returns, a trailing newline and a line that is itself {@code %%} all come back as recorded. Without it,
+ * as in hand-written exchanges, the body is the lines up to the {@code %%} line joined with {@code \n}; drop it
+ * after editing a recorded body by hand. Lines starting with {@code #} between exchanges are comments.
+ */
+public class Cassette {
+
+    static final String END_OF_BODY = "%%";
+    static final String BODY_LENGTH = "body=";
+
+    private final Path file;
+    private final Map<String, Exchange> exchanges = new LinkedHashMap<>();
+
+    private Cassette(Path file) {
+        this.file = file;
+    }
+
+    public static Cassette load(Path file) {
+        Cassette cassette = new Cassette(file);
+        if (Files.exists(file)) {
+            try {
+                cassette.parse(Files.readAllBytes(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read cassette " + file, e);
+            }
+        }
+        return cassette;
+    }
+
+    public synchronized Exchange find(String key) {
+        return exchanges.get(key);
+    }
+
+    public synchronized int size() {
+        return exchanges.size();
+    }
+
+    /**
+     * Stores the exchange, replacing an older one with the same key, and rewrites the file.
+     */
+    public synchronized void record(Exchange exchange) {
+        exchanges.put(exchange.key(), exchange);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Exchange each : exchanges.values()) {
+            each.writeTo(out);
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, out.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write cassette " + file, e);
+        }
+    }
+
+    /**
+     * Builds the lookup key for a request: method, path, query parameters sorted by name and the Accept header.
+     * Query parameters are decoded and encoded again so that equivalent spellings of the same request match.
+     */
+    public static String key(String method, String path, String rawQuery, String accept) {
+        return method.toUpperCase() + " " + path + canonicalQuery(rawQuery) + "\nAccept: " + normalizeAccept(accept);
+    }
+
+    static String canonicalQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        List<String[]> pairs = new ArrayList<>();
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            pairs.add(new String[]{decode(name), decode(value)});
+        }
+        pairs.sort(Comparator.<String[], String>comparing(p -> p[0]).thenComparing(p -> p[1]));
+        StringJoiner query = new StringJoiner("&", "?", "");
+        for (String[] pair : pairs) {
+            query.add(encode(pair[0]) + "=" + encode(pair[1]));
+        }
+        return query.toString();
+    }
+
+    static String normalizeAccept(String accept) {
+        return accept == null || accept.trim().isEmpty() ? "*/*" : accept.trim();
+    }
+
+    private static String decode(String s) {
+        return URLDecoder.decode(s, StandardCharsets.UTF_8);
+    }
+
+    private static String encode(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    }
+
+    private void parse(byte[] bytes) {
+        Lines lines = new Lines(bytes);
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (line.trim().isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String requestLine = line;
+            String accept = null;
+            for (String header = lines.next(); !header.isEmpty(); header = lines.next()) {
+                if (header.regionMatches(true, 0, "Accept:", 0, 7)) {
+                    accept = header.substring(7).trim();
+                }
+            }
+            String[] statusLine = lines.next().trim().split("\\s+");
+            int status = Integer.parseInt(statusLine[0]);
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (String header = lines.next(); !header.isEmpty(); header = lines.next()) {
+                int colon = header.indexOf(':');
+                headers.put(header.substring(0, colon).trim(), header.substring(colon + 1).trim());
+            }
+            byte[] body;
+            if (statusLine.length > 1 && statusLine[1].startsWith(BODY_LENGTH)) {
+                body = lines.take(Integer.parseInt(statusLine[1].substring(BODY_LENGTH.length())));
+                if (!lines.next().isEmpty() || !lines.next().equals(END_OF_BODY)) {
+                    throw new IllegalArgumentException(file + ": body of " + requestLine + " is not "
+                            + statusLine[1].substring(BODY_LENGTH.length()) + " bytes long");
+                }
+            } else {
+                StringJoiner text = new StringJoiner("\n");
+                while (lines.hasNext()) {
+                    String bodyLine = lines.next();
+                    if (bodyLine.equals(END_OF_BODY)) {
+                        break;
+                    }
+                    text.add(bodyLine);
+                }
+                body = text.toString().getBytes(StandardCharsets.UTF_8);
+            }
+            String[] methodAndTarget = requestLine.split(" ", 2);
+            String target = methodAndTarget[1];
+            int q = target.indexOf('?');
+            String path = q < 0 ? target : target.substring(0, q);
+            String query = q < 0 ? null : target.substring(q + 1);
+            Exchange exchange = new Exchange(key(methodAndTarget[0], path, query, accept), status, headers, body);
+            exchanges.put(exchange.key(), exchange);
+        }
+    }
+
+    /**
+     * The cassette's lines, read as UTF-8 without their line ends, and the raw bytes of recorded bodies.
+     */
+    private final class Lines {
+
+        private final byte[] bytes;
+        private int position;
+
+        Lines(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        boolean hasNext() {
+            return position < bytes.length;
+        }
+
+        /**
+         * The next line, or an empty one at the end of the file.
+         */
+        String next() {
+            int start = position;
+            while (position < bytes.length && bytes[position] != '\n') {
+                position++;
+            }
+            int end = position > start && bytes[position - 1] == '\r' ? position - 1 : position;
+            position = Math.min(position + 1, bytes.length);
+            return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        }
+
+        byte[] take(int length) {
+            if (length > bytes.length - position) {
+                throw new IllegalArgumentException(file + ": body runs past the end of the file");
+            }
+            byte[] taken = Arrays.copyOfRange(bytes, position, position + length);
+            position += length;
+            return taken;
+        }
+    }
+
+    /**
+     * One recorded response together with the key of the request that produced it.
+     */
+    public static class Exchange {
+
+        private final String key;
+        private final int status;
+        private final Map<String, String> headers;
+        private final byte[] body;
+
+        public Exchange(String key, int status, Map<String, String> headers, byte[] body) {
+            this.key = key;
+            this.status = status;
+            this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+            this.body = body;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        public int status() {
+            return status;
+        }
+
+        public Map<String, String> headers() {
+            return headers;
+        }
+
+        public byte[] body() {
+            return body;
+        }
+
+        void writeTo(ByteArrayOutputStream out) {
+            StringBuilder head = new StringBuilder();
+            head.append(key).append("\n\n").append(status).append(' ').append(BODY_LENGTH).append(body.length)
+                    .append('\n');
+            headers.forEach((name, value) -> head.append(name).append(": ").append(value).append('\n'));
+            head.append('\n');
+            out.writeBytes(head.toString().getBytes(StandardCharsets.UTF_8));
+            out.writeBytes(body);
+            out.writeBytes(("\n" + END_OF_BODY + "\n\n").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
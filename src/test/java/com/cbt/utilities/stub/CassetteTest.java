@@ -0,0 +1,54 @@
+package com.cbt.utilities.stub;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CassetteTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void recordedBodiesComeBackByteForByte() {
+        Path file = dir.resolve("bodies.http");
+        String[] bodies = {"line one\r\nline two\r\n", "{\"a\":1}\n\n", "before\n%%\nafter", "", "é ✓"};
+        Cassette cassette = Cassette.load(file);
+        for (int i = 0; i < bodies.length; i++) {
+            cassette.record(new Cassette.Exchange(Cassette.key("GET", "/body/" + i, null, null), 200,
+                    Collections.singletonMap("Content-Type", "text/plain"),
+                    bodies[i].getBytes(StandardCharsets.UTF_8)));
+        }
+
+        Cassette reloaded = Cassette.load(file);
+
+        assertThat(reloaded.size(), is(bodies.length));
+        for (int i = 0; i < bodies.length; i++) {
+            Cassette.Exchange exchange = reloaded.find(Cassette.key("GET", "/body/" + i, null, null));
+            assertThat(new String(exchange.body(), StandardCharsets.UTF_8), is(bodies[i]));
+            assertThat(exchange.headers(), hasEntry("Content-Type", "text/plain"));
+        }
+    }
+
+    @Test
+    public void handWrittenBodiesRunToTheEndMarker() throws Exception {
+        Path file = dir.resolve("hand.http");
+        Files.write(file, ("# written by hand\r\n\r\n"
+                + "GET /orgs/cucumber?per_page=100\r\nAccept: application/json\r\n\r\n"
+                + "200\r\nContent-Type: application/json\r\n\r\n"
+                + "{\r\n  \"login\": \"cucumber\"\r\n}\r\n%%\r\n").getBytes(StandardCharsets.UTF_8));
+
+        Cassette.Exchange exchange = Cassette.load(file)
+                .find(Cassette.key("GET", "/orgs/cucumber", "per_page=100", "application/json"));
+
+        assertThat(exchange.status(), is(200));
+        assertThat(new String(exchange.body(), StandardCharsets.UTF_8), is("{\n  \"login\": \"cucumber\"\n}"));
+    }
+}
@@ -0,0 +1,114 @@
+package com.cbt.utilities.stub;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Misbehaviour a {@link StubServer} adds to its answers, to check hedging, timeouts and retries against a bad server
+ * without waiting for the real one to have a bad day.
+ *
+ * For each request the stub draws once: with {@code resetRate} it drops the connection without answering, else with
+ * {@code errorRate} it answers {@code errorStatus}, else with {@code delayRate} it answers after {@code delay}.
+ * Draws come from a seeded generator, so a run that sends its requests in the same order sees the same faults.
+ * <ul>
+ *     <li>{@code -Dstub.fault.delayRate} (0) and {@code -Dstub.fault.delayMillis} (500)</li>
+ *     <li>{@code -Dstub.fault.resetRate} (0)</li>
+ *     <li>{@code -Dstub.fault.errorRate} (0) and {@code -Dstub.fault.errorStatus} (503)</li>
+ *     <li>{@code -Dstub.fault.seed} (42)</li>
+ * </ul>
+ */
+public final class Faults {
+
+    public enum Fault {
+        NONE, DELAY, RESET, ERROR
+    }
+
+    private final double delayRate;
+    private final Duration delay;
+    private final double resetRate;
+    private final double errorRate;
+    private final int errorStatus;
+    private final long seed;
+    private final Random random;
+
+    private Faults(double delayRate, Duration delay, double resetRate, double errorRate, int errorStatus, long seed) {
+        this.delayRate = rate(delayRate, "delayRate");
+        this.delay = delay;
+        this.resetRate = rate(resetRate, "resetRate");
+        this.errorRate = rate(errorRate, "errorRate");
+        this.errorStatus = errorStatus;
+        this.seed = seed;
+        this.random = new Random(seed);
+    }
+
+    public static Faults none() {
+        return new Faults(0, Duration.ofMillis(500), 0, 0, 503, 42);
+    }
+
+    public static Faults fromProperties() {
+        return new Faults(Double.parseDouble(System.getProperty("stub.fault.delayRate", "0")),
+                Duration.ofMillis(Long.getLong("stub.fault.delayMillis", 500L)),
+                Double.parseDouble(System.getProperty("stub.fault.resetRate", "0")),
+                Double.parseDouble(System.getProperty("stub.fault.errorRate", "0")),
+                Integer.getInteger("stub.fault.errorStatus", 503),
+                Long.getLong("stub.fault.seed", 42L));
+    }
+
+    public Faults delays(double rate, Duration delay) {
+        return new Faults(rate, delay, resetRate, errorRate, errorStatus, seed);
+    }
+
+    public Faults resets(double rate) {
+        return new Faults(delayRate, delay, rate, errorRate, errorStatus, seed);
+    }
+
+    public Faults errors(double rate, int status) {
+        return new Faults(delayRate, delay, resetRate, rate, status, seed);
+    }
+
+    public Faults seed(long seed) {
+        return new Faults(delayRate, delay, resetRate, errorRate, errorStatus, seed);
+    }
+
+    public boolean active() {
+        return delayRate > 0 || resetRate > 0 || errorRate > 0;
+    }
+
+    public Duration delay() {
+        return delay;
+    }
+
+    public int errorStatus() {
+        return errorStatus;
+    }
+
+    /**
+     * The fault for the next request.
+     */
+    Fault next() {
+        if (!active()) {
+            return Fault.NONE;
+        }
+        double draw = random.nextDouble();
+        if (draw < resetRate) {
+            return Fault.RESET;
+        }
+        if (draw < resetRate + errorRate) {
+            return Fault.ERROR;
+        }
+        return draw < resetRate + errorRate + delayRate ? Fault.DELAY : Fault.NONE;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("delay %.1f%% by %d ms, reset %.1f%%, %d %.1f%%", delayRate * 100, delay.toMillis(),
+                resetRate * 100, errorStatus, errorRate * 100);
+    }
+
+    private static double rate(double rate, String name) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1, was " + rate);
+        }
+        return rate;
+    }
+}
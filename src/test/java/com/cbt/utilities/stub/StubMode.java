@@ -0,0 +1,20 @@
+package com.cbt.utilities.stub;
+
+/**
+ * How the suites reach an API, selected with {@code -Dstub.mode=replay|record|live}.
+ */
+public enum StubMode {
+
+    /** Serve every request from the cassette; unknown requests get a 501. */
+    REPLAY,
+
+    /** Forward every request to the real host and write the answer to the cassette. */
+    RECORD,
+
+    /** Skip the stub and talk to the real host directly. */
+    LIVE;
+
+    public static StubMode current() {
+        return valueOf(System.getProperty("stub.mode", "replay").trim().toUpperCase());
+    }
+}
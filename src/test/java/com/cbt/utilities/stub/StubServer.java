@@ -0,0 +1,305 @@
+package com.cbt.utilities.stub;
+
+import com.cbt.utilities.http.ContentCoding;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process HTTP server that stands in for a real API.
+ *
+ * In {@link StubMode#REPLAY} it answers from a {@link Cassette} without touching the network, in
+ * {@link StubMode#RECORD} it forwards to the real host and saves every answer, and in {@link StubMode#LIVE} it is not
+ * started at all. Suites only need to swap their base URI:
+ * <pre>
+ * RestAssured.baseURI = StubServer.baseUriFor("github", "https://api.github.com");
+ * </pre>
+ * It can also misbehave on purpose, with delays, dropped connections and 5xx answers; see {@link Faults}.
+ */
+public class StubServer {
+
+    static {
+        // Without TCP_NODELAY, Nagle's algorithm holds the last segment of each answer until the client's delayed
+        // ACK, about 40 ms per replayed response. The JDK server reads this once, when it creates its first server.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private static final Map<String, StubServer> RUNNING = new HashMap<>();
+
+    private static final Set<String> HOP_BY_HOP = new HashSet<>(Arrays.asList(
+            "connection", "content-length", "content-encoding", "transfer-encoding", "keep-alive", ":status"));
+
+    private static final int COMPRESS_MIN_BYTES = Integer.getInteger("stub.compressMinBytes", 1024);
+
+    private final Map<Cassette.Exchange, Map<String, byte[]>> encoded = new ConcurrentHashMap<>();
+    private final String name;
+    private final URI upstream;
+    private final StubMode mode;
+    private final Cassette cassette;
+    private volatile Faults faults = Faults.fromProperties();
+    private HttpServer server;
+    private ExecutorService workers;
+    private HttpClient forwarder;
+
+    public StubServer(String name, String upstream, StubMode mode, Path cassetteFile) {
+        this.name = name;
+        this.upstream = URI.create(upstream);
+        this.mode = mode;
+        this.cassette = Cassette.load(cassetteFile);
+    }
+
+    /**
+     * Returns the base URI the suites should use for the named API, starting a shared stub on first use.
+     * Cassettes live in {@code src/test/resources/cassettes/<name>.http} unless {@code -Dstub.cassettes} says otherwise.
+     */
+    public static synchronized String baseUriFor(String name, String upstream) {
+        StubMode mode = StubMode.current();
+        if (mode == StubMode.LIVE) {
+            return upstream;
+        }
+        StubServer stub = RUNNING.get(name);
+        if (stub == null) {
+            Path dir = Paths.get(System.getProperty("stub.cassettes", "src/test/resources/cassettes"));
+            stub = new StubServer(name, upstream, mode, dir.resolve(name + ".http")).start();
+            RUNNING.put(name, stub);
+            Runtime.getRuntime().addShutdownHook(new Thread(stub::stop));
+        }
+        return stub.baseUri();
+    }
+
+    public StubServer start() {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start stub for " + name, e);
+        }
+        workers = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "stub-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (mode == StubMode.RECORD) {
+            forwarder = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+        }
+        server.setExecutor(workers);
+        server.createContext("/", this::handle);
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            workers.shutdownNow();
+            server = null;
+        }
+    }
+
+    /**
+     * Local address with the upstream base path kept, so relative paths resolve exactly as they would upstream.
+     */
+    public String baseUri() {
+        String path = upstream.getPath() == null ? "" : upstream.getPath();
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    public Cassette cassette() {
+        return cassette;
+    }
+
+    public StubServer faults(Faults faults) {
+        this.faults = faults;
+        return this;
+    }
+
+    public Faults faults() {
+        return faults;
+    }
+
+    private void handle(HttpExchange http) throws IOException {
+        try (http) {
+            if (injectFault(http)) {
+                return;
+            }
+            URI uri = http.getRequestURI();
+            String key = Cassette.key(http.getRequestMethod(), uri.getRawPath(), uri.getRawQuery(),
+                    http.getRequestHeaders().getFirst("Accept"));
+            Cassette.Exchange exchange = mode == StubMode.RECORD ? forward(http, key) : cassette.find(key);
+            if (exchange == null) {
+                byte[] message = ("No recorded exchange in cassette '" + name + "' for\n" + key + "\n")
+                        .getBytes(StandardCharsets.UTF_8);
+                System.err.print(new String(message, StandardCharsets.UTF_8));
+                http.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+                http.sendResponseHeaders(501, message.length);
+                http.getResponseBody().write(message);
+                return;
+            }
+            if (notModified(http, exchange)) {
+                exchange.headers().forEach((header, value) -> {
+                    if (!header.equalsIgnoreCase("Content-Type")) {
+                        http.getResponseHeaders().set(header, value);
+                    }
+                });
+                http.sendResponseHeaders(304, -1);
+                return;
+            }
+            exchange.headers().forEach((header, value) -> http.getResponseHeaders().set(header, value));
+            byte[] body = compressed(http, exchange);
+            http.sendResponseHeaders(exchange.status(), body.length == 0 ? -1 : body.length);
+            if (body.length > 0) {
+                try (OutputStream out = http.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the next fault, if any, and tells whether it already finished the exchange. Closing an exchange before
+     * sending headers closes the connection, which the client sees as a reset.
+     */
+    private boolean injectFault(HttpExchange http) throws IOException {
+        switch (faults.next()) {
+            case RESET:
+                return true;
+            case ERROR:
+                byte[] message = "Injected fault\n".getBytes(StandardCharsets.UTF_8);
+                http.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+                http.sendResponseHeaders(faults.errorStatus(), message.length);
+                http.getResponseBody().write(message);
+                return true;
+            case DELAY:
+                try {
+                    Thread.sleep(faults.delay().toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * The recorded body, gzip or deflate encoded when the client accepts it and it is at least
+     * {@code -Dstub.compressMinBytes} (1024) long, as the real APIs do. Encoded bodies are kept per exchange.
+     */
+    private byte[] compressed(HttpExchange http, Cassette.Exchange exchange) {
+        String coding = ContentCoding.negotiate(http.getRequestHeaders().getFirst("Accept-Encoding"));
+        if (coding == null || exchange.body().length < COMPRESS_MIN_BYTES
+                || header(exchange, "Content-Encoding") != null) {
+            return exchange.body();
+        }
+        http.getResponseHeaders().set("Content-Encoding", coding);
+        http.getResponseHeaders().add("Vary", "Accept-Encoding");
+        return encoded.computeIfAbsent(exchange, e -> new ConcurrentHashMap<>())
+                .computeIfAbsent(coding, c -> ContentCoding.encode(c, exchange.body()));
+    }
+
+    /**
+     * Conditional GET against the recorded response, as the upstream would answer it: {@code If-None-Match} wins
+     * over {@code If-Modified-Since}, and ETags compare weakly.
+     */
+    static boolean notModified(HttpExchange http, Cassette.Exchange exchange) {
+        if (exchange.status() != 200 || !"GET".equalsIgnoreCase(http.getRequestMethod())) {
+            return false;
+        }
+        String ifNoneMatch = http.getRequestHeaders().getFirst("If-None-Match");
+        String etag = header(exchange, "ETag");
+        if (ifNoneMatch != null) {
+            if (etag == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || weak(tag).equals(weak(etag))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        String ifModifiedSince = http.getRequestHeaders().getFirst("If-Modified-Since");
+        String lastModified = header(exchange, "Last-Modified");
+        if (ifModifiedSince == null || lastModified == null) {
+            return false;
+        }
+        try {
+            return !ZonedDateTime.parse(lastModified, DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .isAfter(ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME));
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static String header(Cassette.Exchange exchange, String name) {
+        for (Map.Entry<String, String> header : exchange.headers().entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String weak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private Cassette.Exchange forward(HttpExchange http, String key) throws IOException {
+        URI uri = http.getRequestURI();
+        URI target = URI.create(upstream.getScheme() + "://" + upstream.getRawAuthority() + uri.getRawPath()
+                + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery()));
+        byte[] requestBody;
+        try (InputStream in = http.getRequestBody()) {
+            requestBody = in.readAllBytes();
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(target)
+                .method(http.getRequestMethod(), requestBody.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(requestBody));
+        http.getRequestHeaders().forEach((header, values) -> {
+            if (header.equalsIgnoreCase("Accept") || header.equalsIgnoreCase("Content-Type")
+                    || header.equalsIgnoreCase("Authorization")) {
+                values.forEach(value -> request.header(header, value));
+            }
+        });
+        HttpResponse<byte[]> response;
+        try {
+            response = forwarder.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while recording " + target, e);
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        response.headers().map().forEach((header, values) -> {
+            if (!HOP_BY_HOP.contains(header.toLowerCase())) {
+                headers.put(header, String.join(", ", values));
+            }
+        });
+        Cassette.Exchange exchange = new Cassette.Exchange(key, response.statusCode(), headers, response.body());
+        cassette.record(exchange);
+        return exchange;
+    }
+}
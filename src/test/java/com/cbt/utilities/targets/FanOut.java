@@ -0,0 +1,117 @@
+package com.cbt.utilities.targets;
+
+import com.cbt.utilities.latency.CurrentTest;
+import com.cbt.utilities.logging.AsyncLog;
+import org.junit.jupiter.api.DynamicContainer;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs the {@link ForEachTarget} checks of a test class against every target of their lists, at most
+ * {@code -Dtargets.concurrency} (8) checks at a time, and hands the outcomes to JUnit as one container per target.
+ *
+ * Checks are queued target by target, so the checks of one target run side by side and the requests they have in
+ * common, such as the org itself or the first page of its repos, meet in the shared response cache: one fetches and
+ * the others wait for it. Each check is known to the latency and log reports as {@code Class#method[target]}, and
+ * its outcome goes to {@link TargetReport} the moment it ends. JUnit only collects the outcomes, so a run over many
+ * targets takes about the sum of the checks divided by the concurrency, not their sum.
+ * <pre>
+ * &#64;TestFactory
+ * public Stream&lt;DynamicNode&gt; perOrg() {
+ *     return FanOut.of(this);
+ * }
+ * </pre>
+ */
+public final class FanOut {
+
+    private static final int CONCURRENCY = Integer.getInteger("targets.concurrency", 8);
+
+    private FanOut() {
+    }
+
+    public static Stream<DynamicNode> of(Object tests) {
+        return of(tests, CONCURRENCY);
+    }
+
+    static Stream<DynamicNode> of(Object tests, int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1, was " + concurrency);
+        }
+        Map<Target, List<Method>> checksByTarget = checksByTarget(tests.getClass());
+        String suite = tests.getClass().getSimpleName();
+        AtomicInteger number = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, task -> {
+            Thread thread = new Thread(task, "fanout-" + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<DynamicNode> containers = new ArrayList<>();
+        checksByTarget.forEach((target, checks) -> {
+            List<DynamicNode> outcomes = new ArrayList<>();
+            for (Method check : checks) {
+                CompletableFuture<Throwable> outcome = CompletableFuture.supplyAsync(
+                        () -> run(tests, suite, check, target), executor);
+                outcomes.add(DynamicTest.dynamicTest(check.getName(), () -> {
+                    Throwable failure = outcome.join();
+                    if (failure != null) {
+                        throw failure;
+                    }
+                }));
+            }
+            containers.add(DynamicContainer.dynamicContainer(target.name(), outcomes));
+        });
+        executor.shutdown();
+        return containers.stream();
+    }
+
+    /**
+     * Every target of every check's list with the checks to run against it, in list order.
+     */
+    private static Map<Target, List<Method>> checksByTarget(Class<?> type) {
+        List<Method> checks = Arrays.stream(type.getDeclaredMethods())
+                .filter(method -> method.isAnnotationPresent(ForEachTarget.class))
+                .sorted(Comparator.comparing(Method::getName))
+                .collect(Collectors.toList());
+        if (checks.isEmpty()) {
+            throw new IllegalArgumentException(type.getSimpleName() + " has no @ForEachTarget methods");
+        }
+        Map<Target, List<Method>> checksByTarget = new LinkedHashMap<>();
+        for (Method check : checks) {
+            if (check.getParameterCount() != 1 || check.getParameterTypes()[0] != Target.class) {
+                throw new IllegalArgumentException(type.getSimpleName() + "#" + check.getName()
+                        + " must take a single Target");
+            }
+            check.setAccessible(true);
+            for (Target target : Targets.load(check.getAnnotation(ForEachTarget.class).value())) {
+                checksByTarget.computeIfAbsent(target, t -> new ArrayList<>()).add(check);
+            }
+        }
+        return checksByTarget;
+    }
+
+    private static Throwable run(Object tests, String suite, Method check, Target target) {
+        String name = suite + "#" + check.getName() + "[" + target + "]";
+        long startedAt = System.nanoTime();
+        Throwable failure = null;
+        try {
+            CurrentTest.callAs(name, () -> check.invoke(tests, target));
+        } catch (InvocationTargetException e) {
+            failure = e.getCause();
+        } catch (Throwable e) {
+            failure = e;
+        }
+        AsyncLog.shared().testFinished(name, failure != null);
+        TargetReport.record(suite, target, check.getName(), startedAt, System.nanoTime(), failure);
+        return failure;
+    }
+}
@@ -0,0 +1,95 @@
+package com.cbt.utilities.targets;
+
+import org.junit.jupiter.api.DynamicContainer;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FanOutTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void listsAreParsedWithTheirAttributes() {
+        List<Target> targets = Targets.parse("orgs", Arrays.asList(
+                "# name   attributes",
+                "cucumber id=320565 name=cucumber",
+                "",
+                "rest-assured   # no attributes"));
+
+        assertThat(targets.stream().map(Target::name).collect(Collectors.toList()),
+                contains("cucumber", "rest-assured"));
+        assertThat(targets.get(0).get("id"), is("320565"));
+        assertThat(targets.get(1).get("name"), is("rest-assured"));
+    }
+
+    @Test
+    public void badListsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Targets.parse("orgs", Arrays.asList("a", "a")));
+        assertThrows(IllegalArgumentException.class, () -> Targets.parse("orgs", Arrays.asList("a id")));
+        assertThrows(IllegalArgumentException.class, () -> Targets.parse("orgs", Arrays.asList("# nothing")));
+    }
+
+    @Test
+    public void checksRunAtMostConcurrencyAtATimeAndFailPerTarget() throws Throwable {
+        Path list = dir.resolve("letters.txt");
+        Files.write(list, Arrays.asList("a", "b", "c"), StandardCharsets.UTF_8);
+        System.setProperty("targets.fanout-test", list.toString());
+        Checks checks = new Checks();
+
+        Map<String, List<String>> failed = new TreeMap<>();
+        for (DynamicNode node : FanOut.of(checks, 2).collect(Collectors.toList())) {
+            DynamicContainer target = (DynamicContainer) node;
+            for (DynamicNode check : target.getChildren().collect(Collectors.toList())) {
+                try {
+                    ((DynamicTest) check).getExecutable().execute();
+                } catch (AssertionError e) {
+                    failed.computeIfAbsent(target.getDisplayName(), t -> new ArrayList<>()).add(check.getDisplayName());
+                }
+            }
+        }
+
+        assertThat(checks.runs.get(), is(6));
+        assertThat(checks.maxRunning.get(), is(2));
+        assertThat(failed, is(Collections.singletonMap("b", Collections.singletonList("second"))));
+    }
+
+    static class Checks {
+
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+        private final AtomicInteger runs = new AtomicInteger();
+
+        @ForEachTarget("fanout-test")
+        void first(Target target) throws InterruptedException {
+            run();
+        }
+
+        @ForEachTarget("fanout-test")
+        void second(Target target) throws InterruptedException {
+            run();
+            assertThat(target.name(), is(not("b")));
+        }
+
+        private void run() throws InterruptedException {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            running.decrementAndGet();
+            runs.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.cbt.utilities.targets;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a check that {@link FanOut} runs once per target of the named list. The method takes the
+ * {@link com.cbt.utilities.targets.Target} as its only parameter.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ForEachTarget {
+
+    /**
+     * Name of the target list, see {@link Targets}.
+     */
+    String value();
+}
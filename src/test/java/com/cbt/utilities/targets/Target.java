@@ -0,0 +1,39 @@
+package com.cbt.utilities.targets;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * One organisation, tenant or record a suite's checks run against: a name and the attributes its checks need, as
+ * written on one line of a target list.
+ */
+public final class Target {
+
+    private final String name;
+    private final Map<String, String> attributes;
+
+    Target(String name, Map<String, String> attributes) {
+        this.name = name;
+        this.attributes = Collections.unmodifiableMap(attributes);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * The attribute, or the target name when the line does not set it.
+     */
+    public String get(String attribute) {
+        return attributes.getOrDefault(attribute, name);
+    }
+
+    public Map<String, String> attributes() {
+        return attributes;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,137 @@
+package com.cbt.utilities.targets;
+
+import com.cbt.utilities.cache.ResponseCacheFilter;
+import com.cbt.utilities.json.Json;
+import com.cbt.utilities.latency.LatencyRecord;
+import com.cbt.utilities.latency.LatencyRecorder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Outcomes of the checks {@link FanOut} ran, per target.
+ *
+ * Every check is appended to {@code results.jsonl} as soon as it ends, so a long run over many targets can be
+ * followed while it goes. Once all tests have run, a line per target is printed and written to {@code summary.csv}:
+ * checks, failures, wall time, requests that went over the network and requests the shared response cache answered
+ * for another check. Files go to {@code -Dtargets.reportDir} ({@code target/targets}). Registered through
+ * {@code META-INF/services}.
+ */
+public class TargetReport implements TestExecutionListener {
+
+    private static final Path DIR = Paths.get(System.getProperty("targets.reportDir", "target/targets"));
+
+    private static final Map<String, Summary> SUMMARIES = new LinkedHashMap<>();
+    private static Writer results;
+    private static long firstStartedAt = Long.MAX_VALUE;
+    private static long lastFinishedAt;
+    private static long checkNanos;
+
+    static synchronized void record(String suite, Target target, String check, long startedAt, long finishedAt,
+                                    Throwable failure) {
+        Summary summary = SUMMARIES.computeIfAbsent(suite + " " + target, key -> new Summary(suite, target));
+        summary.add(startedAt, finishedAt, failure != null);
+        firstStartedAt = Math.min(firstStartedAt, startedAt);
+        lastFinishedAt = Math.max(lastFinishedAt, finishedAt);
+        checkNanos += finishedAt - startedAt;
+
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("suite", suite);
+        line.put("target", target.name());
+        line.put("check", check);
+        line.put("status", failure == null ? "passed" : "failed");
+        line.put("millis", (finishedAt - startedAt) / 1_000_000);
+        if (failure != null) {
+            line.put("failure", String.valueOf(failure.getMessage()).trim());
+        }
+        try {
+            if (results == null) {
+                Files.createDirectories(DIR);
+                results = Files.newBufferedWriter(DIR.resolve("results.jsonl"), StandardCharsets.UTF_8);
+            }
+            results.write(Json.MAPPER.writeValueAsString(line));
+            results.write('\n');
+            results.flush();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + DIR.resolve("results.jsonl"), e);
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        synchronized (TargetReport.class) {
+            if (SUMMARIES.isEmpty()) {
+                return;
+            }
+            List<LatencyRecord> records = LatencyRecorder.shared().records();
+            Map<String, Long> shared = ResponseCacheFilter.shared().sharedByTest();
+            StringBuilder csv = new StringBuilder("suite,target,checks,failed,wall_millis,network_requests,"
+                    + "shared_requests\n");
+            for (Summary summary : SUMMARIES.values()) {
+                long network = records.stream().filter(record -> summary.owns(record.getTest())).count();
+                long fromCache = shared.entrySet().stream().filter(entry -> summary.owns(entry.getKey()))
+                        .mapToLong(Map.Entry::getValue).sum();
+                System.out.printf("fan-out %s [%s]: %d checks, %d failed, %d ms, %d requests over the network,"
+                                + " %d shared%n", summary.suite, summary.target, summary.checks, summary.failed,
+                        summary.wallMillis(), network, fromCache);
+                csv.append(String.join(",", summary.suite, summary.target.name(), String.valueOf(summary.checks),
+                        String.valueOf(summary.failed), String.valueOf(summary.wallMillis()), String.valueOf(network),
+                        String.valueOf(fromCache))).append('\n');
+            }
+            System.out.printf("fan-out: %d targets in %d ms, %d ms of checks%n", SUMMARIES.size(),
+                    (lastFinishedAt - firstStartedAt) / 1_000_000, checkNanos / 1_000_000);
+            try {
+                results.close();
+                Files.write(DIR.resolve("summary.csv"), csv.toString().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write " + DIR.resolve("summary.csv"), e);
+            }
+        }
+    }
+
+    private static class Summary {
+
+        private final String suite;
+        private final Target target;
+        private int checks;
+        private int failed;
+        private long startedAt = Long.MAX_VALUE;
+        private long finishedAt;
+
+        Summary(String suite, Target target) {
+            this.suite = suite;
+            this.target = target;
+        }
+
+        void add(long startedAt, long finishedAt, boolean failed) {
+            checks++;
+            if (failed) {
+                this.failed++;
+            }
+            this.startedAt = Math.min(this.startedAt, startedAt);
+            this.finishedAt = Math.max(this.finishedAt, finishedAt);
+        }
+
+        long wallMillis() {
+            return (finishedAt - startedAt) / 1_000_000;
+        }
+
+        /**
+         * Whether a test name, as the latency and cache records carry it, is one of this target's checks.
+         */
+        boolean owns(String test) {
+            return test.startsWith(suite + "#") && test.endsWith("[" + target + "]");
+        }
+    }
+}
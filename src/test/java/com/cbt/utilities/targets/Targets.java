@@ -0,0 +1,85 @@
+package com.cbt.utilities.targets;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Target lists: one target per line, its name first and then {@code key=value} attributes, with blank lines and
+ * {@code #} comments ignored.
+ * <pre>
+ * # name     attributes
+ * cucumber   id=320565
+ * </pre>
+ * {@code -Dtargets.<list>=<file>} runs a list from any file; otherwise it is read from
+ * {@code src/test/resources/targets/<list>.txt}, which holds the targets recorded in the cassettes. A line that
+ * names a target already listed is rejected, since its checks would run twice for nothing.
+ */
+public final class Targets {
+
+    private static final Map<String, List<Target>> LOADED = new ConcurrentHashMap<>();
+
+    private Targets() {
+    }
+
+    public static List<Target> load(String list) {
+        return LOADED.computeIfAbsent(list, Targets::read);
+    }
+
+    static List<Target> parse(String list, List<String> lines) {
+        Map<String, Target> targets = new LinkedHashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            int comment = line.indexOf('#');
+            String[] words = (comment < 0 ? line : line.substring(0, comment)).trim().split("\\s+");
+            if (words[0].isEmpty()) {
+                continue;
+            }
+            Map<String, String> attributes = new LinkedHashMap<>();
+            for (int w = 1; w < words.length; w++) {
+                int equals = words[w].indexOf('=');
+                if (equals < 1) {
+                    throw new IllegalArgumentException(list + ":" + (i + 1) + ": '" + words[w] + "' is not key=value");
+                }
+                attributes.put(words[w].substring(0, equals), words[w].substring(equals + 1));
+            }
+            if (targets.putIfAbsent(words[0], new Target(words[0], attributes)) != null) {
+                throw new IllegalArgumentException(list + ":" + (i + 1) + ": '" + words[0] + "' is listed twice");
+            }
+        }
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("Target list " + list + " is empty");
+        }
+        return Collections.unmodifiableList(new ArrayList<>(targets.values()));
+    }
+
+    private static List<Target> read(String list) {
+        String file = System.getProperty("targets." + list);
+        try {
+            if (file != null) {
+                return parse(file, Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8));
+            }
+            String resource = "/targets/" + list + ".txt";
+            try (InputStream in = Targets.class.getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IllegalArgumentException("No target list " + resource + " on the class path");
+                }
+                List<String> lines = new ArrayList<>();
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    lines.add(line);
+                }
+                return parse(resource, lines);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read target list " + list, e);
+        }
+    }
+}